@@ -0,0 +1,75 @@
+package com.example.tsp.jmh;
+
+import com.example.tsp.construction.TourConstruction;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceMatrix;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.spatial.NeighborSearch;
+import com.example.tsp.tactical.AntColonyOptimization;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ten iterations of ten ants for each colony variant. Trails are kept for candidate edges only, so
+ * memory no longer caps the size; the colony is measured up to 10k to keep the full grid of
+ * variants to a few minutes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AntColonyBenchmark {
+    private static final int ANTS = 10;
+    private static final int ITERATIONS = 10;
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    @Param({"random", "clustered"})
+    private String kind;
+
+    @Param({"ANT_SYSTEM", "MAX_MIN", "ANT_COLONY_SYSTEM"})
+    private AntColonyOptimization.Variant variant;
+
+    @Param({"false", "true"})
+    private boolean localSearch;
+
+    private AntColonyOptimization colony;
+    private DistanceProvider distances;
+    private NeighborLists candidates;
+    private int[] seed;
+
+    @Setup
+    public void setUp() {
+        CitySet cities = Instances.create(kind, size);
+        colony = new AntColonyOptimization();
+        distances = DistanceMatrix.cache(cities);
+        candidates = NeighborSearch.build(cities, AntColonyOptimization.DEFAULT_CANDIDATES);
+        seed = TourConstruction.HILBERT.build(cities);
+    }
+
+    @TearDown
+    public void tearDown() {
+        colony.close();
+    }
+
+    @Benchmark
+    public int[] solve() {
+        return colony.solve(seed, distances, candidates, variant, localSearch, ANTS, ITERATIONS, 1.0, 5.0, 0.2);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.tsp.jmh;
+
+import com.example.tsp.model.CitySet;
+import com.example.tsp.tactical.ChristofidesTSP;
+import com.example.tsp.tactical.MinimumSpanningTree;
+import com.example.tsp.tactical.PerfectMatching;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Christofides stages one at a time, each from the previous stage's output computed once in
+ * setup, and the whole algorithm end to end. The matching uses the AUTO mode, so Blossom V up to
+ * {@link PerfectMatching#EXACT_THRESHOLD} odd vertices and the greedy matching beyond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ChristofidesBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    @Param({"random", "clustered"})
+    private String kind;
+
+    private CitySet cities;
+    private int[] oddVertices;
+    private int[] from;
+    private int[] to;
+    private int[] circuit;
+
+    @Setup
+    public void setUp() {
+        cities = Instances.create(kind, size);
+        MinimumSpanningTree tree = MinimumSpanningTree.build(cities);
+        int[] degree = tree.degrees(size);
+        int count = 0;
+        for (int d : degree) {
+            count += d & 1;
+        }
+        oddVertices = new int[count];
+        for (int city = 0, next = 0; city < size; city++) {
+            if ((degree[city] & 1) != 0) {
+                oddVertices[next++] = city;
+            }
+        }
+
+        int[] matching = PerfectMatching.match(cities, oddVertices, PerfectMatching.Mode.AUTO);
+        from = new int[tree.size() + matching.length / 2];
+        to = new int[from.length];
+        for (int e = 0; e < tree.size(); e++) {
+            from[e] = tree.getFrom(e);
+            to[e] = tree.getTo(e);
+        }
+        for (int p = 0, e = tree.size(); p < matching.length; p += 2, e++) {
+            from[e] = matching[p];
+            to[e] = matching[p + 1];
+        }
+        circuit = ChristofidesTSP.findEulerianCircuit(size, from, to);
+    }
+
+    @Benchmark
+    public MinimumSpanningTree spanningTree() {
+        return MinimumSpanningTree.build(cities);
+    }
+
+    @Benchmark
+    public int[] perfectMatching() {
+        return PerfectMatching.match(cities, oddVertices, PerfectMatching.Mode.AUTO);
+    }
+
+    @Benchmark
+    public int[] eulerianCircuit() {
+        return ChristofidesTSP.findEulerianCircuit(size, from, to);
+    }
+
+    @Benchmark
+    public int[] shortcut() {
+        return ChristofidesTSP.convertEulerianToHamiltonian(cities, circuit, ChristofidesTSP.SHORTCUT_STARTS);
+    }
+
+    @Benchmark
+    public int[] fullTour() {
+        return ChristofidesTSP.optimize(cities, PerfectMatching.Mode.AUTO);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.tsp.jmh;
+
+import com.example.tsp.construction.TourConstruction;
+import com.example.tsp.model.CitySet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each construction heuristic building a tour from scratch, including its own spatial index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ConstructionBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    @Param({"random", "clustered"})
+    private String kind;
+
+    @Param({"NEAREST_NEIGHBOR", "HILBERT", "GREEDY_EDGE", "FARTHEST_INSERTION", "CHEAPEST_INSERTION"})
+    private TourConstruction construction;
+
+    private CitySet cities;
+
+    @Setup
+    public void setUp() {
+        cities = Instances.create(kind, size);
+    }
+
+    @Benchmark
+    public int[] build() {
+        return construction.build(cities);
+    }
+}
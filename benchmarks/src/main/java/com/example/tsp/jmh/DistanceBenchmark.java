@@ -0,0 +1,108 @@
+package com.example.tsp.jmh;
+
+import com.example.tsp.Utility.DistanceUtil;
+import com.example.tsp.model.City;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceMatrix;
+import com.example.tsp.model.DistanceProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one distance evaluation through each of the layers the optimizers use, from the raw
+ * haversine kernel to whatever {@link DistanceMatrix#cache} hands the solver. Under the fork's
+ * 4 GB heap that is the full double table at 1k cities, the double triangle (about 400 MB) at 10k,
+ * and on-demand haversine at 100k, where not even the float triangle fits. Pairs are drawn at
+ * random so lookups pay for their cache misses the way a local search does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DistanceBenchmark {
+    private static final int PAIRS = 1024;
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    @Param({"random", "clustered"})
+    private String kind;
+
+    private CitySet cities;
+    private List<City> cityList;
+    private DistanceProvider cached;
+    private int[] from;
+    private int[] to;
+
+    @Setup
+    public void setUp() {
+        cities = Instances.create(kind, size);
+        cityList = cities.getCities();
+        cached = DistanceMatrix.cache(cities);
+        SplittableRandom random = new SplittableRandom(Instances.SEED);
+        from = new int[PAIRS];
+        to = new int[PAIRS];
+        for (int p = 0; p < PAIRS; p++) {
+            from[p] = random.nextInt(size);
+            to[p] = random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public double haversineDegrees() {
+        double sum = 0;
+        for (int p = 0; p < PAIRS; p++) {
+            int a = from[p];
+            int b = to[p];
+            sum += DistanceUtil.haversineDistance(cities.getLatitude(a), cities.getLongitude(a), cities.getLatitude(b), cities.getLongitude(b));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public double haversinePrecomputed() {
+        double sum = 0;
+        for (int p = 0; p < PAIRS; p++) {
+            sum += cities.distance(from[p], to[p]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public double cityDistanceTo() {
+        double sum = 0;
+        for (int p = 0; p < PAIRS; p++) {
+            sum += cityList.get(from[p]).distanceTo(cityList.get(to[p]));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public double cachedProvider() {
+        double sum = 0;
+        for (int p = 0; p < PAIRS; p++) {
+            sum += cached.distance(from[p], to[p]);
+        }
+        return sum;
+    }
+}
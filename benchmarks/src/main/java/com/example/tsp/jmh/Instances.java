@@ -0,0 +1,55 @@
+package com.example.tsp.jmh;
+
+import com.example.tsp.model.CitySet;
+
+import java.util.SplittableRandom;
+
+/**
+ * Seeded benchmark instances over a box the size of Greater London, like the crime data the
+ * application is used with. "random" spreads the cities uniformly; "clustered" puts them in tight
+ * Gaussian clusters of about 100 cities each, which is much harder on grids and neighbour lists.
+ */
+final class Instances {
+    static final long SEED = 20240601L;
+
+    private static final double MIN_LATITUDE = 51.28;
+    private static final double MIN_LONGITUDE = -0.51;
+    private static final double LATITUDE_SPAN = 0.41;
+    private static final double LONGITUDE_SPAN = 0.84;
+    private static final int CITIES_PER_CLUSTER = 100;
+    private static final double CLUSTER_SPREAD = 0.004;
+
+    private Instances() {
+    }
+
+    static CitySet create(String kind, int n) {
+        SplittableRandom random = new SplittableRandom(SEED + n);
+        double[] latitude = new double[n];
+        double[] longitude = new double[n];
+        switch (kind) {
+            case "random":
+                for (int i = 0; i < n; i++) {
+                    latitude[i] = MIN_LATITUDE + random.nextDouble() * LATITUDE_SPAN;
+                    longitude[i] = MIN_LONGITUDE + random.nextDouble() * LONGITUDE_SPAN;
+                }
+                break;
+            case "clustered":
+                int clusters = Math.max(1, n / CITIES_PER_CLUSTER);
+                double[] centerLatitude = new double[clusters];
+                double[] centerLongitude = new double[clusters];
+                for (int c = 0; c < clusters; c++) {
+                    centerLatitude[c] = MIN_LATITUDE + random.nextDouble() * LATITUDE_SPAN;
+                    centerLongitude[c] = MIN_LONGITUDE + random.nextDouble() * LONGITUDE_SPAN;
+                }
+                for (int i = 0; i < n; i++) {
+                    int c = random.nextInt(clusters);
+                    latitude[i] = centerLatitude[c] + random.nextGaussian() * CLUSTER_SPREAD;
+                    longitude[i] = centerLongitude[c] + random.nextGaussian() * CLUSTER_SPREAD;
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown instance kind " + kind);
+        }
+        return new CitySet(latitude, longitude, null);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.tsp.jmh;
+
+import com.example.tsp.construction.TourConstruction;
+import com.example.tsp.engine.SolverContext;
+import com.example.tsp.engine.SolverStage;
+import com.example.tsp.engine.Stages;
+import com.example.tsp.model.SearchControl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full run of each strategic optimizer, with the settings the engine stages use, from the same
+ * space-filling-curve tour every time. Distances and neighbour lists are built once per trial, as
+ * they are shared between stages in a real run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LocalSearchBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    @Param({"random", "clustered"})
+    private String kind;
+
+    @Param({"2opt", "oropt", "3opt", "lk", "swap"})
+    private String stage;
+
+    private SolverContext context;
+    private SolverStage optimizer;
+    private int[] seed;
+    private int[] tour;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SolverContext(Instances.create(kind, size));
+        context.distances();
+        context.neighbors();
+        optimizer = Stages.byName(stage);
+        seed = TourConstruction.HILBERT.build(context.getCities());
+    }
+
+    @Setup(Level.Iteration)
+    public void resetTour() {
+        tour = seed.clone();
+    }
+
+    @Benchmark
+    public int[] optimize() {
+        return optimizer.apply(tour, context, new SearchControl());
+    }
+}
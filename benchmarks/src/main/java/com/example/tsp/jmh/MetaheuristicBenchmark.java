@@ -0,0 +1,82 @@
+package com.example.tsp.jmh;
+
+import com.example.tsp.construction.TourConstruction;
+import com.example.tsp.model.DistanceMatrix;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.SearchControl;
+import com.example.tsp.model.TourOptimizer;
+import com.example.tsp.tactical.ParallelTemperingOptimizer;
+import com.example.tsp.tactical.SimulatedAnnealingOptimizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated annealing and parallel tempering for a fixed number of steps, so the time per run is
+ * the cost of the moves themselves rather than of a time limit. Parallel tempering runs four
+ * replicas of a quarter of the steps each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MetaheuristicBenchmark {
+    private static final int STEPS = 2_000_000;
+    private static final int REPLICAS = 4;
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    @Param({"random", "clustered"})
+    private String kind;
+
+    @Param({"sa", "pt"})
+    private String algorithm;
+
+    private DistanceProvider distances;
+    private TourOptimizer optimizer;
+    private int[] seed;
+    private int[] tour;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        distances = DistanceMatrix.cache(Instances.create(kind, size));
+        seed = TourConstruction.HILBERT.build(Instances.create(kind, size));
+        double averageEdge = distances.tourLength(seed) / size;
+        switch (algorithm) {
+            case "sa":
+                // Cools from half an average edge to practically zero over the run
+                optimizer = new SimulatedAnnealingOptimizer(averageEdge * 0.5, Math.pow(1e-4, 1.0 / STEPS), STEPS);
+                break;
+            case "pt":
+                optimizer = new ParallelTemperingOptimizer(averageEdge * 0.005, averageEdge * 0.5, REPLICAS, STEPS / REPLICAS,
+                        ParallelTemperingOptimizer.DEFAULT_EXCHANGE_INTERVAL, 0);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown algorithm " + algorithm);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetTour() {
+        tour = seed.clone();
+    }
+
+    @Benchmark
+    public int[] optimize() {
+        return optimizer.optimizeTour(tour, distances, new SearchControl());
+    }
+}
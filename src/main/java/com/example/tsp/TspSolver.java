@@ -1,21 +1,28 @@
 package com.example.tsp;
 
-import com.example.tsp.Utility.FileUtil;
+import com.example.tsp.construction.TourConstruction;
+import com.example.tsp.engine.Pipeline;
+import com.example.tsp.engine.SolverContext;
+import com.example.tsp.engine.SolverResult;
+import com.example.tsp.engine.SolverStage;
+import com.example.tsp.engine.Stages;
+import com.example.tsp.io.BinaryInstanceFormat;
+import com.example.tsp.io.CsvCityReader;
+import com.example.tsp.io.TourExporter;
 import com.example.tsp.model.City;
-import com.example.tsp.model.Edge;
-import com.example.tsp.strategic.RandomSwapping;
-import com.example.tsp.strategic.ThreeOptOptimizer;
-import com.example.tsp.strategic.TwoOptOptimizer;
-import com.example.tsp.tactical.AntColonyOptimization;
-import com.example.tsp.tactical.ChristofidesTSP;
-import com.example.tsp.tactical.SimulatedAnnealingOptimizer;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceMatrix;
+import com.example.tsp.model.SearchControl;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
 import javafx.scene.control.TextInputDialog;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
@@ -24,21 +31,33 @@ import javafx.scene.paint.Color;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 public class TspSolver extends Application {
     private static final double CANVAS_WIDTH = 800;
     private static final double CANVAS_HEIGHT = 800;
+    // Shortest time between two progress frames of a running algorithm
+    private static final long FRAME_MILLIS = 50;
+    // Simulated annealing stops here even if it has iterations left
+    private static final long ANNEAL_BUDGET_MILLIS = 30_000;
+    private static final String DEFAULT_PIPELINE = "hilbert > oropt > 2opt > lk";
 
     private List<City> cities = new ArrayList<>();
 
-    private List<City> christofideTour = new ArrayList<>();
+    // The tour the improvement buttons and pipelines continue from; every finished run replaces it
+    private int[] currentTour;
+
+    // Index view and cached distances of the current cities, shared by every algorithm run
+    private SolverContext context;
+
+    // The algorithm running in the background, if any; only touched on the FX thread
+    private SearchControl running;
 
     Label solutionCostLabel = new Label("Solution cost: N/A");
 
@@ -63,33 +82,74 @@ public class TspSolver extends Application {
         btnChristofides.setOnAction(e -> christofidesAlgorithm(linesCanvas));
 
         Button btnRandomSwap = new Button("Random swap");
-        btnRandomSwap.setOnAction(e -> randomSwapping(linesCanvas, new ArrayList<>(christofideTour)));
+        btnRandomSwap.setOnAction(e -> improve(linesCanvas, Stages.randomSwapping(), Color.DARKGREEN, "randomswap.csv"));
 
         Button btn2Opt = new Button("2-Opt");
-        btn2Opt.setOnAction(e -> twoOptOptimization(linesCanvas, new ArrayList<>(christofideTour)));
+        btn2Opt.setOnAction(e -> improve(linesCanvas, Stages.twoOpt(), Color.DARKMAGENTA, "twoOpt.csv"));
+
+        Button btnOrOpt = new Button("Or-Opt");
+        btnOrOpt.setOnAction(e -> improve(linesCanvas, Stages.orOpt(), Color.TEAL, "orOpt.csv"));
 
         Button btn3Opt = new Button("3-Opt");
-        btn3Opt.setOnAction(e -> opt3(linesCanvas, new ArrayList<>(christofideTour)));
+        btn3Opt.setOnAction(e -> improve(linesCanvas, Stages.threeOpt(), Color.RED, "threeOpt.csv"));
+
+        Button btnLinKernighan = new Button("Lin-Kernighan");
+        btnLinKernighan.setOnAction(e -> improve(linesCanvas, Stages.linKernighan(), Color.DARKORANGE, "linKernighan.csv"));
 
         Button btnSimAnneal = new Button("Simulated Annealing");
-        btnSimAnneal.setOnAction(e -> anneal(linesCanvas, new ArrayList<>(christofideTour)));
+        btnSimAnneal.setOnAction(e -> improve(linesCanvas, Stages.simulatedAnnealing(), Color.CHOCOLATE, "simulatedAnnealing.csv", ANNEAL_BUDGET_MILLIS));
+
+        Button btnTempering = new Button("Parallel Tempering");
+        btnTempering.setOnAction(e -> improve(linesCanvas, Stages.parallelTempering(), Color.SADDLEBROWN, "parallelTempering.csv"));
 
         Button btnNN = new Button("NN");
-        btnNN.setOnAction(e -> nearestNeighbor(linesCanvas, new ArrayList<>(cities)));
+        btnNN.setOnAction(e -> constructTour(linesCanvas, TourConstruction.NEAREST_NEIGHBOR, Color.RED, "nearestNeighbor.csv"));
+
+        Button btnHilbert = new Button("Space-Filling Curve");
+        btnHilbert.setOnAction(e -> constructTour(linesCanvas, TourConstruction.HILBERT, Color.DARKCYAN, "hilbert.csv"));
+
+        Button btnGreedy = new Button("Greedy Edge");
+        btnGreedy.setOnAction(e -> constructTour(linesCanvas, TourConstruction.GREEDY_EDGE, Color.DARKOLIVEGREEN, "greedyEdge.csv"));
+
+        Button btnInsertion = new Button("Farthest Insertion");
+        btnInsertion.setOnAction(e -> constructTour(linesCanvas, TourConstruction.FARTHEST_INSERTION, Color.INDIGO, "farthestInsertion.csv"));
 
         Button btnAntColony = new Button("Ant Colony");
-        btnAntColony.setOnAction(e -> antColonyOpt(linesCanvas, new ArrayList<>(christofideTour)));
+        btnAntColony.setOnAction(e -> improve(linesCanvas, Stages.antColony(), Color.INDIGO, "antColony.csv"));
+
+        TextField pipelineField = new TextField(DEFAULT_PIPELINE);
+        pipelineField.setPrefColumnCount(20);
+        Button btnPipeline = new Button("Run pipeline");
+        btnPipeline.setOnAction(e -> runPipeline(linesCanvas, pipelineField.getText()));
+
+        Button btnStop = new Button("Stop");
+        btnStop.setOnAction(e -> stopRun());
 
         Button btnUpload = new Button("Upload CSV");
         Label lblStatus = new Label();
         btnUpload.setOnAction(e -> {
             FileChooser fileChooser = new FileChooser();
             fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Binary instances", "*" + BinaryInstanceFormat.EXTENSION));
             File selectedFile = fileChooser.showOpenDialog(primaryStage);
 
             if (selectedFile != null) {
-                List<City> cities = readCitiesFromCSV(selectedFile);
+                SolverContext loaded;
+                try {
+                    loaded = loadInstance(selectedFile.toPath());
+                } catch (IOException | IllegalArgumentException ex) {
+                    Alert alert = new Alert(Alert.AlertType.ERROR);
+                    alert.setTitle("Error");
+                    alert.setHeaderText("Could not read " + selectedFile.getName());
+                    alert.setContentText(ex.getMessage());
+                    alert.showAndWait();
+                    return;
+                }
+                List<City> cities = loaded.getCities().getCities();
                 this.cities = cities;
+                invalidateDistances();
+                // The reader already built the index the solver works on
+                context = loaded;
                 GraphicsContext citiesGc = citiesCanvas.getGraphicsContext2D();
                 GraphicsContext linesGc = linesCanvas.getGraphicsContext2D();
                 plotCities(citiesGc, linesGc, citiesCanvas, linesCanvas, cities);
@@ -122,7 +182,7 @@ public class TspSolver extends Application {
         });
 
 
-        HBox buttons = new HBox(10, btnClear, btnNN, btnChristofides, btnRandomSwap, btn2Opt, btn3Opt, btnSimAnneal, btnAntColony, btnRandom, btnUpload);
+        HBox buttons = new HBox(10, btnClear, btnNN, btnHilbert, btnGreedy, btnInsertion, btnChristofides, btnRandomSwap, btn2Opt, btnOrOpt, btn3Opt, btnLinKernighan, btnSimAnneal, btnTempering, btnAntColony, pipelineField, btnPipeline, btnStop, btnRandom, btnUpload);
         buttons.setSpacing(10);
 
         VBox root = new VBox(10, pane, buttons, solutionCostLabel);
@@ -136,25 +196,24 @@ public class TspSolver extends Application {
         primaryStage.show();
     }
 
-    private List<City> readCitiesFromCSV(File file) {
-        List<City> cities = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            br.readLine(); // Skip the header row if it exists
-            while ((line = br.readLine()) != null) {
-                String[] values = line.split(",");
-                if (values.length >= 3) {
-                    String crimeIdLong = values[0];
-                    String crimeId = crimeIdLong.substring(crimeIdLong.length() - 5);
-                    double longitude = Double.parseDouble(values[1]);
-                    double latitude = Double.parseDouble(values[2]);
-                    cities.add(new City(longitude, latitude, latitude, longitude, crimeId));
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+    // Lets the exports already asked for finish before the JVM exits
+    @Override
+    public void stop() {
+        stopRun();
+        TourExporter.getDefault().close();
+    }
+
+    /**
+     * A binary instance comes with the neighbour lists and distance table saved next to it, if
+     * any; a CSV file is parsed with the team project's column layout.
+     */
+    private static SolverContext loadInstance(Path file) throws IOException {
+        if (BinaryInstanceFormat.isBinaryInstance(file)) {
+            CitySet cities = BinaryInstanceFormat.read(file);
+            DistanceMatrix distances = BinaryInstanceFormat.readDistances(file, cities);
+            return new SolverContext(cities, distances != null ? distances : cities, BinaryInstanceFormat.readNeighbors(file, cities));
         }
-        return cities;
+        return new SolverContext(new CsvCityReader(CsvCityReader.Layout.TEAM_PROJECT, true).read(file));
     }
 
     private void plotCities(GraphicsContext citiesGc, GraphicsContext linesGc, Canvas citiesCanvas, Canvas linesCanvas, List<City> cities) {
@@ -278,72 +337,126 @@ public class TspSolver extends Application {
         linesGc.clearRect(0, 0, linesCanvas.getWidth(), linesCanvas.getHeight());
 
         cities.clear();
-        christofideTour.clear();
+        currentTour = null;
+        invalidateDistances();
 
         solutionCostLabel.setText("Solution cost: N/A");
     }
 
 
-    private void nearestNeighbor(Canvas canvas, List<City> cities) {
+    // Builds a seed tour that the optimizer buttons then start from
+    private void constructTour(Canvas canvas, TourConstruction construction, Color color, String fileName) {
         if (cities.size() < 2) {
             return;
         }
+        run(canvas, Pipeline.of(Stages.construction(construction)), null, color, fileName, 0);
+    }
 
-        GraphicsContext gc = canvas.getGraphicsContext2D();
-        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
-        gc.setStroke(Color.RED);
+    private void christofidesAlgorithm(Canvas canvas) {
+        if (cities.size() < 2) {
+            return;
+        }
+        run(canvas, Pipeline.of(Stages.christofides()), null, Color.AQUA, "christofide.csv", 0);
+    }
 
-        for (int i = 0; i < cities.size() - 1; i++) {
-            City currentCity = cities.get(i);
-            double minDistance = Double.MAX_VALUE;
-            int minIndex = i + 1;
-
-            for (int j = i + 1; j < cities.size(); j++) {
-                double distance = currentCity.distanceTo(cities.get(j));
-                if (distance < minDistance) {
-                    minDistance = distance;
-                    minIndex = j;
-                }
-            }
+    private void improve(Canvas canvas, SolverStage stage, Color color, String fileName) {
+        improve(canvas, stage, color, fileName, 0);
+    }
 
-            City tempCity = cities.get(i + 1);
-            cities.set(i + 1, cities.get(minIndex));
-            cities.set(minIndex, tempCity);
+    // Continues from the current tour; does nothing until some run has produced one
+    private void improve(Canvas canvas, SolverStage stage, Color color, String fileName, long budgetMillis) {
+        if (currentTour == null) {
+            return;
+        }
+        run(canvas, Pipeline.of(stage), currentTour, color, fileName, budgetMillis);
+    }
 
-            gc.strokeLine(currentCity.getX(), currentCity.getY(), cities.get(i + 1).getX(), cities.get(i + 1).getY());
+    // A pipeline that starts with an improvement stage continues from the current tour, if any
+    private void runPipeline(Canvas canvas, String spec) {
+        if (cities.size() < 2) {
+            return;
         }
+        Pipeline pipeline;
+        try {
+            pipeline = Pipeline.parse(spec);
+        } catch (IllegalArgumentException ex) {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Error");
+            alert.setHeaderText("Invalid Pipeline");
+            alert.setContentText(ex.getMessage());
+            alert.showAndWait();
+            return;
+        }
+        run(canvas, pipeline, currentTour, Color.DARKBLUE, "pipeline.csv", 0);
+    }
 
-        City firstCity = cities.get(0);
-        City lastCity = cities.get(cities.size() - 1);
+    /**
+     * Runs a pipeline on a background thread over the current cities, starting from `order` (or
+     * from the cities in index order when null), which is not modified. Improving tours are drawn
+     * as they arrive, at most one frame per FRAME_MILLIS. The final tour becomes the current tour
+     * and is saved to `fileName`. Stop or the time budget (none when non-positive) ends the run
+     * early with its best tour so far; starting another run or changing the cities discards it.
+     */
+    private void run(Canvas canvas, Pipeline pipeline, int[] order, Color color, String fileName, long budgetMillis) {
+        stopRun();
+        SolverContext runContext = context();
+        CitySet runCities = runContext.getCities();
+        SearchControl control = new SearchControl(FRAME_MILLIS);
+        // Holds the newest tour not drawn yet; a redraw is only queued when it was empty
+        AtomicReference<int[]> pendingFrame = new AtomicReference<>();
+        control.setListener((tour, cost) -> {
+            if (pendingFrame.getAndSet(tour) == null) {
+                Platform.runLater(() -> {
+                    int[] frame = pendingFrame.getAndSet(null);
+                    if (frame != null && control == running) {
+                        displayData(canvas, runCities.toCities(frame, true), color);
+                    }
+                });
+            }
+        });
 
-        gc.strokeLine(firstCity.getX(), firstCity.getY(), lastCity.getX(), lastCity.getY());
+        Task<SolverResult> task = new Task<>() {
+            @Override
+            protected SolverResult call() {
+                return pipeline.run(runContext, order, budgetMillis, control);
+            }
+        };
+        task.setOnSucceeded(e -> {
+            if (control != running) {
+                return;
+            }
+            running = null;
+            SolverResult result = task.getValue();
+            currentTour = result.getTour();
+            List<City> optimizedTour = runCities.toCities(currentTour, true);
+            displayData(canvas, optimizedTour, color);
+            TourExporter.getDefault().export(runCities, currentTour, fileName).whenComplete((files, error) -> {
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    Platform.runLater(() -> solutionCostLabel.setText("Could not save the tour: " + cause.getMessage()));
+                } else {
+                    files.forEach(file -> System.out.println("Tour saved to " + file.toAbsolutePath()));
+                }
+            });
+        });
+        task.setOnFailed(e -> {
+            if (control == running) {
+                running = null;
+                solutionCostLabel.setText(pipeline + " failed: " + task.getException().getMessage());
+            }
+        });
 
-        solutionCostLabel.setText("Solution cost: " + String.format("%.2f", calculateSolutionCost(cities)));
+        running = control;
+        solutionCostLabel.setText("Running " + pipeline + "...");
+        Thread thread = new Thread(task, "solver");
+        thread.setDaemon(true);
+        thread.start();
     }
 
-    private void christofidesAlgorithm(Canvas canvas) {
-        if (cities.size() < 2) {
-            return;
+    private void stopRun() {
+        if (running != null) {
+            running.cancel();
         }
-        /*List<Edge> mst = minimumSpanningTree(cities);
-        System.out.println("MST: " + mst.size());
-        double mstCost = getMstCost(mst);
-        System.out.println("Minimum spanning tree cost: " + mstCost);
-        List<City> oddVertices = oddDegreeVertices(cities, mst);
-        System.out.println("Odd degree vertices: " + oddVertices.size());
-        List<Edge> matching = minimumWeightPerfectMatching(oddVertices);
-        System.out.println("MWPM: " + matching.size());
-        List<Edge> multigraph = combineMSTAndMatching(mst, matching);
-        System.out.println("Combined edges: " + multigraph.size());
-        List<City> eulerianTour = findEulerianCircuit(multigraph);
-        System.out.println("Eulerian circuit: " + eulerianTour.size());
-        List<City> optimizedTour = convertEulerianToHamiltonian(eulerianTour);
-        System.out.println("Hamiltonian cycle: " + optimizedTour.size());*/
-
-        List<City> optimizedTour = ChristofidesTSP.optimize(cities);
-        christofideTour = new ArrayList<>(optimizedTour);
-        displayData(canvas, optimizedTour, Color.AQUA);
-        FileUtil.writeTourToCsv(optimizedTour, "christofide.csv");
     }
 
     private void displayData(Canvas canvas, List<City> cities, Color color) {
@@ -372,268 +485,25 @@ public class TspSolver extends Application {
         solutionCostLabel.setText("Solution cost: " + String.format("%.2f", cost));
     }
 
-    private void randomSwapping(Canvas canvas, List<City> tour) {
-        List<City> optimizedTour = RandomSwapping.optimize(tour, 10000);
-        displayData(canvas, optimizedTour, Color.DARKGREEN);
-        FileUtil.writeTourToCsv(optimizedTour, "randomswap.csv");
-    }
-
-    public void addCityWithoutLine(double x, double y) {
-        City city = new City(x, y, y, x, "");
-        cities.add(city);
-    }
-
-    private double getMstCost(List<Edge> mst) {
-        double cost = 0;
-        for (Edge edge : mst) {
-            cost += edge.getWeight();
-        }
-        return cost;
-    }
-
-    private List<Edge> minimumSpanningTree(List<City> cities) {
-        List<Edge> mst = new ArrayList<>();
-        Set<City> visitedCities = new HashSet<>();
-        PriorityQueue<Edge> minHeap = new PriorityQueue<>();
-
-        // Pick the first city as a starting point
-        City startingCity = cities.get(0);
-        visitedCities.add(startingCity);
-
-        // Add all edges connected to the starting city to the minHeap
-        for (City city : cities) {
-            if (!city.equals(startingCity)) {
-                minHeap.offer(new Edge(startingCity, city, startingCity.distanceTo(city)));
-            }
-        }
-
-        while (!minHeap.isEmpty() && mst.size() < cities.size() - 1) {
-            // Get the edge with the smallest weight
-            Edge currentEdge = minHeap.poll();
-
-            // If the target city has not been visited, add it to the MST
-            if (!visitedCities.contains(currentEdge.getTarget())) {
-                mst.add(currentEdge);
-                visitedCities.add(currentEdge.getTarget());
-
-                // Add all edges connected to the new city that are not yet in the MST to the minHeap
-                for (City city : cities) {
-                    if (!visitedCities.contains(city)) {
-                        minHeap.offer(new Edge(currentEdge.getTarget(), city, currentEdge.getTarget().distanceTo(city)));
-                    }
-                }
-            }
-        }
-
-        return mst;
-    }
-
-    private List<City> oddDegreeVertices(List<City> cities, List<Edge> mst) {
-        Map<City, Integer> degreeMap = new HashMap<>();
-
-        // Initialize the degree map
-        for (City city : cities) {
-            degreeMap.put(city, 0);
-        }
-
-        // Count the degrees of each city in the MST
-        for (Edge edge : mst) {
-            degreeMap.put(edge.getSource(), degreeMap.get(edge.getSource()) + 1);
-            degreeMap.put(edge.getTarget(), degreeMap.get(edge.getTarget()) + 1);
-        }
-
-        // Collect cities with odd degrees
-        List<City> oddDegreeCities = new ArrayList<>();
-        for (City city : cities) {
-            if (degreeMap.get(city) % 2 != 0) {
-                oddDegreeCities.add(city);
-            }
-        }
-
-        return oddDegreeCities;
-    }
-
-    private List<Edge> minimumWeightPerfectMatching(List<City> oddDegreeVertices) {
-        List<Edge> matching = new ArrayList<>();
-        List<City> unmatchedVertices = new ArrayList<>(oddDegreeVertices);
-
-        while (!unmatchedVertices.isEmpty()) {
-            double minDistance = Double.MAX_VALUE;
-            Edge minEdge = null;
-            int minIndex = -1;
-
-            for (int i = 0; i < unmatchedVertices.size(); i++) {
-                City city1 = unmatchedVertices.get(i);
-                for (int j = i + 1; j < unmatchedVertices.size(); j++) {
-                    City city2 = unmatchedVertices.get(j);
-                    double distance = city1.distanceTo(city2);
-                    if (distance < minDistance) {
-                        minDistance = distance;
-                        minEdge = new Edge(city1, city2, distance);
-                        minIndex = j;
-                    }
-                }
-            }
-
-            matching.add(minEdge);
-            unmatchedVertices.remove(minIndex);
-            unmatchedVertices.remove(0);
-        }
-
-        return matching;
-    }
-
-    private List<Edge> combineMSTAndMatching(List<Edge> mst, List<Edge> matching) {
-        List<Edge> multigraph = new ArrayList<>(mst);
-        multigraph.addAll(matching);
-        return multigraph;
-    }
-
-    private List<City> findEulerianCircuit(List<Edge> multigraph) {
-        Map<City, List<City>> adjacencyList = buildAdjacencyList(multigraph);
-        List<City> tour = new ArrayList<>();
-        Stack<City> stack = new Stack<>();
-        City startVertex = multigraph.get(0).getSource();
-
-        stack.push(startVertex);
-        while (!stack.isEmpty()) {
-            City currentVertex = stack.peek();
-            if (adjacencyList.get(currentVertex).size() > 0) {
-                City nextVertex = adjacencyList.get(currentVertex).iterator().next();
-                stack.push(nextVertex);
-                adjacencyList.get(currentVertex).remove(nextVertex);
-                adjacencyList.get(nextVertex).remove(currentVertex);
-            } else {
-                stack.pop();
-                tour.add(currentVertex);
-            }
+    private SolverContext context() {
+        if (context == null) {
+            context = new SolverContext(CitySet.of(cities));
         }
-        return tour;
+        return context;
     }
 
-    private Map<City, List<City>> buildAdjacencyList(List<Edge> edges) {
-        Map<City, List<City>> adjacencyList = new HashMap<>();
-        for (Edge edge : edges) {
-            adjacencyList.computeIfAbsent(edge.getSource(), k -> new ArrayList<>()).add(edge.getTarget());
-            adjacencyList.computeIfAbsent(edge.getTarget(), k -> new ArrayList<>()).add(edge.getSource());
-        }
-        return adjacencyList;
+    private void invalidateDistances() {
+        // A run over the previous cities can neither be shown nor used as a seed
+        stopRun();
+        running = null;
+        context = null;
+        // A tour over the previous cities no longer matches the cached index
+        currentTour = null;
     }
 
-    private List<City> convertEulerianToHamiltonian(List<City> eulerianCircuit) {
-        List<City> hamiltonianCycle = new ArrayList<>();
-        Set<Integer> visitedCityIds = new HashSet<>();
-
-        for (City city : eulerianCircuit) {
-            if (visitedCityIds.add(city.getId())) {
-                hamiltonianCycle.add(city);
-            }
-        }
-        hamiltonianCycle.add(eulerianCircuit.get(0)); // Close the cycle by adding the starting city
-        return hamiltonianCycle;
-    }
-
-    public void twoOptOptimization(Canvas canvas, List<City> tour) {
-        List<City> optimizedTour = TwoOptOptimizer.optimize(tour);
-        displayData(canvas, optimizedTour, Color.DARKMAGENTA);
-        FileUtil.writeTourToCsv(optimizedTour, "twoOpt.csv");
-    }
-
-    public void opt3(Canvas canvas, List<City> tour) {
-        List<City> optimizedTour = ThreeOptOptimizer.optimize(tour);
-        displayData(canvas, optimizedTour, Color.RED);
-        FileUtil.writeTourToCsv(optimizedTour, "threeOpt.csv");
-    }
-
-    public void threeOpt(Canvas canvas, List<City> christofideTour, int maxIterations) {
-        int iterations = 0;
-        boolean improved = true;
-        while (improved && iterations < maxIterations) {
-            improved = false;
-            for (int i = 0; i < christofideTour.size() - 2; i++) {
-                for (int j = i + 1; j < christofideTour.size() - 1; j++) {
-                    for (int k = j + 1; k < christofideTour.size(); k++) {
-                        double delta = calculateDelta(christofideTour, i, j, k);
-                        if (delta < 0) {
-                            swap(christofideTour, i + 1, j, k);
-                            improved = true;
-                        }
-                    }
-                }
-            }
-            System.out.println("Iteration: "+iterations);
-            iterations++;
-        }
-        displayData(canvas, christofideTour, Color.RED);
-    }
-
-    public static void swap(List<City> tour, int i, int j, int k) {
-        List<City> temp = new ArrayList<>(tour.size());
-
-        for (int a = 0; a <= i - 1; a++) {
-            temp.add(tour.get(a));
-        }
-
-        int dec = 0;
-        for (int a = i; a <= j; a++) {
-            temp.add(tour.get(j - dec));
-            dec++;
-        }
-
-        for (int a = j + 1; a <= k; a++) {
-            temp.add(tour.get(a));
-        }
-
-        for (int a = k + 1; a < tour.size(); a++) {
-            temp.add(tour.get(a));
-        }
-
-        for (int a = 0; a < tour.size(); a++) {
-            tour.set(a, temp.get(a));
-        }
-    }
-
-    private double calculateDelta(List<City> tour, int i, int j, int k) {
-        City city_i = tour.get(i);
-        City city_i1 = tour.get((i + 1) % tour.size());
-        City city_j = tour.get(j);
-        City city_j1 = tour.get((j + 1) % tour.size());
-        City city_k = tour.get(k);
-        City city_k1 = tour.get((k + 1) % tour.size());
-
-        double before = city_i.distanceTo(city_i1) + city_j.distanceTo(city_j1) + city_k.distanceTo(city_k1);
-        double after = city_i.distanceTo(city_j) + city_j1.distanceTo(city_k) + city_k1.distanceTo(city_i1);
-
-        return after - before;
-    }
-
-    private void anneal(Canvas canvas, List<City> tour) {
-        double initialTemperature = 1000;
-        double finalTemperature = 0.01;
-        double coolingRate = 0.9995;
-        long maxExecutionTimeMillis = 30000; // 30 seconds
-        int maxStagnation = 5000;
-        SimulatedAnnealingOptimizer optimizer = new SimulatedAnnealingOptimizer(10000, 0.999999, 100);
-        List<City> optimizedTour = optimizer.optimizeTour(tour);
-//        List<City> optimizedTour = SimulatedAnnealing.optimize(tour, initialTemperature, coolingRate, 1000);
-        displayData(canvas, optimizedTour, Color.CHOCOLATE);
-        FileUtil.writeTourToCsv(optimizedTour, "simulatedAnnealing.csv");
-    }
-
-    private void antColonyOpt(Canvas canvas, List<City> tour) {
-//        int numAnts = 50;
-//        int numIterations = 1000;
-//        double alpha = 1.0;
-//        double beta = 5.0;
-//        double evaporationRate = 0.1;
-        int numAnts = 10;
-        int numIterations = 100;
-        double alpha = 1.0;
-        double beta = 5.0;
-        double evaporationRate = 0.7;
-        List<City> optimizedTour = AntColonyOptimization.optimize(tour, numAnts, numIterations, alpha, beta, evaporationRate);
-        displayData(canvas, optimizedTour, Color.INDIGO);
-        FileUtil.writeTourToCsv(optimizedTour, "antColony.csv");
+    public void addCityWithoutLine(double x, double y) {
+        City city = new City(x, y, y, x, "");
+        cities.add(city);
+        invalidateDistances();
     }
-
-}
\ No newline at end of file
+}
@@ -2,8 +2,10 @@ package com.example.tsp.Utility;
 
 public class DistanceUtil {
 
+    public static final double EARTH_RADIUS = 6371e3; // Earth's radius in meters
+
     public static double haversineDistance(double lat1, double lon1, double lat2, double lon2) {
-        double R = 6371e3; // Earth's radius in meters
+        double R = EARTH_RADIUS;
         double lat1Rad = Math.toRadians(lat1);
         double lat2Rad = Math.toRadians(lat2);
         double deltaLat = Math.toRadians(lat2 - lat1);
@@ -16,4 +18,19 @@ public class DistanceUtil {
 
         return R * c;
     }
+
+    /**
+     * Haversine distance for points whose latitude/longitude are already in radians and whose
+     * latitude cosine has been precomputed, so only the two half-angle sines are left per call.
+     */
+    public static double haversineDistance(double lat1Rad, double cosLat1, double lon1Rad,
+                                           double lat2Rad, double cosLat2, double lon2Rad) {
+        double sinHalfLat = Math.sin((lat2Rad - lat1Rad) / 2);
+        double sinHalfLon = Math.sin((lon2Rad - lon1Rad) / 2);
+
+        double a = sinHalfLat * sinHalfLat + cosLat1 * cosLat2 * sinHalfLon * sinHalfLon;
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return EARTH_RADIUS * c;
+    }
 }
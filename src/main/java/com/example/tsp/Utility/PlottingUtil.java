@@ -1,59 +1,32 @@
 package com.example.tsp.Utility;
 
+import com.example.tsp.io.CsvCityReader;
 import com.example.tsp.model.City;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 public class PlottingUtil {
 
     public static List<City> readCitiesFromCSV(File file) {
-        List<City> cities = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            br.readLine(); // Skip the header row if it exists
-            while ((line = br.readLine()) != null) {
-                String[] values = line.split(",");
-                if (values.length >= 3) {
-                    String crimeIdLong = values[0];
-                    String crimeId = crimeIdLong.substring(crimeIdLong.length() - 5);
-                    double longitude = Double.parseDouble(values[1]);
-                    double latitude = Double.parseDouble(values[2]);
-                    cities.add(new City(longitude, latitude, latitude, longitude, crimeId));
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return cities;
+        return readCities(file, CsvCityReader.Layout.TEAM_PROJECT);
     }
 
     public static List<City> readCitiesFromOldCSV(File file) {
-        List<City> cities = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            br.readLine(); // Skip the header row if it exists
-            while ((line = br.readLine()) != null) {
-                String[] values = line.split(",");
-                if (values.length >= 3 && values[0] != null && values[4] != null && values[5] != null
-                && !values[0].isEmpty() && !values[4].isEmpty() && !values[5].isEmpty()) {
-                    String crimeIdLong = values[0];
-                    double longitude = Double.parseDouble(values[4]);
-                    double latitude = Double.parseDouble(values[5]);
-                    cities.add(new City(longitude, latitude, latitude, longitude, crimeIdLong));
-                }
-            }
+        return readCities(file, CsvCityReader.Layout.POLICE_STREET);
+    }
+
+    private static List<City> readCities(File file, CsvCityReader.Layout layout) {
+        try {
+            return new CsvCityReader(layout).read(file.toPath()).getCities();
         } catch (IOException e) {
-            e.printStackTrace();
+            throw new UncheckedIOException("Could not read " + file, e);
         }
-        return cities;
     }
 
     public static void plotCities(GraphicsContext citiesGc, GraphicsContext linesGc, Canvas citiesCanvas, Canvas linesCanvas, List<City> cities) {
@@ -0,0 +1,80 @@
+package com.example.tsp.construction;
+
+import com.example.tsp.model.CandidateEdges;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DisjointSet;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.spatial.KdTree;
+import com.example.tsp.spatial.NeighborSearch;
+import com.example.tsp.spatial.SpatialIndex;
+
+import java.util.Arrays;
+
+/**
+ * Greedy edge construction: take candidate edges shortest first whenever both ends still have
+ * degree below two and the edge closes no cycle. The resulting paths are then chained together,
+ * each time jumping from the end of the current path to the nearest free end of another one.
+ * Usually 15-20% above optimal, and a better start for 2-opt and Or-opt than nearest neighbour.
+ */
+public class GreedyEdge {
+    public static final int CANDIDATES = 10;
+
+    public static int[] build(CitySet cities) {
+        return build(cities, NeighborSearch.build(cities, CANDIDATES));
+    }
+
+    public static int[] build(CitySet cities, NeighborLists neighbors) {
+        int n = cities.size();
+        if (n < 3) {
+            return cities.identityTour();
+        }
+        // Up to two tour neighbours per city, -1 where a path ends
+        int[] link = new int[2 * n];
+        Arrays.fill(link, -1);
+        int[] degree = new int[n];
+        DisjointSet paths = new DisjointSet(n);
+        CandidateEdges edges = new CandidateEdges(cities, neighbors);
+        int added = 0;
+        for (int e = 0; e < edges.size() && added < n - 1; e++) {
+            int a = edges.getFrom(e);
+            int b = edges.getTo(e);
+            if (degree[a] < 2 && degree[b] < 2 && paths.union(a, b)) {
+                link[2 * a + degree[a]++] = b;
+                link[2 * b + degree[b]++] = a;
+                added++;
+            }
+        }
+
+        SpatialIndex ends = new KdTree(cities);
+        int start = -1;
+        for (int city = 0; city < n; city++) {
+            if (degree[city] == 2) {
+                ends.remove(city);
+            } else if (start < 0) {
+                start = city;
+            }
+        }
+
+        int[] tour = new int[n];
+        int size = 0;
+        int current = start;
+        while (true) {
+            // Walk the whole path that starts at `current`
+            int previous = -1;
+            while (true) {
+                tour[size++] = current;
+                ends.remove(current);
+                int next = link[2 * current] != previous ? link[2 * current] : link[2 * current + 1];
+                if (next < 0) {
+                    break;
+                }
+                previous = current;
+                current = next;
+            }
+            if (size == n) {
+                return tour;
+            }
+            current = ends.nearest(current);
+        }
+    }
+}
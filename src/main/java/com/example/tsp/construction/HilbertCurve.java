@@ -0,0 +1,80 @@
+package com.example.tsp.construction;
+
+import com.example.tsp.model.CitySet;
+
+import java.util.Arrays;
+
+/**
+ * Space-filling curve construction: visits the cities in the order a Hilbert curve over their
+ * bounding box passes them. O(n log n), and typically within 25% of a good nearest-neighbour
+ * tour on evenly spread cities, which makes it a cheap seed for the local search optimizers.
+ */
+public class HilbertCurve {
+    // The curve runs over a 2^16 x 2^16 grid, so an index fits in 32 bits
+    private static final int ORDER = 16;
+    private static final int SIDE = 1 << ORDER;
+
+    public static int[] order(CitySet cities) {
+        int n = cities.size();
+        if (n == 0) {
+            return new int[0];
+        }
+        // Equirectangular projection around the mean latitude keeps the grid cells roughly square
+        double meanLatitude = 0;
+        for (int i = 0; i < n; i++) {
+            meanLatitude += cities.getLatitudeRadians(i) / n;
+        }
+        double cosMean = Math.cos(meanLatitude);
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double x = cities.getLongitudeRadians(i) * cosMean;
+            double y = cities.getLatitudeRadians(i);
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+        double extent = Math.max(maxX - minX, maxY - minY);
+        double scale = extent > 0 ? (SIDE - 1) / extent : 0;
+
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            int x = (int) ((cities.getLongitudeRadians(i) * cosMean - minX) * scale);
+            int y = (int) ((cities.getLatitudeRadians(i) - minY) * scale);
+            keys[i] = (index(x, y) << 31) | i;
+        }
+        Arrays.parallelSort(keys);
+
+        int[] tour = new int[n];
+        for (int i = 0; i < n; i++) {
+            tour[i] = (int) (keys[i] & Integer.MAX_VALUE);
+        }
+        return tour;
+    }
+
+    /**
+     * Position of grid cell (x, y) along the Hilbert curve.
+     */
+    static long index(int x, int y) {
+        long d = 0;
+        for (int s = SIDE / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            // Rotate the quadrant so the sub-curve has the standard orientation
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = SIDE - 1 - x;
+                    y = SIDE - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+}
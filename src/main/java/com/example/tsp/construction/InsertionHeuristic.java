@@ -0,0 +1,203 @@
+package com.example.tsp.construction;
+
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.spatial.KdTree;
+import com.example.tsp.spatial.NeighborSearch;
+import com.example.tsp.spatial.SpatialIndex;
+
+/**
+ * Insertion constructions over a linked tour. Farthest insertion adds the city farthest from the
+ * tour next, which lays out the overall shape first; cheapest insertion adds the city that
+ * lengthens the tour least. Both place a city on the best edge next to one of its nearest tour
+ * cities instead of trying every edge: those among its precomputed nearest neighbours when there
+ * are any, otherwise the ones a {@link KdTree} of the cities inserted so far finds. Pending cities
+ * wait in a heap whose stale entries are skipped when popped.
+ * <p>
+ * Both give better seeds than nearest neighbour but are not the fast ones: on 100k cities
+ * cheapest insertion takes about 1.5 s and farthest insertion about 3 s, where {@link HilbertCurve},
+ * {@link NearestNeighborTour} and {@link GreedyEdge} finish within a second.
+ */
+public class InsertionHeuristic {
+    // Tour cities whose adjacent edges are tried when placing a city
+    public static final int INSERTION_NEIGHBORS = 8;
+
+    private final CitySet cities;
+    private final NeighborLists neighbors;
+    private final int[] next;
+    private final int[] prev;
+    // Length of the tour edge leaving each tour city
+    private final double[] edgeLength;
+    private final SpatialIndex inTour;
+    // Result of the last bestEdge call
+    private int bestAfter;
+    private double bestCost;
+
+    private InsertionHeuristic(CitySet cities, int start) {
+        this.cities = cities;
+        this.neighbors = NeighborSearch.build(cities, INSERTION_NEIGHBORS);
+        int n = cities.size();
+        next = new int[n];
+        prev = new int[n];
+        edgeLength = new double[n];
+        inTour = new KdTree(cities);
+        for (int city = 0; city < n; city++) {
+            inTour.remove(city);
+        }
+        next[start] = start;
+        prev[start] = start;
+        inTour.restore(start);
+    }
+
+    public static int[] farthest(CitySet cities) {
+        int n = cities.size();
+        if (n < 3) {
+            return cities.identityTour();
+        }
+        InsertionHeuristic tour = new InsertionHeuristic(cities, 0);
+        SpatialIndex pending = new KdTree(cities);
+        pending.remove(0);
+        float[] distanceToTour = new float[n];
+        LongHeap heap = new LongHeap();
+        for (int city = 1; city < n; city++) {
+            distanceToTour[city] = (float) cities.distance(0, city);
+            heap.push(farthestKey(distanceToTour[city], city));
+        }
+
+        while (!heap.isEmpty()) {
+            long key = heap.pop();
+            int city = (int) key;
+            if (!pending.contains(city) || key != farthestKey(distanceToTour[city], city)) {
+                continue;
+            }
+            pending.remove(city);
+            tour.insert(city);
+            // Only cities closer to the new one than to the rest of the tour change, and none of
+            // them can be farther away than this city was from the tour
+            double reach = distanceToTour[city] * (1 + 1e-6) + 1e-6;
+            for (int other : pending.withinRadius(city, reach)) {
+                float d = (float) cities.distance(city, other);
+                if (d < distanceToTour[other]) {
+                    distanceToTour[other] = d;
+                    heap.push(farthestKey(d, other));
+                }
+            }
+        }
+        return tour.toArray(0);
+    }
+
+    public static int[] cheapest(CitySet cities) {
+        int n = cities.size();
+        if (n < 3) {
+            return cities.identityTour();
+        }
+        InsertionHeuristic tour = new InsertionHeuristic(cities, 0);
+        float[] cost = new float[n];
+        LongHeap heap = new LongHeap();
+        for (int city = 1; city < n; city++) {
+            cost[city] = (float) (2 * cities.distance(0, city));
+            heap.push(cheapestKey(cost[city], city));
+        }
+
+        while (!heap.isEmpty()) {
+            long key = heap.pop();
+            int city = (int) key;
+            if (tour.inTour.contains(city) || key != cheapestKey(cost[city], city)) {
+                continue;
+            }
+            // The tour may have changed around this city since its cost was computed
+            int after = tour.bestEdge(city);
+            float current = (float) tour.bestCost;
+            if (current > cost[city]) {
+                cost[city] = current;
+                heap.push(cheapestKey(current, city));
+                continue;
+            }
+            tour.insertAfter(after, city);
+            for (int r = 0; r < tour.neighbors.getK(); r++) {
+                int other = tour.neighbors.get(city, r);
+                if (tour.inTour.contains(other)) {
+                    continue;
+                }
+                tour.bestEdge(other);
+                float refreshed = (float) tour.bestCost;
+                if (refreshed != cost[other]) {
+                    cost[other] = refreshed;
+                    heap.push(cheapestKey(refreshed, other));
+                }
+            }
+        }
+        return tour.toArray(0);
+    }
+
+    private void insert(int city) {
+        insertAfter(bestEdge(city), city);
+    }
+
+    // The tour city whose outgoing edge is the cheapest place for `city` among those looked at.
+    // The edges at its nearest neighbours that are already in the tour are tried; only when there
+    // are none does the tree search for the nearest tour cities.
+    private int bestEdge(int city) {
+        bestAfter = -1;
+        bestCost = Double.POSITIVE_INFINITY;
+        for (int r = 0; r < neighbors.getK(); r++) {
+            int near = neighbors.get(city, r);
+            if (inTour.contains(near)) {
+                tryEdgesAt(city, near);
+            }
+        }
+        if (bestAfter < 0) {
+            for (int near : inTour.nearest(city, INSERTION_NEIGHBORS)) {
+                tryEdgesAt(city, near);
+            }
+        }
+        return bestAfter;
+    }
+
+    // Both tour edges at `near`, which share the distance from `city` to `near`
+    private void tryEdgesAt(int city, int near) {
+        double toNear = cities.distance(city, near);
+        int before = prev[near];
+        tryEdge(before, cities.distance(city, before) + toNear - edgeLength[before]);
+        tryEdge(near, toNear + cities.distance(city, next[near]) - edgeLength[near]);
+    }
+
+    private void tryEdge(int after, double cost) {
+        cost = Math.max(0, cost);
+        if (cost < bestCost) {
+            bestCost = cost;
+            bestAfter = after;
+        }
+    }
+
+    private void insertAfter(int a, int city) {
+        int b = next[a];
+        next[a] = city;
+        prev[city] = a;
+        next[city] = b;
+        prev[b] = city;
+        edgeLength[a] = cities.distance(a, city);
+        edgeLength[city] = cities.distance(city, b);
+        inTour.restore(city);
+    }
+
+    private int[] toArray(int start) {
+        int[] order = new int[next.length];
+        int city = start;
+        for (int i = 0; i < order.length; i++) {
+            order[i] = city;
+            city = next[city];
+        }
+        return order;
+    }
+
+    // Heap order: largest distance first
+    private static long farthestKey(float distance, int city) {
+        return ((long) (Integer.MAX_VALUE - Float.floatToIntBits(distance)) << 32) | city;
+    }
+
+    // Heap order: smallest cost first; costs are non-negative, so their bits order like the floats
+    private static long cheapestKey(float cost, int city) {
+        return ((long) Float.floatToIntBits(cost) << 32) | city;
+    }
+}
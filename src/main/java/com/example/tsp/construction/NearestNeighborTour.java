@@ -0,0 +1,33 @@
+package com.example.tsp.construction;
+
+import com.example.tsp.model.CitySet;
+import com.example.tsp.spatial.KdTree;
+import com.example.tsp.spatial.SpatialIndex;
+
+/**
+ * Nearest-neighbour construction: repeatedly hop to the closest city not yet visited. Visited
+ * cities are removed from a {@link KdTree}, so each hop is a logarithmic query rather than a scan.
+ */
+public class NearestNeighborTour {
+
+    public static int[] build(CitySet cities) {
+        return build(cities, 0);
+    }
+
+    public static int[] build(CitySet cities, int start) {
+        int n = cities.size();
+        int[] tour = new int[n];
+        if (n == 0) {
+            return tour;
+        }
+        SpatialIndex unvisited = new KdTree(cities);
+        int current = start;
+        tour[0] = start;
+        for (int i = 1; i < n; i++) {
+            unvisited.remove(current);
+            current = unvisited.nearest(current);
+            tour[i] = current;
+        }
+        return tour;
+    }
+}
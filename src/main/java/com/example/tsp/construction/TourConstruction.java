@@ -0,0 +1,28 @@
+package com.example.tsp.construction;
+
+import com.example.tsp.model.CitySet;
+
+import java.util.function.Function;
+
+/**
+ * The available construction heuristics, each producing an open tour over every city of a
+ * {@link CitySet} for the optimizers to improve. The first three seed 100k cities within a
+ * second; the insertion heuristics take a few seconds there.
+ */
+public enum TourConstruction {
+    NEAREST_NEIGHBOR(NearestNeighborTour::build),
+    HILBERT(HilbertCurve::order),
+    GREEDY_EDGE(GreedyEdge::build),
+    FARTHEST_INSERTION(InsertionHeuristic::farthest),
+    CHEAPEST_INSERTION(InsertionHeuristic::cheapest);
+
+    private final Function<CitySet, int[]> builder;
+
+    TourConstruction(Function<CitySet, int[]> builder) {
+        this.builder = builder;
+    }
+
+    public int[] build(CitySet cities) {
+        return builder.apply(cities);
+    }
+}
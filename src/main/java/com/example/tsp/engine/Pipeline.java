@@ -0,0 +1,74 @@
+package com.example.tsp.engine;
+
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.SearchControl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A fixed sequence of stages, usually a construction followed by improvements, written as
+ * {@code "hilbert > oropt > 2opt > lk"} or {@code "christofides > sa"}. Every stage works on the
+ * previous stage's tour array in place and on the distance data cached in the shared
+ * {@link SolverContext}.
+ */
+public class Pipeline {
+    // Separators accepted between stage names
+    private static final String SEPARATORS = "\\s*(->|>|,|\u2192)\\s*";
+
+    private final List<SolverStage> stages;
+
+    public Pipeline(List<SolverStage> stages) {
+        if (stages.isEmpty()) {
+            throw new IllegalArgumentException("A pipeline needs at least one stage");
+        }
+        this.stages = Collections.unmodifiableList(new ArrayList<>(stages));
+    }
+
+    public static Pipeline of(SolverStage... stages) {
+        return new Pipeline(List.of(stages));
+    }
+
+    /**
+     * Reads stage names as known to {@link Stages#byName(String)}, separated by {@code >},
+     * {@code ->} or commas.
+     */
+    public static Pipeline parse(String spec) {
+        List<SolverStage> stages = new ArrayList<>();
+        for (String name : spec.trim().split(SEPARATORS)) {
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Empty stage name in pipeline '" + spec + "'");
+            }
+            stages.add(Stages.byName(name));
+        }
+        return new Pipeline(stages);
+    }
+
+    public List<SolverStage> getStages() {
+        return stages;
+    }
+
+    public Pipeline then(SolverStage stage) {
+        List<SolverStage> extended = new ArrayList<>(stages);
+        extended.add(stage);
+        return new Pipeline(extended);
+    }
+
+    public SolverResult run(CitySet cities, long timeBudgetMillis) {
+        return SolverEngine.solve(cities, stages, timeBudgetMillis);
+    }
+
+    public SolverResult run(SolverContext context, int[] initialTour, long timeBudgetMillis, SearchControl control) {
+        return SolverEngine.solve(context, initialTour, stages, timeBudgetMillis, control);
+    }
+
+    @Override
+    public String toString() {
+        List<String> names = new ArrayList<>();
+        for (SolverStage stage : stages) {
+            names.add(stage.getName());
+        }
+        return String.join(" > ", names);
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.tsp.engine;
+
+import com.example.tsp.io.BinaryInstanceFormat;
+import com.example.tsp.io.CsvCityReader;
+import com.example.tsp.io.TourExporter;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceMatrix;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.model.SearchControl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Command-line entry point for running the solver without the UI, e.g.
+ * <pre>
+ * SolverCli --input cities.csv --stages "greedy > oropt > 2opt" --time 2000 --output tour.csv
+ * </pre>
+ * The input is read with {@link CsvCityReader}; {@code --columns} picks the id, longitude and
+ * latitude columns, by index or header name, and {@code --parallel} parses the file on all cores.
+ * {@code --save cities.tspb} keeps the cities and the run's neighbour lists, plus its distance
+ * table with {@code --save-distances}, in {@link BinaryInstanceFormat} files, and a later
+ * {@code --input cities.tspb} starts from those instead of parsing and building them again.
+ * The {@code --output} extension picks the {@link TourExporter.Format} of the tour.
+ */
+public class SolverCli {
+    private static final String DEFAULT_STAGES = "greedy > oropt > 2opt";
+
+    public static void main(String[] args) {
+        try {
+            System.exit(run(args));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(usage());
+            System.exit(2);
+        }
+    }
+
+    static int run(String[] args) {
+        String input = null;
+        String output = null;
+        String stageNames = DEFAULT_STAGES;
+        long timeBudgetMillis = 0;
+        CsvCityReader.Layout layout = CsvCityReader.Layout.TEAM_PROJECT;
+        boolean parallel = false;
+        String save = null;
+        boolean saveDistances = false;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--help")) {
+                System.out.println(usage());
+                return 0;
+            }
+            if (option.equals("--parallel")) {
+                parallel = true;
+                continue;
+            }
+            if (option.equals("--save-distances")) {
+                saveDistances = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--input":
+                    input = value;
+                    break;
+                case "--output":
+                    output = value;
+                    break;
+                case "--stages":
+                    stageNames = value;
+                    break;
+                case "--time":
+                    timeBudgetMillis = parseMillis(value);
+                    break;
+                case "--columns":
+                    layout = CsvCityReader.Layout.parse(value);
+                    break;
+                case "--save":
+                    save = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+        if (input == null) {
+            throw new IllegalArgumentException("No input file given");
+        }
+        if (saveDistances && save == null) {
+            throw new IllegalArgumentException("--save-distances needs --save");
+        }
+        if (save != null && !BinaryInstanceFormat.isBinaryInstance(Path.of(save))) {
+            throw new IllegalArgumentException("Binary instances are saved as " + BinaryInstanceFormat.EXTENSION + " files, got " + save);
+        }
+        TourExporter.Format outputFormat = output != null ? TourExporter.Format.forFile(Path.of(output)) : null;
+
+        Pipeline pipeline = Pipeline.parse(stageNames);
+        SolverContext context;
+        try {
+            context = load(Path.of(input), layout, parallel);
+        } catch (IOException e) {
+            System.err.println("Could not read " + input + ": " + e.getMessage());
+            return 1;
+        }
+        CitySet cities = context.getCities();
+        if (cities.size() == 0) {
+            System.err.println("No cities read from " + input);
+            return 1;
+        }
+
+        SolverResult result = pipeline.run(context, null, timeBudgetMillis, new SearchControl());
+        for (SolverResult.StageReport stage : result.getStages()) {
+            System.out.println(stage);
+        }
+        System.out.printf("Tour length over %d cities: %.2f%n", cities.size(), result.getCost());
+
+        if (output != null) {
+            try {
+                TourExporter.write(Path.of(output), cities, result.getTour(), outputFormat);
+            } catch (IOException e) {
+                System.err.println("Could not write " + output + ": " + e.getMessage());
+                return 1;
+            }
+            System.out.println("Tour saved to " + Path.of(output).toAbsolutePath());
+        }
+        if (save != null) {
+            try {
+                save(Path.of(save), context, saveDistances);
+            } catch (IOException e) {
+                System.err.println("Could not write " + save + ": " + e.getMessage());
+                return 1;
+            }
+            System.out.println("Instance saved to " + Path.of(save).toAbsolutePath());
+        }
+        return 0;
+    }
+
+    /**
+     * Reads a binary instance together with whatever neighbour lists and distance table were
+     * saved with it, or parses a CSV file.
+     */
+    private static SolverContext load(Path input, CsvCityReader.Layout layout, boolean parallel) throws IOException {
+        if (BinaryInstanceFormat.isBinaryInstance(input)) {
+            CitySet cities = BinaryInstanceFormat.read(input);
+            DistanceMatrix distances = BinaryInstanceFormat.readDistances(input, cities);
+            NeighborLists neighbors = BinaryInstanceFormat.readNeighbors(input, cities);
+            return new SolverContext(cities, distances != null ? distances : cities, neighbors);
+        }
+        CsvCityReader reader = new CsvCityReader(layout, parallel);
+        CitySet cities = reader.read(input);
+        if (reader.getSkippedRows() > 0) {
+            System.err.println("Skipped " + reader.getSkippedRows() + " rows without valid coordinates");
+        }
+        return new SolverContext(cities);
+    }
+
+    private static void save(Path file, SolverContext context, boolean withDistances) throws IOException {
+        CitySet cities = context.getCities();
+        BinaryInstanceFormat.write(file, cities);
+        BinaryInstanceFormat.writeNeighbors(file, cities, context.neighbors());
+        if (withDistances) {
+            if (context.distances() instanceof DistanceMatrix) {
+                BinaryInstanceFormat.writeDistances(file, cities, (DistanceMatrix) context.distances());
+            } else {
+                System.err.println("No distance table to save: " + cities.size() + " cities do not fit one in memory");
+            }
+        }
+    }
+
+    private static long parseMillis(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Time budget must be a number of milliseconds, got " + value);
+        }
+    }
+
+    private static String usage() {
+        return "Usage: SolverCli --input <cities.csv> [--stages \"" + DEFAULT_STAGES + "\"] [--time <millis>] [--output <tour.csv|.geojson|.tour|.tourb>]\n"
+                + "                 [--columns <id>,<longitude>,<latitude>] [--parallel] [--save <cities.tspb> [--save-distances]]\n"
+                + "Stages, separated by '>' or ',': " + String.join(", ", Stages.names()) + "\n"
+                + "For large inputs seed with hilbert, nn or greedy; farthest and cheapest insertion are slower.";
+    }
+}
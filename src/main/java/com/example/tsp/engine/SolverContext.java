@@ -0,0 +1,74 @@
+package com.example.tsp.engine;
+
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceMatrix;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.spatial.NeighborSearch;
+
+/**
+ * The cities of a run together with the distance data the stages share. The distance table and
+ * neighbour lists are built on first use and then reused by every later stage and run. A context
+ * can also carry its own metric, such as a TSPLIB instance's rounded distances: stages then
+ * optimize and cost tours by that metric, while constructions, Christofides and the neighbour
+ * lists keep working on the cities' geometry.
+ */
+public class SolverContext {
+    private final CitySet cities;
+    private final DistanceProvider metric;
+    private DistanceProvider distances;
+    private NeighborLists neighbors;
+
+    public SolverContext(CitySet cities) {
+        this(cities, cities);
+    }
+
+    public SolverContext(CitySet cities, DistanceProvider metric) {
+        this(cities, metric, null);
+    }
+
+    /**
+     * As above, with neighbour lists that were already built, e.g. loaded from disk. A null list
+     * is built on first use as usual.
+     */
+    public SolverContext(CitySet cities, DistanceProvider metric, NeighborLists neighbors) {
+        if (metric.size() != cities.size()) {
+            throw new IllegalArgumentException("Metric has " + metric.size() + " nodes, city set has " + cities.size());
+        }
+        if (neighbors != null && neighbors.size() != cities.size() && neighbors.getK() > 0) {
+            throw new IllegalArgumentException("Neighbour lists have " + neighbors.size() + " cities, city set has " + cities.size());
+        }
+        this.cities = cities;
+        this.metric = metric;
+        this.neighbors = neighbors;
+    }
+
+    public CitySet getCities() {
+        return cities;
+    }
+
+    /**
+     * The metric tours are costed by, without building the distance table.
+     */
+    public DistanceProvider getMetric() {
+        return metric;
+    }
+
+    /**
+     * The metric behind a cached distance table, built on the first call. Only stages that look
+     * distances up many times should ask for it.
+     */
+    public synchronized DistanceProvider distances() {
+        if (distances == null) {
+            distances = DistanceMatrix.cache(metric);
+        }
+        return distances;
+    }
+
+    public synchronized NeighborLists neighbors() {
+        if (neighbors == null) {
+            neighbors = NeighborSearch.build(cities, NeighborLists.DEFAULT_K);
+        }
+        return neighbors;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.tsp.engine;
+
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.SearchControl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a sequence of stages over a set of cities, with no dependency on the UI. The time budget
+ * covers the whole run: it becomes the deadline of the run's {@link SearchControl}, which the
+ * anytime stages watch, and stages that have not started when it runs out are skipped. The first
+ * stage always runs, so there is always a tour to return.
+ */
+public class SolverEngine {
+
+    public static SolverResult solve(CitySet cities, List<SolverStage> stages, long timeBudgetMillis) {
+        return solve(new SolverContext(cities), null, stages, timeBudgetMillis);
+    }
+
+    /**
+     * Starts from {@code initialTour}, or from the cities in index order when it is null. The
+     * initial tour is not modified. A non-positive budget means no time limit.
+     */
+    public static SolverResult solve(SolverContext context, int[] initialTour, List<SolverStage> stages, long timeBudgetMillis) {
+        return solve(context, initialTour, stages, timeBudgetMillis, new SearchControl());
+    }
+
+    /**
+     * As above, with {@code control} passed to every stage. The budget can only bring the control's
+     * own deadline forward. Once the control says stop, the current stage returns its best tour so
+     * far and the remaining stages are skipped. Every stage's tour is also published to the control,
+     * so its best-so-far snapshot covers the whole run.
+     */
+    public static SolverResult solve(SolverContext context, int[] initialTour, List<SolverStage> stages, long timeBudgetMillis,
+                                     SearchControl control) {
+        if (timeBudgetMillis > 0) {
+            control.setDeadline(Math.min(control.getDeadline(), System.nanoTime() + timeBudgetMillis * 1_000_000));
+        }
+        CitySet cities = context.getCities();
+        // Costing a tour takes n lookups, too few to be worth building the distance table for
+        DistanceProvider metric = context.getMetric();
+        int[] tour = initialTour != null ? initialTour.clone() : cities.identityTour();
+        List<SolverResult.StageReport> reports = new ArrayList<>();
+        if (tour.length < 3) {
+            return new SolverResult(tour, metric.tourLength(tour), reports);
+        }
+
+        double cost = metric.tourLength(tour);
+        for (SolverStage stage : stages) {
+            if (!reports.isEmpty() && control.shouldStop()) {
+                break;
+            }
+            long start = System.nanoTime();
+            tour = stage.apply(tour, context, control);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            double costBefore = cost;
+            cost = metric.tourLength(tour);
+            reports.add(new SolverResult.StageReport(stage.getName(), elapsedMillis, costBefore, cost));
+            control.report(tour.clone(), cost);
+        }
+        return new SolverResult(tour, cost, reports);
+    }
+}
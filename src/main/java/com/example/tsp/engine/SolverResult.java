@@ -0,0 +1,73 @@
+package com.example.tsp.engine;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The tour a run ended with, its length, and what each stage that ran took and achieved.
+ */
+public class SolverResult {
+    private final int[] tour;
+    private final double cost;
+    private final List<StageReport> stages;
+
+    SolverResult(int[] tour, double cost, List<StageReport> stages) {
+        this.tour = tour;
+        this.cost = cost;
+        this.stages = Collections.unmodifiableList(stages);
+    }
+
+    public int[] getTour() {
+        return tour;
+    }
+
+    public double getCost() {
+        return cost;
+    }
+
+    public List<StageReport> getStages() {
+        return stages;
+    }
+
+    public static class StageReport {
+        private final String name;
+        private final long elapsedMillis;
+        private final double costBefore;
+        private final double cost;
+
+        StageReport(String name, long elapsedMillis, double costBefore, double cost) {
+            this.name = name;
+            this.elapsedMillis = elapsedMillis;
+            this.costBefore = costBefore;
+            this.cost = cost;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /** Tour length the stage started from. */
+        public double getCostBefore() {
+            return costBefore;
+        }
+
+        /** Tour length after the stage. */
+        public double getCost() {
+            return cost;
+        }
+
+        /** Change in tour length, negative when the stage improved the tour. */
+        public double getDelta() {
+            return cost - costBefore;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-14s %8d ms %16.2f %+16.2f", name, elapsedMillis, cost, getDelta());
+        }
+    }
+}
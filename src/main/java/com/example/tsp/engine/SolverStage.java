@@ -0,0 +1,19 @@
+package com.example.tsp.engine;
+
+import com.example.tsp.model.SearchControl;
+
+/**
+ * One step of a solver run: a construction that builds a tour from scratch, or an improvement
+ * that starts from the tour of the previous step.
+ */
+public interface SolverStage {
+
+    String getName();
+
+    /**
+     * Returns the stage's tour, which may be {@code tour} itself modified in place. Stages built on
+     * a {@link com.example.tsp.model.TourOptimizer} stop at the control's deadline or when it is
+     * cancelled, and publish their improving tours to it.
+     */
+    int[] apply(int[] tour, SolverContext context, SearchControl control);
+}
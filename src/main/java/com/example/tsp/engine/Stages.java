@@ -0,0 +1,154 @@
+package com.example.tsp.engine;
+
+import com.example.tsp.construction.TourConstruction;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.model.SearchControl;
+import com.example.tsp.strategic.LinKernighanOptimizer;
+import com.example.tsp.strategic.OrOptOptimizer;
+import com.example.tsp.strategic.RandomSwapping;
+import com.example.tsp.strategic.ThreeOptOptimizer;
+import com.example.tsp.strategic.TwoOptOptimizer;
+import com.example.tsp.tactical.AntColonyOptimization;
+import com.example.tsp.tactical.ChristofidesTSP;
+import com.example.tsp.tactical.ParallelTemperingOptimizer;
+import com.example.tsp.tactical.PerfectMatching;
+import com.example.tsp.tactical.SimulatedAnnealingOptimizer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * The stages the engine can run, each wrapping one construction or optimizer with fixed settings
+ * that the UI and the command line share. The annealing and tempering temperatures are scaled to
+ * the incoming tour's average edge, so they suit any coordinate scale. Every stage also has a
+ * short name for command lines and configs.
+ * <p>
+ * The optimizer stages stop when their control says so and return the best tour so far. The
+ * constructions and Christofides ignore the control and always finish, since every later stage
+ * needs a complete tour to start from.
+ */
+public class Stages {
+    private static final Map<String, Supplier<SolverStage>> BY_NAME = new LinkedHashMap<>();
+    private static final int ANNEALING_STEPS = 10_000_000;
+
+    static {
+        BY_NAME.put("nn", () -> construction("nn", TourConstruction.NEAREST_NEIGHBOR));
+        BY_NAME.put("hilbert", () -> construction("hilbert", TourConstruction.HILBERT));
+        BY_NAME.put("greedy", () -> construction("greedy", TourConstruction.GREEDY_EDGE));
+        BY_NAME.put("farthest", () -> construction("farthest", TourConstruction.FARTHEST_INSERTION));
+        BY_NAME.put("cheapest", () -> construction("cheapest", TourConstruction.CHEAPEST_INSERTION));
+        BY_NAME.put("christofides", Stages::christofides);
+        BY_NAME.put("swap", Stages::randomSwapping);
+        BY_NAME.put("2opt", Stages::twoOpt);
+        BY_NAME.put("oropt", Stages::orOpt);
+        BY_NAME.put("3opt", Stages::threeOpt);
+        BY_NAME.put("lk", Stages::linKernighan);
+        BY_NAME.put("sa", Stages::simulatedAnnealing);
+        BY_NAME.put("pt", Stages::parallelTempering);
+        BY_NAME.put("aco", Stages::antColony);
+    }
+
+    private interface Body {
+        int[] apply(int[] tour, SolverContext context, SearchControl control);
+    }
+
+    private static SolverStage stage(String name, Body body) {
+        return new SolverStage() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public int[] apply(int[] tour, SolverContext context, SearchControl control) {
+                return body.apply(tour, context, control);
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+
+    public static Set<String> names() {
+        return BY_NAME.keySet();
+    }
+
+    public static SolverStage byName(String name) {
+        Supplier<SolverStage> stage = BY_NAME.get(name.trim().toLowerCase());
+        if (stage == null) {
+            throw new IllegalArgumentException("Unknown stage '" + name + "', expected one of " + names());
+        }
+        return stage.get();
+    }
+
+    public static SolverStage construction(TourConstruction construction) {
+        return construction(construction.name().toLowerCase(), construction);
+    }
+
+    private static SolverStage construction(String name, TourConstruction construction) {
+        return stage(name, (tour, context, control) -> construction.build(context.getCities()));
+    }
+
+    public static SolverStage christofides() {
+        return stage("christofides", (tour, context, control) ->
+                ChristofidesTSP.optimize(context.getCities(), PerfectMatching.Mode.AUTO));
+    }
+
+    public static SolverStage randomSwapping() {
+        return stage("swap", (tour, context, control) -> RandomSwapping.optimize(tour, context.distances(), 10000, control));
+    }
+
+    public static SolverStage twoOpt() {
+        return stage("2opt", (tour, context, control) -> {
+            NeighborLists candidates = tour.length >= TwoOptOptimizer.NEIGHBOR_LIST_THRESHOLD ? context.neighbors() : null;
+            return new TwoOptOptimizer(candidates).optimizeTour(tour, context.distances(), control);
+        });
+    }
+
+    public static SolverStage orOpt() {
+        return stage("oropt", (tour, context, control) ->
+                new OrOptOptimizer(context.neighbors()).optimizeTour(tour, context.distances(), control));
+    }
+
+    public static SolverStage threeOpt() {
+        return stage("3opt", (tour, context, control) -> {
+            NeighborLists candidates = tour.length >= ThreeOptOptimizer.NEIGHBOR_LIST_THRESHOLD ? context.neighbors() : null;
+            return new ThreeOptOptimizer(candidates).optimizeTour(tour, context.distances(), control);
+        });
+    }
+
+    public static SolverStage linKernighan() {
+        return stage("lk", (tour, context, control) ->
+                LinKernighanOptimizer.optimize(tour, context.distances(), context.neighbors(), control));
+    }
+
+    public static SolverStage simulatedAnnealing() {
+        return stage("sa", (tour, context, control) -> {
+            DistanceProvider distances = context.distances();
+            // Start at half the average edge and cool by 10^4 over the whole run
+            double averageEdge = distances.tourLength(tour) / tour.length;
+            return new SimulatedAnnealingOptimizer(averageEdge * 0.5, Math.pow(1e-4, 1.0 / ANNEALING_STEPS), ANNEALING_STEPS)
+                    .optimizeTour(tour, distances, control);
+        });
+    }
+
+    public static SolverStage parallelTempering() {
+        return stage("pt", (tour, context, control) -> {
+            DistanceProvider distances = context.distances();
+            // Scale the temperature ladder to the tour's average edge length
+            double averageEdge = distances.tourLength(tour) / tour.length;
+            return new ParallelTemperingOptimizer(averageEdge * 0.005, averageEdge * 0.5, Runtime.getRuntime().availableProcessors(),
+                    5_000_000, ParallelTemperingOptimizer.DEFAULT_EXCHANGE_INTERVAL, 0).optimizeTour(tour, distances, control);
+        });
+    }
+
+    public static SolverStage antColony() {
+        return stage("aco", (tour, context, control) -> AntColonyOptimization.optimize(tour, context.distances(), context.neighbors(),
+                AntColonyOptimization.Variant.MAX_MIN, true, 10, 100, 1.0, 5.0, 0.2, control));
+    }
+}
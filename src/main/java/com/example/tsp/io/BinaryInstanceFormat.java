@@ -0,0 +1,448 @@
+package com.example.tsp.io;
+
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceMatrix;
+import com.example.tsp.model.NeighborLists;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary form of a {@link CitySet}, written once, e.g. from a CSV import, and read back
+ * by mapping the file and bulk-copying its columns, with no text to parse. All values are
+ * little-endian and every column starts 8-byte aligned:
+ * <pre>
+ * header    magic "TSPB", version, city count n, dictionary size d, fingerprint, dictionary bytes
+ * double[n] latitudes
+ * double[n] longitudes
+ * int[n]    index of each city's id in the dictionary           (only when d &gt; 0)
+ * int[d+1]  start of each dictionary entry in the bytes below  (only when d &gt; 0)
+ * byte[]    the distinct ids, UTF-8, back to back
+ * </pre>
+ * Neighbour lists and distance tables can be kept next to the instance, in {@code .nbr} and
+ * {@code .dist} files. Those carry the instance's fingerprint, a hash of its coordinates, and are
+ * ignored when it no longer matches. Tours are stored the same way, as a header and the city
+ * indices in visiting order.
+ */
+public class BinaryInstanceFormat {
+    public static final String EXTENSION = ".tspb";
+    static final String NEIGHBORS_EXTENSION = ".nbr";
+    static final String DISTANCES_EXTENSION = ".dist";
+
+    private static final int INSTANCE_MAGIC = 0x42505354;  // "TSPB"
+    private static final int NEIGHBORS_MAGIC = 0x4E505354; // "TSPN"
+    private static final int DISTANCES_MAGIC = 0x44505354; // "TSPD"
+    private static final int TOUR_MAGIC = 0x54505354;      // "TSPT"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int BLOCK_BYTES = 1 << 20;
+    // Sections larger than this are mapped a window at a time
+    private static final int MAP_WINDOW_BYTES = 1 << 30;
+
+    private static class Header {
+        final int count;
+        final int word;
+        final long fingerprint;
+        final long extra;
+
+        Header(int count, int word, long fingerprint, long extra) {
+            this.count = count;
+            this.word = word;
+            this.fingerprint = fingerprint;
+            this.extra = extra;
+        }
+    }
+
+    public static boolean isBinaryInstance(Path file) {
+        return file.getFileName().toString().endsWith(EXTENSION);
+    }
+
+    public static void write(Path file, CitySet cities) throws IOException {
+        int n = cities.size();
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<byte[]> entries = new ArrayList<>();
+        int[] idIndex = new int[n];
+        long dictionaryBytes = 0;
+        boolean anyId = false;
+        for (int i = 0; i < n; i++) {
+            String id = cities.getCrimeId(i);
+            anyId |= !id.isEmpty();
+            Integer index = dictionary.get(id);
+            if (index == null) {
+                index = entries.size();
+                dictionary.put(id, index);
+                byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+                entries.add(bytes);
+                dictionaryBytes += bytes.length;
+            }
+            idIndex[i] = index;
+        }
+        int d = anyId ? entries.size() : 0;
+
+        try (BlockWriter out = new BlockWriter(file)) {
+            out.header(INSTANCE_MAGIC, n, d, fingerprint(cities), d > 0 ? dictionaryBytes : 0);
+            for (int i = 0; i < n; i++) {
+                out.putDouble(cities.getLatitude(i));
+            }
+            for (int i = 0; i < n; i++) {
+                out.putDouble(cities.getLongitude(i));
+            }
+            if (d > 0) {
+                for (int index : idIndex) {
+                    out.putInt(index);
+                }
+                out.align();
+                int offset = 0;
+                for (byte[] entry : entries) {
+                    out.putInt(offset);
+                    offset += entry.length;
+                }
+                out.putInt(offset);
+                out.align();
+                for (byte[] entry : entries) {
+                    out.put(entry);
+                }
+            }
+        }
+    }
+
+    public static CitySet read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, INSTANCE_MAGIC, file);
+            int n = header.count;
+            int d = header.word;
+            long position = HEADER_BYTES;
+            double[] latitude = new double[n];
+            double[] longitude = new double[n];
+            position = readDoubles(channel, position, latitude);
+            position = readDoubles(channel, position, longitude);
+            if (d == 0) {
+                return new CitySet(latitude, longitude, null);
+            }
+
+            int[] idIndex = new int[n];
+            int[] offsets = new int[d + 1];
+            position = readInts(channel, position, idIndex);
+            position = readInts(channel, position, offsets);
+            if (header.extra > Integer.MAX_VALUE) {
+                throw new IOException(file + " has an id dictionary of " + header.extra + " bytes");
+            }
+            byte[] bytes = new byte[(int) header.extra];
+            map(channel, position, bytes.length).get(bytes);
+            String[] dictionary = new String[d];
+            for (int e = 0; e < d; e++) {
+                dictionary[e] = new String(bytes, offsets[e], offsets[e + 1] - offsets[e], StandardCharsets.UTF_8);
+            }
+            String[] ids = new String[n];
+            for (int i = 0; i < n; i++) {
+                if (idIndex[i] < 0 || idIndex[i] >= d) {
+                    throw new IOException(file + " refers to id " + idIndex[i] + " of a dictionary of " + d);
+                }
+                ids[i] = dictionary[idIndex[i]];
+            }
+            return new CitySet(latitude, longitude, ids);
+        }
+    }
+
+    /**
+     * Stores the lists next to the instance file, tagged with the cities' fingerprint.
+     */
+    public static void writeNeighbors(Path instanceFile, CitySet cities, NeighborLists neighbors) throws IOException {
+        try (BlockWriter out = new BlockWriter(sidecar(instanceFile, NEIGHBORS_EXTENSION))) {
+            int k = neighbors.getK();
+            out.header(NEIGHBORS_MAGIC, cities.size(), k, fingerprint(cities), 0);
+            for (int city = 0; k > 0 && city < cities.size(); city++) {
+                for (int rank = 0; rank < k; rank++) {
+                    out.putInt(neighbors.get(city, rank));
+                }
+            }
+        }
+    }
+
+    /**
+     * The lists stored next to the instance file, or null when there are none or they were
+     * written for other coordinates.
+     */
+    public static NeighborLists readNeighbors(Path instanceFile, CitySet cities) throws IOException {
+        Path file = sidecar(instanceFile, NEIGHBORS_EXTENSION);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, NEIGHBORS_MAGIC, file);
+            if (header.count != cities.size() || header.fingerprint != fingerprint(cities)) {
+                return null;
+            }
+            int k = header.word;
+            int[] neighbors = new int[Math.multiplyExact(header.count, k)];
+            readInts(channel, HEADER_BYTES, neighbors);
+            return NeighborLists.of(k, neighbors);
+        }
+    }
+
+    /**
+     * Stores the table next to the instance file, tagged with the cities' fingerprint, in the
+     * same storage layout it has in memory.
+     */
+    public static void writeDistances(Path instanceFile, CitySet cities, DistanceMatrix matrix) throws IOException {
+        int n = matrix.size();
+        DistanceMatrix.Storage storage = matrix.getStorage();
+        try (BlockWriter out = new BlockWriter(sidecar(instanceFile, DISTANCES_EXTENSION))) {
+            out.header(DISTANCES_MAGIC, n, storage.ordinal(), fingerprint(cities), 0);
+            for (int i = 0; i < n; i++) {
+                int columns = storage == DistanceMatrix.Storage.FULL ? n : i;
+                for (int j = 0; j < columns; j++) {
+                    if (storage == DistanceMatrix.Storage.FLOAT_TRIANGULAR) {
+                        out.putFloat((float) matrix.distance(i, j));
+                    } else {
+                        out.putDouble(matrix.distance(i, j));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The table stored next to the instance file, or null when there is none or it was written
+     * for other coordinates.
+     */
+    public static DistanceMatrix readDistances(Path instanceFile, CitySet cities) throws IOException {
+        Path file = sidecar(instanceFile, DISTANCES_EXTENSION);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, DISTANCES_MAGIC, file);
+            if (header.count != cities.size() || header.fingerprint != fingerprint(cities)) {
+                return null;
+            }
+            DistanceMatrix.Storage[] storages = DistanceMatrix.Storage.values();
+            if (header.word < 0 || header.word >= storages.length) {
+                throw new IOException(file + " has an unknown storage " + header.word);
+            }
+            DistanceMatrix.Storage storage = storages[header.word];
+            long entries = storage.entries(header.count);
+            if (entries > Integer.MAX_VALUE - 8) {
+                throw new IOException(file + " holds more entries than an array can");
+            }
+            if (storage == DistanceMatrix.Storage.FLOAT_TRIANGULAR) {
+                float[] values = new float[(int) entries];
+                readFloats(channel, HEADER_BYTES, values);
+                return DistanceMatrix.of(header.count, values);
+            }
+            double[] values = new double[(int) entries];
+            readDoubles(channel, HEADER_BYTES, values);
+            return DistanceMatrix.of(header.count, storage, values);
+        }
+    }
+
+    public static void writeTour(Path file, CitySet cities, int[] tour) throws IOException {
+        try (BlockWriter out = new BlockWriter(file)) {
+            out.header(TOUR_MAGIC, tour.length, 0, fingerprint(cities), 0);
+            for (int city : tour) {
+                out.putInt(city);
+            }
+        }
+    }
+
+    /**
+     * Reads a tour written by {@link #writeTour}, checking that it was written for {@code cities}
+     * unless that is null.
+     */
+    public static int[] readTour(Path file, CitySet cities) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, TOUR_MAGIC, file);
+            if (cities != null && (header.count != cities.size() || header.fingerprint != fingerprint(cities))) {
+                throw new IOException(file + " holds a tour of other cities");
+            }
+            int[] tour = new int[header.count];
+            readInts(channel, HEADER_BYTES, tour);
+            boolean[] seen = new boolean[tour.length];
+            for (int city : tour) {
+                if (city < 0 || city >= tour.length || seen[city]) {
+                    throw new IOException(file + " does not hold a tour: city " + city + " is out of range or repeated");
+                }
+                seen[city] = true;
+            }
+            return tour;
+        }
+    }
+
+    static Path sidecar(Path instanceFile, String extension) {
+        String name = instanceFile.getFileName().toString();
+        if (name.endsWith(EXTENSION)) {
+            name = name.substring(0, name.length() - EXTENSION.length());
+        }
+        return instanceFile.resolveSibling(name + extension);
+    }
+
+    /**
+     * A hash of the city count and every coordinate's bits, so a sidecar built for one set of
+     * cities is not used with another.
+     */
+    static long fingerprint(CitySet cities) {
+        long hash = 0xcbf29ce484222325L ^ cities.size();
+        for (int i = 0; i < cities.size(); i++) {
+            hash = (hash ^ Double.doubleToLongBits(cities.getLatitude(i))) * 0x100000001b3L;
+            hash = (hash ^ Double.doubleToLongBits(cities.getLongitude(i))) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static Header readHeader(FileChannel channel, int magic, Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        int read;
+        do {
+            read = channel.read(buffer, buffer.position());
+        } while (read > 0 && buffer.hasRemaining());
+        if (buffer.hasRemaining() || buffer.getInt(0) != magic) {
+            throw new IOException(file + " is not a file of this format");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException(file + " has version " + buffer.getInt(4) + ", expected " + VERSION);
+        }
+        Header header = new Header(buffer.getInt(8), buffer.getInt(12), buffer.getLong(16), buffer.getLong(24));
+        if (header.count < 0) {
+            throw new IOException(file + " has a negative city count");
+        }
+        return header;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long bytes) throws IOException {
+        if (position + bytes > channel.size()) {
+            throw new IOException("File is truncated: needs " + (position + bytes) + " bytes, has " + channel.size());
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, bytes);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private static long readDoubles(FileChannel channel, long position, double[] target) throws IOException {
+        int perWindow = MAP_WINDOW_BYTES / Double.BYTES;
+        for (int from = 0; from < target.length; from += perWindow) {
+            int length = Math.min(perWindow, target.length - from);
+            map(channel, position, (long) length * Double.BYTES).asDoubleBuffer().get(target, from, length);
+            position += (long) length * Double.BYTES;
+        }
+        return position;
+    }
+
+    private static long readFloats(FileChannel channel, long position, float[] target) throws IOException {
+        int perWindow = MAP_WINDOW_BYTES / Float.BYTES;
+        for (int from = 0; from < target.length; from += perWindow) {
+            int length = Math.min(perWindow, target.length - from);
+            map(channel, position, (long) length * Float.BYTES).asFloatBuffer().get(target, from, length);
+            position += (long) length * Float.BYTES;
+        }
+        return align(position);
+    }
+
+    private static long readInts(FileChannel channel, long position, int[] target) throws IOException {
+        int perWindow = MAP_WINDOW_BYTES / Integer.BYTES;
+        for (int from = 0; from < target.length; from += perWindow) {
+            int length = Math.min(perWindow, target.length - from);
+            map(channel, position, (long) length * Integer.BYTES).asIntBuffer().get(target, from, length);
+            position += (long) length * Integer.BYTES;
+        }
+        return align(position);
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    /**
+     * Buffered little-endian output through a direct buffer. Columns of ints are followed by
+     * {@link #align()}, which pads to the next multiple of 8 bytes.
+     */
+    private static class BlockWriter implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BLOCK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private long written;
+
+        BlockWriter(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void header(int magic, int count, int word, long fingerprint, long extra) throws IOException {
+            putInt(magic);
+            putInt(VERSION);
+            putInt(count);
+            putInt(word);
+            putLong(fingerprint);
+            putLong(extra);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void align() throws IOException {
+            while ((written + buffer.position()) % 8 != 0) {
+                ensure(1);
+                buffer.put((byte) 0);
+            }
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putFloat(float value) throws IOException {
+            ensure(Float.BYTES);
+            buffer.putFloat(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(Double.BYTES);
+            buffer.putDouble(value);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            for (int offset = 0; offset < bytes.length; ) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,516 @@
+package com.example.tsp.io;
+
+import com.example.tsp.model.CitySet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Reads city coordinates from a CSV file straight into the primitive arrays of a {@link CitySet}.
+ * The file is memory-mapped in chunks that end on line boundaries, and fields are scanned and
+ * numbers parsed on the mapped bytes, so a row costs no line strings, no split arrays and no
+ * boxed values; only the ids, when wanted, become strings. Chunks can be parsed in parallel, and
+ * the cities keep file order either way.
+ * <p>
+ * Rows whose coordinates are missing or not numbers are skipped and counted, see
+ * {@link #getSkippedRows()}. Quoted fields may contain delimiters but not line breaks.
+ */
+public class CsvCityReader {
+    static final int MAX_CHUNK_BYTES = 64 << 20;
+    static final int MIN_PARALLEL_CHUNK_BYTES = 1 << 20;
+    private static final int SCAN_BYTES = 1 << 16;
+    private static final long LINE_BREAKS = broadcast((byte) '\n');
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * Which columns hold the id, longitude and latitude, given by index or by header name.
+     */
+    public static class Layout {
+        /** The team project export: {@code crimeID,longitude,latitude}, with ids shortened to their last 5 characters. */
+        public static final Layout TEAM_PROJECT = new Layout(0, 1, 2).withIdSuffix(5);
+        /** The monthly police street export, with longitude and latitude in columns 4 and 5. */
+        public static final Layout POLICE_STREET = new Layout(0, 4, 5);
+
+        private final int idColumn;
+        private final int longitudeColumn;
+        private final int latitudeColumn;
+        private final String[] names;
+        private final int idSuffix;
+        private final int headerLines;
+        private final byte delimiter;
+
+        /**
+         * A negative id column means the rows have no id.
+         */
+        public Layout(int idColumn, int longitudeColumn, int latitudeColumn) {
+            this(idColumn, longitudeColumn, latitudeColumn, null, 0, 1, (byte) ',');
+        }
+
+        private Layout(int idColumn, int longitudeColumn, int latitudeColumn, String[] names, int idSuffix, int headerLines,
+                       byte delimiter) {
+            if (longitudeColumn < 0 || latitudeColumn < 0) {
+                throw new IllegalArgumentException("Coordinate columns must not be negative");
+            }
+            this.idColumn = idColumn;
+            this.longitudeColumn = longitudeColumn;
+            this.latitudeColumn = latitudeColumn;
+            this.names = names;
+            this.idSuffix = idSuffix;
+            this.headerLines = headerLines;
+            this.delimiter = delimiter;
+        }
+
+        /**
+         * Columns looked up in the first header line, ignoring case. A null id name means no id.
+         */
+        public static Layout byHeader(String idName, String longitudeName, String latitudeName) {
+            return new Layout(-1, 0, 0, new String[]{idName, longitudeName, latitudeName}, 0, 1, (byte) ',');
+        }
+
+        /**
+         * Parses {@code "<id>,<longitude>,<latitude>"}, where each entry is either a column index
+         * or a header name, and the id may be {@code -} for none, e.g. {@code 0,4,5} or
+         * {@code Crime_ID,Longitude,Latitude}.
+         */
+        public static Layout parse(String spec) {
+            String[] parts = spec.split(",");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Expected <id>,<longitude>,<latitude> columns, got '" + spec + "'");
+            }
+            for (int i = 0; i < 3; i++) {
+                parts[i] = parts[i].trim();
+            }
+            String id = parts[0].equals("-") ? null : parts[0];
+            if (isIndex(parts[1]) && isIndex(parts[2]) && (id == null || isIndex(id))) {
+                return new Layout(id == null ? -1 : Integer.parseInt(id), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            }
+            return byHeader(id, parts[1], parts[2]);
+        }
+
+        private static boolean isIndex(String value) {
+            return !value.isEmpty() && value.chars().allMatch(Character::isDigit);
+        }
+
+        /**
+         * Keeps only the last {@code characters} of each id, as the UI has always shown them.
+         */
+        public Layout withIdSuffix(int characters) {
+            return new Layout(idColumn, longitudeColumn, latitudeColumn, names, characters, headerLines, delimiter);
+        }
+
+        public Layout withHeaderLines(int lines) {
+            if (names != null && lines < 1) {
+                throw new IllegalArgumentException("Columns given by name need a header line");
+            }
+            return new Layout(idColumn, longitudeColumn, latitudeColumn, names, idSuffix, lines, delimiter);
+        }
+
+        public Layout withDelimiter(char delimiter) {
+            if (delimiter > 127 || delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+                throw new IllegalArgumentException("Unsupported delimiter '" + delimiter + "'");
+            }
+            return new Layout(idColumn, longitudeColumn, latitudeColumn, names, idSuffix, headerLines, (byte) delimiter);
+        }
+
+        private Layout resolve(String header) {
+            List<String> columns = new ArrayList<>();
+            for (String column : header.split(String.valueOf((char) delimiter), -1)) {
+                column = column.trim();
+                if (column.length() >= 2 && column.startsWith("\"") && column.endsWith("\"")) {
+                    column = column.substring(1, column.length() - 1).trim();
+                }
+                columns.add(column.toLowerCase());
+            }
+            int[] indices = new int[3];
+            for (int i = 0; i < 3; i++) {
+                indices[i] = names[i] == null ? -1 : columns.indexOf(names[i].toLowerCase());
+                if (names[i] != null && indices[i] < 0) {
+                    throw new IllegalArgumentException("No column '" + names[i] + "' in header " + columns);
+                }
+            }
+            return new Layout(indices[0], indices[1], indices[2], null, idSuffix, headerLines, delimiter);
+        }
+
+        private int lastColumn() {
+            return Math.max(idColumn, Math.max(longitudeColumn, latitudeColumn));
+        }
+
+        @Override
+        public String toString() {
+            return names != null ? String.join(",", Arrays.asList(names)) : idColumn + "," + longitudeColumn + "," + latitudeColumn;
+        }
+    }
+
+    private final Layout layout;
+    private final boolean parallel;
+    private long skippedRows;
+
+    public CsvCityReader(Layout layout) {
+        this(layout, false);
+    }
+
+    public CsvCityReader(Layout layout, boolean parallel) {
+        this.layout = layout;
+        this.parallel = parallel;
+    }
+
+    /**
+     * Rows skipped by the last {@link #read} because a coordinate was missing or malformed. Blank
+     * lines are not counted.
+     */
+    public long getSkippedRows() {
+        return skippedRows;
+    }
+
+    public CitySet read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Layout columns = layout;
+            long start = 0;
+            for (int line = 0; line < layout.headerLines && start < size; line++) {
+                long end = nextLineStart(channel, start, size);
+                if (line == 0 && layout.names != null) {
+                    columns = layout.resolve(headerText(channel, start, end));
+                }
+                start = end;
+            }
+            if (layout.names != null && columns == layout) {
+                throw new IllegalArgumentException("Columns given by name, but " + file + " has no header line");
+            }
+
+            long[] bounds = chunkBounds(channel, start, size);
+            Chunk[] chunks = new Chunk[bounds.length - 1];
+            Layout resolved = columns;
+            IntStream indices = IntStream.range(0, chunks.length);
+            try {
+                (parallel ? indices.parallel() : indices).forEach(c -> {
+                    try {
+                        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, bounds[c], bounds[c + 1] - bounds[c]);
+                        chunks[c] = parse(buffer, resolved);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return merge(chunks, resolved.idColumn >= 0);
+        }
+    }
+
+    /**
+     * Splits {@code [start, size)} into chunks that each end just after a line break. Sequential
+     * reads use the largest chunks; parallel reads aim for a few chunks per core.
+     */
+    private long[] chunkBounds(FileChannel channel, long start, long size) throws IOException {
+        long target = MAX_CHUNK_BYTES;
+        if (parallel) {
+            long perChunk = (size - start) / (4L * Runtime.getRuntime().availableProcessors());
+            target = Math.max(MIN_PARALLEL_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES, perChunk));
+        }
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(start);
+        long position = start;
+        while (position < size) {
+            long next = position + target >= size ? size : nextLineStart(channel, position + target, size);
+            if (next - position > Integer.MAX_VALUE) {
+                throw new IOException("Line longer than " + Integer.MAX_VALUE + " bytes at offset " + position);
+            }
+            bounds.add(next);
+            position = next;
+        }
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BYTES);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static String headerText(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(end - start, SCAN_BYTES));
+        channel.read(buffer, start);
+        String header = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        // A byte order mark would otherwise become part of the first column's name
+        return header.startsWith("\uFEFF") ? header.substring(1) : header;
+    }
+
+    private static class Chunk {
+        double[] latitude;
+        double[] longitude;
+        String[] ids;
+        int count;
+        long skipped;
+
+        Chunk(int capacity, boolean withIds) {
+            latitude = new double[capacity];
+            longitude = new double[capacity];
+            ids = withIds ? new String[capacity] : null;
+        }
+
+        void add(double lat, double lon, String id) {
+            if (count == latitude.length) {
+                int capacity = Math.max(16, count * 2);
+                latitude = Arrays.copyOf(latitude, capacity);
+                longitude = Arrays.copyOf(longitude, capacity);
+                if (ids != null) {
+                    ids = Arrays.copyOf(ids, capacity);
+                }
+            }
+            latitude[count] = lat;
+            longitude[count] = lon;
+            if (ids != null) {
+                ids[count] = id;
+            }
+            count++;
+        }
+    }
+
+    private static Chunk parse(ByteBuffer buffer, Layout layout) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        int limit = buffer.limit();
+        byte delimiter = layout.delimiter;
+        long delimiters = broadcast(delimiter);
+        int lastColumn = layout.lastColumn();
+        // Rows of the supported exports are 40 to 300 bytes long
+        Chunk chunk = new Chunk(limit / 48 + 16, layout.idColumn >= 0);
+        byte[] idBytes = new byte[64];
+        int position = 0;
+        while (position < limit) {
+            double latitude = Double.NaN;
+            double longitude = Double.NaN;
+            String id = null;
+            int column = 0;
+            boolean blank = true;
+            boolean endOfLine = false;
+            while (!endOfLine && column <= lastColumn) {
+                int from = position;
+                int to;
+                boolean escaped = false;
+                if (position < limit && buffer.get(position) == '"') {
+                    from = ++position;
+                    while (position < limit) {
+                        if (buffer.get(position) == '"') {
+                            if (position + 1 < limit && buffer.get(position + 1) == '"') {
+                                // An escaped quote inside the field
+                                escaped = true;
+                                position += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        position++;
+                    }
+                    to = position;
+                    while (position < limit && buffer.get(position) != delimiter && buffer.get(position) != '\n') {
+                        position++;
+                    }
+                } else {
+                    position = nextSeparator(buffer, position, limit, delimiters);
+                    to = position;
+                    if (to > from && buffer.get(to - 1) == '\r') {
+                        to--;
+                    }
+                }
+                if (to > from) {
+                    blank = false;
+                }
+
+                if (column == layout.longitudeColumn) {
+                    longitude = parseDouble(buffer, from, to);
+                }
+                if (column == layout.latitudeColumn) {
+                    latitude = parseDouble(buffer, from, to);
+                }
+                if (column == layout.idColumn) {
+                    int length = to - from;
+                    if (idBytes.length < length) {
+                        idBytes = new byte[length * 2];
+                    }
+                    buffer.get(from, idBytes, 0, length);
+                    id = new String(idBytes, 0, length, StandardCharsets.UTF_8);
+                    if (escaped) {
+                        id = id.replace("\"\"", "\"");
+                    }
+                    if (layout.idSuffix > 0 && id.length() > layout.idSuffix) {
+                        id = id.substring(id.length() - layout.idSuffix);
+                    }
+                }
+
+                endOfLine = position >= limit || buffer.get(position) == '\n';
+                position++;
+                column++;
+            }
+            if (!endOfLine) {
+                // The columns after the last one we need are not looked at
+                position = nextSeparator(buffer, position, limit, LINE_BREAKS) + 1;
+                blank = false;
+            }
+
+            if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+                if (!blank) {
+                    chunk.skipped++;
+                }
+            } else {
+                chunk.add(latitude, longitude, id);
+            }
+        }
+        return chunk;
+    }
+
+    private static long broadcast(byte value) {
+        return (value & 0xFFL) * 0x0101010101010101L;
+    }
+
+    /**
+     * Position of the first delimiter or line break at or after {@code position}, or
+     * {@code limit}. Eight bytes are tested at a time: a byte of {@code word ^ pattern} is zero
+     * where the word holds the pattern byte, and subtracting one from every byte sets the top bit
+     * of the lowest such byte. Bytes above a match can be flagged falsely, which the lowest set bit
+     * never is, and in little-endian order that bit belongs to the first match in the file.
+     */
+    private static int nextSeparator(ByteBuffer buffer, int position, int limit, long delimiters) {
+        for (; position + Long.BYTES <= limit; position += Long.BYTES) {
+            long word = buffer.getLong(position);
+            long found = zeroBytes(word ^ delimiters) | zeroBytes(word ^ LINE_BREAKS);
+            if (found != 0) {
+                return position + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        while (position < limit && buffer.get(position) != (byte) delimiters && buffer.get(position) != '\n') {
+            position++;
+        }
+        return position;
+    }
+
+    private static long zeroBytes(long word) {
+        return (word - 0x0101010101010101L) & ~word & 0x8080808080808080L;
+    }
+
+    /**
+     * Parses a decimal number from the bytes in {@code [from, to)}, or returns NaN when they are
+     * not one. Up to 18 significant digits and 22 decimals, which covers every coordinate in
+     * practice, are converted with one exact division and so round exactly as
+     * {@link Double#parseDouble} does; anything else, exponents included, falls back to it.
+     */
+    static double parseDouble(ByteBuffer buffer, int from, int to) {
+        while (from < to && buffer.get(from) == ' ') {
+            from++;
+        }
+        while (to > from && buffer.get(to - 1) == ' ') {
+            to--;
+        }
+        if (from == to) {
+            return Double.NaN;
+        }
+        int i = from;
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        int decimals = 0;
+        int digits = 0;
+        boolean fraction = false;
+        for (; i < to; i++) {
+            byte c = buffer.get(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (mantissa != 0 || c != '0') {
+                    if (++significantDigits > 18) {
+                        return parseSlowly(buffer, from, to);
+                    }
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (fraction) {
+                    decimals++;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else if (c == 'e' || c == 'E') {
+                return parseSlowly(buffer, from, to);
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        if (mantissa >= 1L << 53 || decimals >= POWERS_OF_TEN.length) {
+            return parseSlowly(buffer, from, to);
+        }
+        double value = mantissa / POWERS_OF_TEN[decimals];
+        return negative ? -value : value;
+    }
+
+    private static double parseSlowly(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        try {
+            return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private CitySet merge(Chunk[] chunks, boolean withIds) {
+        int total = 0;
+        long skipped = 0;
+        for (Chunk chunk : chunks) {
+            total += chunk.count;
+            skipped += chunk.skipped;
+        }
+        skippedRows = skipped;
+        double[] latitude = new double[total];
+        double[] longitude = new double[total];
+        String[] ids = withIds ? new String[total] : null;
+        int offset = 0;
+        for (Chunk chunk : chunks) {
+            System.arraycopy(chunk.latitude, 0, latitude, offset, chunk.count);
+            System.arraycopy(chunk.longitude, 0, longitude, offset, chunk.count);
+            if (ids != null) {
+                System.arraycopy(chunk.ids, 0, ids, offset, chunk.count);
+            }
+            offset += chunk.count;
+        }
+        return new CitySet(latitude, longitude, ids);
+    }
+}
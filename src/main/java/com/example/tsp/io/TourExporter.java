@@ -0,0 +1,329 @@
+package com.example.tsp.io;
+
+import com.example.tsp.model.CitySet;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes finished tours to an output directory in one or more formats, on a background thread so
+ * the caller, typically the UI thread, never waits for the disk. Exports run one at a time in the
+ * order they were asked for. Each file is written under a temporary name and then moved into
+ * place, so a reader never sees half a tour.
+ * <p>
+ * The default exporter writes to the directory in the {@code tsp.output.dir} system property,
+ * {@code output} by default, in the comma-separated formats of {@code tsp.output.formats},
+ * {@code csv} by default.
+ */
+public class TourExporter implements AutoCloseable {
+    private static final int WRITE_BUFFER_CHARS = 1 << 16;
+
+    public enum Format {
+        /** {@code id,latitude,longitude} rows, one per city in visiting order, quoted as in RFC 4180. */
+        CSV(".csv"),
+        /** A GeoJSON Feature with the closed tour as a LineString of {@code [longitude, latitude]} points. */
+        GEOJSON(".geojson"),
+        /** A TSPLIB tour with 1-based city numbers in the order of the city set. */
+        TSPLIB(".tour"),
+        /** The city indices as written by {@link BinaryInstanceFormat#writeTour}. */
+        BINARY(".tourb");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format forFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            for (Format format : values()) {
+                if (name.endsWith(format.extension)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown tour format for " + file + ", expected one of " + extensions());
+        }
+
+        /**
+         * Looks a format up by name or extension, with or without the dot, e.g. {@code csv} or {@code .tour}.
+         */
+        public static Format parse(String name) {
+            String trimmed = name.trim();
+            String extension = trimmed.startsWith(".") ? trimmed : "." + trimmed;
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(trimmed) || format.extension.equalsIgnoreCase(extension)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown tour format '" + name + "', expected one of " + Arrays.toString(values()));
+        }
+
+        private static List<String> extensions() {
+            List<String> extensions = new ArrayList<>();
+            for (Format format : values()) {
+                extensions.add(format.extension);
+            }
+            return extensions;
+        }
+    }
+
+    private static class DefaultHolder {
+        static final TourExporter INSTANCE = new TourExporter(Path.of(System.getProperty("tsp.output.dir", "output")),
+                parseFormats(System.getProperty("tsp.output.formats", "csv")));
+    }
+
+    private final Path directory;
+    private final Set<Format> formats;
+    private final ExecutorService executor;
+
+    public TourExporter(Path directory, Set<Format> formats) {
+        this(directory, formats, Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "tour-export");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    // The executor must run one task at a time to keep exports in order
+    TourExporter(Path directory, Set<Format> formats, ExecutorService executor) {
+        if (formats.isEmpty()) {
+            throw new IllegalArgumentException("No export formats given");
+        }
+        this.directory = directory;
+        this.formats = EnumSet.copyOf(formats);
+        this.executor = executor;
+    }
+
+    public static TourExporter getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    public static Set<Format> parseFormats(String names) {
+        Set<Format> formats = EnumSet.noneOf(Format.class);
+        for (String name : names.split(",")) {
+            if (!name.isBlank()) {
+                formats.add(Format.parse(name));
+            }
+        }
+        return formats;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public Set<Format> getFormats() {
+        return EnumSet.copyOf(formats);
+    }
+
+    /**
+     * Exports the tour under {@code name} in every configured format, e.g. {@code twoOpt.csv} and
+     * {@code twoOpt.geojson} for the name {@code twoOpt} or {@code twoOpt.csv}. The tour is copied
+     * before this returns, so the caller may go on changing it. The future completes with the
+     * files written, or exceptionally with the first I/O error.
+     */
+    public CompletableFuture<List<Path>> export(CitySet cities, int[] tour, String name) {
+        int[] snapshot = tour.clone();
+        String baseName = stripExtension(name);
+        return CompletableFuture.supplyAsync(() -> {
+            List<Path> files = new ArrayList<>();
+            for (Format format : formats) {
+                Path file = directory.resolve(baseName + format.getExtension());
+                try {
+                    Files.createDirectories(directory);
+                    writeAtomically(file, cities, snapshot, format);
+                } catch (IOException e) {
+                    throw new ExportException(file, e);
+                }
+                files.add(file);
+            }
+            return files;
+        }, executor);
+    }
+
+    /**
+     * Waits for the exports already asked for, then stops the export thread. An interrupt ends the
+     * wait early and is passed on to the caller's thread.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Thrown, wrapped in a {@link java.util.concurrent.CompletionException}, when an export fails.
+     */
+    public static class ExportException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final Path file;
+
+        ExportException(Path file, IOException cause) {
+            super("Could not write " + file + ": " + cause.getMessage(), cause);
+            this.file = file;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+    }
+
+    private static String stripExtension(String name) {
+        for (Format format : Format.values()) {
+            if (name.toLowerCase(Locale.ROOT).endsWith(format.getExtension())) {
+                return name.substring(0, name.length() - format.getExtension().length());
+            }
+        }
+        return name;
+    }
+
+    private static void writeAtomically(Path file, CitySet cities, int[] tour, Format format) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            write(temporary, cities, tour, format);
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Writes the tour to {@code file} right away, on the calling thread.
+     */
+    public static void write(Path file, CitySet cities, int[] tour, Format format) throws IOException {
+        if (format == Format.BINARY) {
+            BinaryInstanceFormat.writeTour(file, cities, tour);
+            return;
+        }
+        try (Writer writer = new BufferedWriter(Files.newBufferedWriter(file), WRITE_BUFFER_CHARS)) {
+            switch (format) {
+                case CSV:
+                    writeCsv(writer, cities, tour);
+                    break;
+                case GEOJSON:
+                    writeGeoJson(writer, cities, tour, file);
+                    break;
+                case TSPLIB:
+                    writeTsplib(writer, tour, file);
+                    break;
+                default:
+                    throw new IllegalStateException("Unhandled format " + format);
+            }
+        }
+    }
+
+    private static void writeCsv(Writer writer, CitySet cities, int[] tour) throws IOException {
+        writer.write("id,latitude,longitude\n");
+        for (int city : tour) {
+            writeCsvField(writer, cities.getCrimeId(city));
+            writer.write(',');
+            writer.write(Double.toString(cities.getLatitude(city)));
+            writer.write(',');
+            writer.write(Double.toString(cities.getLongitude(city)));
+            writer.write('\n');
+        }
+    }
+
+    // Fields holding a comma, quote or line break are quoted, with quotes inside doubled
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static void writeGeoJson(Writer writer, CitySet cities, int[] tour, Path file) throws IOException {
+        writer.write("{\"type\":\"Feature\",\"properties\":{\"name\":");
+        writeJsonString(writer, baseName(file));
+        writer.write(",\"cities\":");
+        writer.write(Integer.toString(tour.length));
+        writer.write(",\"length\":");
+        writer.write(Double.toString(cities.tourLength(tour)));
+        writer.write("},\"geometry\":{\"type\":\"LineString\",\"coordinates\":[");
+        for (int i = 0; i <= tour.length && tour.length > 0; i++) {
+            // The first city again at the end closes the ring
+            int city = tour[i % tour.length];
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write('[');
+            writer.write(Double.toString(cities.getLongitude(city)));
+            writer.write(',');
+            writer.write(Double.toString(cities.getLatitude(city)));
+            writer.write(']');
+        }
+        writer.write("]}}\n");
+    }
+
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+
+    private static void writeTsplib(Writer writer, int[] tour, Path file) throws IOException {
+        writer.write("NAME : " + baseName(file) + ".tour\n");
+        writer.write("TYPE : TOUR\n");
+        writer.write("DIMENSION : " + tour.length + "\n");
+        writer.write("TOUR_SECTION\n");
+        for (int city : tour) {
+            writer.write(Integer.toString(city + 1));
+            writer.write('\n');
+        }
+        writer.write("-1\nEOF\n");
+    }
+
+    private static String baseName(Path file) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(".tmp")) {
+            name = name.substring(0, name.length() - ".tmp".length());
+        }
+        return stripExtension(name);
+    }
+}
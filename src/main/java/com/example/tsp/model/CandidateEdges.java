@@ -0,0 +1,78 @@
+package com.example.tsp.model;
+
+import java.util.Arrays;
+
+/**
+ * The undirected edges of a k-nearest-neighbour graph, each listed once, in increasing order of
+ * length. Shared by the sparse spanning tree, matching and greedy edge construction.
+ */
+public class CandidateEdges {
+    private final int[] from;
+    private final int[] to;
+    private final double[] weight;
+    private final int size;
+
+    public CandidateEdges(DistanceProvider distances, NeighborLists neighbors) {
+        int n = distances.size();
+        int k = neighbors.getK();
+        int[] u = new int[n * k];
+        int[] v = new int[n * k];
+        double[] w = new double[n * k];
+        int edges = 0;
+        for (int a = 0; a < n; a++) {
+            for (int r = 0; r < k; r++) {
+                int b = neighbors.get(a, r);
+                if (a > b && listed(neighbors, b, a)) {
+                    continue;
+                }
+                u[edges] = a;
+                v[edges] = b;
+                w[edges] = distances.distance(a, b);
+                edges++;
+            }
+        }
+
+        // Sort by weight: non-negative float bits order like the floats themselves
+        long[] order = new long[edges];
+        for (int e = 0; e < edges; e++) {
+            order[e] = ((long) Float.floatToIntBits((float) w[e]) << 32) | e;
+        }
+        Arrays.parallelSort(order);
+
+        from = new int[edges];
+        to = new int[edges];
+        weight = new double[edges];
+        for (int i = 0; i < edges; i++) {
+            int e = (int) order[i];
+            from[i] = u[e];
+            to[i] = v[e];
+            weight[i] = w[e];
+        }
+        size = edges;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getFrom(int edge) {
+        return from[edge];
+    }
+
+    public int getTo(int edge) {
+        return to[edge];
+    }
+
+    public double getWeight(int edge) {
+        return weight[edge];
+    }
+
+    private static boolean listed(NeighborLists neighbors, int city, int other) {
+        for (int r = 0; r < neighbors.getK(); r++) {
+            if (neighbors.get(city, r) == other) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -15,6 +15,9 @@ public class City {
     private double latitude;
     private double longitude;
     private String crimeId;
+    private final double latitudeRadians;
+    private final double longitudeRadians;
+    private final double cosLatitude;
 
     public City(double x, double y, double latitude, double longitude, String crimeId) {
         this.id = idCounter++;
@@ -23,6 +26,9 @@ public class City {
         this.latitude = latitude;
         this.longitude = longitude;
         this.crimeId = crimeId;
+        this.latitudeRadians = Math.toRadians(latitude);
+        this.longitudeRadians = Math.toRadians(longitude);
+        this.cosLatitude = Math.cos(latitudeRadians);
     }
 
     public int getId() {
@@ -76,6 +82,7 @@ public class City {
 //        double dx = x - other.x;
 //        double dy = y - other.y;
 //        return Math.sqrt(dx * dx + dy * dy);
-        return DistanceUtil.haversineDistance(this.latitude, this.longitude, other.latitude, other.longitude);
+        return DistanceUtil.haversineDistance(latitudeRadians, cosLatitude, longitudeRadians,
+                other.latitudeRadians, other.cosLatitude, other.longitudeRadians);
     }
 }
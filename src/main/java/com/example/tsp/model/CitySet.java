@@ -0,0 +1,174 @@
+package com.example.tsp.model;
+
+import com.example.tsp.Utility.DistanceUtil;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Primitive, index-addressed view of a set of cities. Coordinates are kept in parallel arrays
+ * together with their radians and latitude cosines, so haversine distances between indices need
+ * no per-call conversions and no pointer chasing through {@link City} objects.
+ */
+public class CitySet implements DistanceProvider {
+    private final double[] latitude;
+    private final double[] longitude;
+    private final double[] latitudeRadians;
+    private final double[] longitudeRadians;
+    private final double[] cosLatitude;
+    private final String[] crimeIds;
+    private final City[] cities;
+    private Map<Integer, Integer> indexById;
+
+    public CitySet(double[] latitude, double[] longitude, String[] crimeIds) {
+        this(latitude, longitude, crimeIds, new City[latitude.length]);
+    }
+
+    private CitySet(double[] latitude, double[] longitude, String[] crimeIds, City[] cities) {
+        if (longitude.length != latitude.length || (crimeIds != null && crimeIds.length != latitude.length)) {
+            throw new IllegalArgumentException("Coordinate arrays must have the same length");
+        }
+        int n = latitude.length;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.crimeIds = crimeIds;
+        this.cities = cities;
+        this.latitudeRadians = new double[n];
+        this.longitudeRadians = new double[n];
+        this.cosLatitude = new double[n];
+        for (int i = 0; i < n; i++) {
+            latitudeRadians[i] = Math.toRadians(latitude[i]);
+            longitudeRadians[i] = Math.toRadians(longitude[i]);
+            cosLatitude[i] = Math.cos(latitudeRadians[i]);
+        }
+    }
+
+    /**
+     * Builds a set whose index {@code i} is the {@code i}-th city of the list. A closing
+     * duplicate of the first city (as produced by Christofides) is dropped.
+     */
+    public static CitySet of(List<City> cities) {
+        int n = isClosed(cities) ? cities.size() - 1 : cities.size();
+        double[] latitude = new double[n];
+        double[] longitude = new double[n];
+        String[] crimeIds = new String[n];
+        City[] cityArray = new City[n];
+        for (int i = 0; i < n; i++) {
+            City city = cities.get(i);
+            latitude[i] = city.getLatitude();
+            longitude[i] = city.getLongitude();
+            crimeIds[i] = city.getCrimeId();
+            cityArray[i] = city;
+        }
+        return new CitySet(latitude, longitude, crimeIds, cityArray);
+    }
+
+    public static boolean isClosed(List<City> tour) {
+        return tour.size() > 1 && tour.get(0).equals(tour.get(tour.size() - 1));
+    }
+
+    @Override
+    public int size() {
+        return latitude.length;
+    }
+
+    @Override
+    public double distance(int from, int to) {
+        return DistanceUtil.haversineDistance(latitudeRadians[from], cosLatitude[from], longitudeRadians[from],
+                latitudeRadians[to], cosLatitude[to], longitudeRadians[to]);
+    }
+
+    public double getLatitude(int index) {
+        return latitude[index];
+    }
+
+    public double getLongitude(int index) {
+        return longitude[index];
+    }
+
+    public double getLatitudeRadians(int index) {
+        return latitudeRadians[index];
+    }
+
+    public double getLongitudeRadians(int index) {
+        return longitudeRadians[index];
+    }
+
+    public double getCosLatitude(int index) {
+        return cosLatitude[index];
+    }
+
+    public String getCrimeId(int index) {
+        return crimeIds == null ? "" : crimeIds[index];
+    }
+
+    /**
+     * Returns the {@link City} for an index, creating it on first use when the set was built
+     * from raw coordinate arrays.
+     */
+    public City getCity(int index) {
+        City city = cities[index];
+        if (city == null) {
+            city = new City(longitude[index], latitude[index], latitude[index], longitude[index], getCrimeId(index));
+            cities[index] = city;
+        }
+        return city;
+    }
+
+    public int indexOf(City city) {
+        if (indexById == null) {
+            Map<Integer, Integer> ids = new HashMap<>();
+            for (int i = 0; i < size(); i++) {
+                ids.put(getCity(i).getId(), i);
+            }
+            indexById = ids;
+        }
+        Integer index = indexById.get(city.getId());
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * The tour that visits the cities in index order, i.e. the order of the list this set was built from.
+     */
+    public int[] identityTour() {
+        int[] tour = new int[size()];
+        for (int i = 0; i < tour.length; i++) {
+            tour[i] = i;
+        }
+        return tour;
+    }
+
+    public int[] toTour(List<City> tour) {
+        int n = isClosed(tour) ? tour.size() - 1 : tour.size();
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            int index = indexOf(tour.get(i));
+            if (index < 0) {
+                throw new IllegalArgumentException("City " + tour.get(i).getId() + " is not part of this set");
+            }
+            indices[i] = index;
+        }
+        return indices;
+    }
+
+    public List<City> toCities(int[] tour, boolean closed) {
+        List<City> result = new ArrayList<>(tour.length + 1);
+        for (int index : tour) {
+            result.add(getCity(index));
+        }
+        if (closed && tour.length > 0) {
+            result.add(result.get(0));
+        }
+        return result;
+    }
+
+    public List<City> toCities(int[] tour) {
+        return toCities(tour, false);
+    }
+
+    public List<City> getCities() {
+        return toCities(identityTour());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.tsp.model;
+
+/**
+ * Union-find over the integers 0..n-1 with union by rank and path halving, stored in two flat
+ * arrays. Both operations run in effectively constant amortised time.
+ */
+public class DisjointSet {
+    private final int[] parent;
+    private final byte[] rank;
+    private int components;
+
+    public DisjointSet(int size) {
+        parent = new int[size];
+        rank = new byte[size];
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+        components = size;
+    }
+
+    public int find(int element) {
+        while (parent[element] != element) {
+            parent[element] = parent[parent[element]];
+            element = parent[element];
+        }
+        return element;
+    }
+
+    /**
+     * Merges the sets holding {@code a} and {@code b}. Returns false if they were already one set.
+     */
+    public boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return false;
+        }
+        if (rank[rootA] < rank[rootB]) {
+            parent[rootA] = rootB;
+        } else if (rank[rootA] > rank[rootB]) {
+            parent[rootB] = rootA;
+        } else {
+            parent[rootB] = rootA;
+            rank[rootA]++;
+        }
+        components--;
+        return true;
+    }
+
+    public int getComponents() {
+        return components;
+    }
+}
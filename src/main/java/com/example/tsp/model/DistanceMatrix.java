@@ -0,0 +1,163 @@
+package com.example.tsp.model;
+
+import java.util.stream.IntStream;
+
+/**
+ * Precomputed, symmetric distance table over a {@link DistanceProvider}. The table can be stored
+ * in full, as the lower triangle only, or as a lower triangle of floats, trading precision and
+ * a little index arithmetic for memory.
+ */
+public class DistanceMatrix implements DistanceProvider {
+
+    public enum Storage {
+        FULL(8, false),
+        TRIANGULAR(8, true),
+        FLOAT_TRIANGULAR(4, true);
+
+        private final int bytesPerEntry;
+        private final boolean triangular;
+
+        Storage(int bytesPerEntry, boolean triangular) {
+            this.bytesPerEntry = bytesPerEntry;
+            this.triangular = triangular;
+        }
+
+        public long entries(int n) {
+            return triangular ? (long) n * (n - 1) / 2 : (long) n * n;
+        }
+
+        public long bytes(int n) {
+            return entries(n) * bytesPerEntry;
+        }
+    }
+
+    // Below this size the full table is small enough that saving memory is not worth the index arithmetic
+    private static final int FULL_STORAGE_LIMIT = 2_000;
+    // Share of the currently available heap a cached matrix may take
+    private static final double HEAP_FRACTION = 0.25;
+
+    private final int n;
+    private final Storage storage;
+    private final double[] values;
+    private final float[] floatValues;
+
+    private DistanceMatrix(DistanceProvider source, Storage storage) {
+        long entries = storage.entries(source.size());
+        if (entries > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(storage + " storage cannot hold " + source.size() + " cities");
+        }
+        this.n = source.size();
+        this.storage = storage;
+        this.values = storage == Storage.FLOAT_TRIANGULAR ? null : new double[(int) entries];
+        this.floatValues = storage == Storage.FLOAT_TRIANGULAR ? new float[(int) entries] : null;
+
+        IntStream.range(0, n).parallel().forEach(i -> fillRow(source, i));
+    }
+
+    private DistanceMatrix(int n, Storage storage, double[] values, float[] floatValues) {
+        int length = values != null ? values.length : floatValues.length;
+        if (length != storage.entries(n) || (storage == Storage.FLOAT_TRIANGULAR) != (floatValues != null)) {
+            throw new IllegalArgumentException(length + " values do not make a " + storage + " table of " + n + " cities");
+        }
+        this.n = n;
+        this.storage = storage;
+        this.values = values;
+        this.floatValues = floatValues;
+    }
+
+    public static DistanceMatrix build(DistanceProvider source, Storage storage) {
+        return new DistanceMatrix(source, storage);
+    }
+
+    /**
+     * Wraps a table computed elsewhere, e.g. read back from disk, in the layout of
+     * {@code storage}: rows of the full table, or the rows of the lower triangle without the
+     * diagonal. The array is used as is, not copied.
+     */
+    public static DistanceMatrix of(int n, Storage storage, double[] values) {
+        return new DistanceMatrix(n, storage, values, null);
+    }
+
+    public static DistanceMatrix of(int n, float[] values) {
+        return new DistanceMatrix(n, Storage.FLOAT_TRIANGULAR, null, values);
+    }
+
+    /**
+     * Returns a matrix-backed provider for the source, picking the storage from the number of
+     * cities and the heap that is currently available. When not even the float triangle fits,
+     * the source is returned unchanged and distances keep being computed on demand.
+     */
+    public static DistanceProvider cache(DistanceProvider source) {
+        if (source instanceof DistanceMatrix) {
+            return source;
+        }
+        Storage storage = chooseStorage(source.size(), availableHeap());
+        return storage == null ? source : build(source, storage);
+    }
+
+    public static Storage chooseStorage(int n, long availableBytes) {
+        long budget = (long) (availableBytes * HEAP_FRACTION);
+        if (n <= FULL_STORAGE_LIMIT && Storage.FULL.bytes(n) <= budget) {
+            return Storage.FULL;
+        }
+        for (Storage storage : new Storage[]{Storage.TRIANGULAR, Storage.FLOAT_TRIANGULAR}) {
+            if (storage.bytes(n) <= budget && storage.entries(n) <= Integer.MAX_VALUE - 8) {
+                return storage;
+            }
+        }
+        return null;
+    }
+
+    private static long availableHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    private void fillRow(DistanceProvider source, int i) {
+        if (storage == Storage.FULL) {
+            int offset = i * n;
+            for (int j = 0; j < n; j++) {
+                values[offset + j] = i == j ? 0.0 : source.distance(i, j);
+            }
+        } else {
+            int offset = triangleOffset(i);
+            for (int j = 0; j < i; j++) {
+                double distance = source.distance(i, j);
+                if (floatValues != null) {
+                    floatValues[offset + j] = (float) distance;
+                } else {
+                    values[offset + j] = distance;
+                }
+            }
+        }
+    }
+
+    private static int triangleOffset(int row) {
+        return (int) ((long) row * (row - 1) / 2);
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public double distance(int from, int to) {
+        if (storage == Storage.FULL) {
+            return values[from * n + to];
+        }
+        if (from == to) {
+            return 0.0;
+        }
+        int index = from > to ? triangleOffset(from) + to : triangleOffset(to) + from;
+        return floatValues != null ? floatValues[index] : values[index];
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    public long getSizeInBytes() {
+        return storage.bytes(n);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.tsp.model;
+
+/**
+ * Distance lookup between cities addressed by their index in a {@link CitySet}. All optimizers
+ * work on {@code int[]} tours of these indices and ask a provider for edge weights.
+ */
+public interface DistanceProvider {
+
+    int size();
+
+    double distance(int from, int to);
+
+    default double tourLength(int[] tour) {
+        if (tour.length < 2) {
+            return 0.0;
+        }
+        double length = 0.0;
+        int prev = tour[tour.length - 1];
+        for (int city : tour) {
+            length += distance(prev, city);
+            prev = city;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.tsp.model;
+
+import java.util.Arrays;
+
+/**
+ * The k nearest neighbours of every city, sorted by increasing distance and stored in one flat
+ * array. Local search restricted to these candidate edges only looks at O(k) moves per city.
+ * The lists are built in the spatial package, by {@code NeighborSearch}.
+ */
+public class NeighborLists {
+    public static final int DEFAULT_K = 10;
+
+    private final int k;
+    private final int[] neighbors;
+
+    private NeighborLists(int k, int[] neighbors) {
+        this.k = k;
+        this.neighbors = neighbors;
+    }
+
+    /**
+     * Wraps lists computed elsewhere, e.g. read back from disk, laid out as {@code k} neighbours
+     * per city in city order.
+     */
+    public static NeighborLists of(int k, int[] neighbors) {
+        if (k < 0 || (k == 0 ? neighbors.length != 0 : neighbors.length % k != 0)) {
+            throw new IllegalArgumentException(neighbors.length + " entries are not " + k + " neighbours per city");
+        }
+        return new NeighborLists(k, neighbors);
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public int size() {
+        return neighbors.length / Math.max(k, 1);
+    }
+
+    public int get(int city, int rank) {
+        return neighbors[city * k + rank];
+    }
+
+    public int[] neighborsOf(int city) {
+        return Arrays.copyOfRange(neighbors, city * k, city * k + k);
+    }
+}
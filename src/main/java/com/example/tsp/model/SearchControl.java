@@ -0,0 +1,147 @@
+package com.example.tsp.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared between a running search and whoever started it, possibly on another thread. The search
+ * stops at its next check once the control is cancelled or its deadline has passed, and returns
+ * the best tour it has. Along the way it publishes improving tours, at most one per report
+ * interval, so the best tour so far can be polled at any time and a listener can follow progress.
+ * A published tour is at most one interval older than the search's own best.
+ */
+public class SearchControl {
+    public static final long DEFAULT_REPORT_MILLIS = 100;
+
+    public interface Listener {
+        /**
+         * Called on the search thread with a tour the search no longer touches.
+         */
+        void improved(int[] tour, double cost);
+    }
+
+    // Published together so a reader never sees one tour with another tour's cost
+    private static final class Snapshot {
+        final int[] tour;
+        final double cost;
+
+        Snapshot(int[] tour, double cost) {
+            this.tour = tour;
+            this.cost = cost;
+        }
+    }
+
+    private final long reportIntervalNanos;
+    private final AtomicLong lastReport = new AtomicLong(Long.MIN_VALUE);
+    private volatile Listener listener;
+    private volatile boolean cancelled;
+    private volatile long deadline = Long.MAX_VALUE;
+    private volatile Snapshot best;
+
+    public SearchControl() {
+        this(DEFAULT_REPORT_MILLIS);
+    }
+
+    public SearchControl(long reportIntervalMillis) {
+        this.reportIntervalNanos = reportIntervalMillis * 1_000_000;
+    }
+
+    /**
+     * A control whose deadline is {@code timeBudgetMillis} from now; non-positive means no limit.
+     */
+    public static SearchControl withTimeBudget(long timeBudgetMillis) {
+        SearchControl control = new SearchControl();
+        control.setTimeBudget(timeBudgetMillis);
+        return control;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void setTimeBudget(long timeBudgetMillis) {
+        setDeadline(timeBudgetMillis > 0 ? System.nanoTime() + timeBudgetMillis * 1_000_000 : Long.MAX_VALUE);
+    }
+
+    /**
+     * Sets the deadline as a {@link System#nanoTime()} value; {@link Long#MAX_VALUE} means none.
+     */
+    public void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Milliseconds left until the deadline, at least 1, or 0 when there is no deadline.
+     */
+    public long remainingMillis() {
+        long current = deadline;
+        if (current == Long.MAX_VALUE) {
+            return 0;
+        }
+        return Math.max(1, (current - System.nanoTime()) / 1_000_000);
+    }
+
+    public boolean shouldStop() {
+        return cancelled || (deadline != Long.MAX_VALUE && System.nanoTime() >= deadline);
+    }
+
+    /**
+     * True when the previous report is at least one interval old.
+     */
+    public boolean wantsReport() {
+        long last = lastReport.get();
+        return last == Long.MIN_VALUE || System.nanoTime() - last >= reportIntervalNanos;
+    }
+
+    /**
+     * Publishes {@code tour} if it beats the best one so far and passes it to the listener. The
+     * control keeps the array, so the caller must not modify it afterwards.
+     */
+    public void report(int[] tour, double cost) {
+        lastReport.set(System.nanoTime());
+        synchronized (this) {
+            Snapshot current = best;
+            if (current != null && current.cost <= cost) {
+                return;
+            }
+            best = new Snapshot(tour, cost);
+        }
+        Listener current = listener;
+        if (current != null) {
+            current.improved(tour, cost);
+        }
+    }
+
+    /**
+     * Reports a tour the search keeps modifying, copying it only when a report is due.
+     */
+    public void offer(Tour tour, DistanceProvider distances) {
+        if (wantsReport()) {
+            report(tour.toArray(), tour.length(distances));
+        }
+    }
+
+    /**
+     * A copy of the best tour published so far, or null before the first report.
+     */
+    public int[] getBestTour() {
+        Snapshot current = best;
+        return current == null ? null : current.tour.clone();
+    }
+
+    public double getBestCost() {
+        Snapshot current = best;
+        return current == null ? Double.POSITIVE_INFINITY : current.cost;
+    }
+}
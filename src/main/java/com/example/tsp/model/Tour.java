@@ -0,0 +1,142 @@
+package com.example.tsp.model;
+
+/**
+ * Array-based cyclic tour with a position index, so successor, predecessor and "where is this
+ * city" queries are O(1). Segment reversals always flip whichever side of the cycle is shorter.
+ */
+public class Tour {
+    private final int[] order;
+    private final int[] position;
+
+    public Tour(int[] tour) {
+        this.order = tour.clone();
+        this.position = new int[tour.length];
+        for (int i = 0; i < order.length; i++) {
+            position[order[i]] = i;
+        }
+    }
+
+    public int size() {
+        return order.length;
+    }
+
+    public int get(int index) {
+        return order[index];
+    }
+
+    public int positionOf(int city) {
+        return position[city];
+    }
+
+    public int next(int city) {
+        int index = position[city] + 1;
+        return order[index == order.length ? 0 : index];
+    }
+
+    public int prev(int city) {
+        int index = position[city] - 1;
+        return order[index < 0 ? order.length - 1 : index];
+    }
+
+    /**
+     * Whether {@code b} lies on the forward path from {@code a} to {@code c} (inclusive).
+     */
+    public boolean between(int a, int b, int c) {
+        int pa = position[a];
+        int pb = position[b];
+        int pc = position[c];
+        if (pa <= pc) {
+            return pa <= pb && pb <= pc;
+        }
+        return pb >= pa || pb <= pc;
+    }
+
+    /**
+     * Reverses the forward path from city {@code from} to city {@code to}. When that path is
+     * longer than half the tour the complementary path is reversed instead, which yields the
+     * same cycle.
+     */
+    public void reverse(int from, int to) {
+        int n = order.length;
+        int i = position[from];
+        int j = position[to];
+        int length = j - i;
+        if (length < 0) {
+            length += n;
+        }
+        length++;
+        if (length * 2 > n) {
+            int newI = j + 1;
+            int newJ = i - 1;
+            i = newI == n ? 0 : newI;
+            j = newJ < 0 ? n - 1 : newJ;
+            length = n - length;
+        }
+        for (int swaps = length / 2; swaps > 0; swaps--) {
+            int ci = order[i];
+            int cj = order[j];
+            order[i] = cj;
+            position[cj] = i;
+            order[j] = ci;
+            position[ci] = j;
+            if (++i == n) {
+                i = 0;
+            }
+            if (--j < 0) {
+                j = n - 1;
+            }
+        }
+    }
+
+    /**
+     * Replaces tour edges {a, b} and {c, d} with {a, c} and {b, d}. Both edges must be traversed
+     * the same way round (b follows a exactly when d follows c). Because the move is described by
+     * edges rather than by direction it stays valid after a reversal flipped the orientation.
+     */
+    public void twoOptMove(int a, int b, int c, int d) {
+        if (next(a) == b) {
+            reverse(b, c);
+        } else {
+            reverse(a, d);
+        }
+    }
+
+    /**
+     * Moves segment s1..s2, which sits between p and nx, to sit between the adjacent cities c and
+     * d, optionally reversed. Done as 2-opt moves on edges so every step reverses the shorter side.
+     */
+    public void moveSegment(int p, int s1, int s2, int nx, int c, int d, boolean reversed) {
+        // p s1..s2 nx..c d  ->  p c..nx s2..s1 d
+        twoOptMove(p, s1, c, d);
+        // p c..nx s2..s1 d  ->  p nx..c s2..s1 d
+        twoOptMove(p, c, nx, s2);
+        if (!reversed) {
+            // c s2..s1 d  ->  c s1..s2 d
+            twoOptMove(c, s2, s1, d);
+        }
+    }
+
+    /**
+     * Exchanges the positions of cities {@code a} and {@code b}.
+     */
+    public void swap(int a, int b) {
+        int pa = position[a];
+        int pb = position[b];
+        order[pa] = b;
+        order[pb] = a;
+        position[a] = pb;
+        position[b] = pa;
+    }
+
+    public double length(DistanceProvider distances) {
+        return distances.tourLength(order);
+    }
+
+    public int[] toArray() {
+        return order.clone();
+    }
+
+    public void copyTo(int[] tour) {
+        System.arraycopy(order, 0, tour, 0, order.length);
+    }
+}
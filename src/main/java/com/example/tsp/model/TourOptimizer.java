@@ -0,0 +1,11 @@
+package com.example.tsp.model;
+
+/**
+ * An improvement heuristic that can be stopped at any time. Implementations stop once
+ * {@link SearchControl#shouldStop()} turns true, publish improving tours to the control, and
+ * return the best tour found, which may be {@code tour} itself modified in place.
+ */
+public interface TourOptimizer {
+
+    int[] optimizeTour(int[] tour, DistanceProvider distances, SearchControl control);
+}
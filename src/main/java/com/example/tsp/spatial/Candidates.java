@@ -0,0 +1,42 @@
+package com.example.tsp.spatial;
+
+import java.util.Arrays;
+
+// Bounded list of the closest points seen so far, kept sorted by insertion
+final class Candidates {
+    private final int[] ids;
+    private final double[] keys;
+    private int count;
+
+    Candidates(int capacity) {
+        ids = new int[capacity];
+        keys = new double[capacity];
+    }
+
+    boolean isFull() {
+        return count == ids.length;
+    }
+
+    /** The key a new point has to beat, infinite while the list is not full. */
+    double bound() {
+        return isFull() ? keys[count - 1] : Double.POSITIVE_INFINITY;
+    }
+
+    void offer(int id, double key) {
+        if (key >= bound()) {
+            return;
+        }
+        int i = isFull() ? count - 1 : count++;
+        while (i > 0 && keys[i - 1] > key) {
+            keys[i] = keys[i - 1];
+            ids[i] = ids[i - 1];
+            i--;
+        }
+        keys[i] = key;
+        ids[i] = id;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(ids, count);
+    }
+}
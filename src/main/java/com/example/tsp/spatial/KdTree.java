@@ -0,0 +1,230 @@
+package com.example.tsp.spatial;
+
+import com.example.tsp.model.CitySet;
+
+import java.util.stream.IntStream;
+
+/**
+ * Balanced 3-d tree over the cities' positions on the sphere, stored implicitly: the subtree
+ * over positions [lo, hi) has its root at the middle position, so no node objects are needed.
+ * Each node splits on the axis with the widest spread and counts the cities still present below
+ * it, which lets searches skip subtrees emptied by {@link #remove}.
+ */
+public class KdTree implements SpatialIndex {
+    private final SpherePoints points;
+    // City stored at each tree position, and the position of each city
+    private final int[] order;
+    private final int[] position;
+    private final byte[] axis;
+    private final int[] present;
+    private final boolean[] removed;
+    private int size;
+
+    public KdTree(CitySet cities) {
+        points = new SpherePoints(cities);
+        int n = points.size();
+        order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        axis = new byte[n];
+        present = new int[n];
+        removed = new boolean[n];
+        size = n;
+        build(0, n);
+        position = new int[n];
+        for (int p = 0; p < n; p++) {
+            position[order[p]] = p;
+        }
+    }
+
+    private void build(int lo, int hi) {
+        if (hi - lo < 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int split = widestAxis(lo, hi);
+        select(lo, hi, mid, split);
+        axis[mid] = (byte) split;
+        present[mid] = hi - lo;
+        build(lo, mid);
+        build(mid + 1, hi);
+    }
+
+    private int widestAxis(int lo, int hi) {
+        int best = 0;
+        double bestSpread = -1;
+        for (int a = 0; a < 3; a++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int p = lo; p < hi; p++) {
+                double c = points.coordinate(a, order[p]);
+                min = Math.min(min, c);
+                max = Math.max(max, c);
+            }
+            if (max - min > bestSpread) {
+                bestSpread = max - min;
+                best = a;
+            }
+        }
+        return best;
+    }
+
+    // Quickselect: afterwards order[k] has the k-th smallest coordinate, smaller ones before it
+    private void select(int lo, int hi, int k, int a) {
+        int left = lo;
+        int right = hi - 1;
+        while (left < right) {
+            double pivot = points.coordinate(a, order[(left + right) >>> 1]);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (points.coordinate(a, order[i]) < pivot) i++;
+                while (points.coordinate(a, order[j]) > pivot) j--;
+                if (i <= j) {
+                    int t = order[i];
+                    order[i++] = order[j];
+                    order[j--] = t;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int city) {
+        return !removed[city];
+    }
+
+    @Override
+    public void remove(int city) {
+        if (!removed[city]) {
+            removed[city] = true;
+            size--;
+            updateCounts(position[city], -1);
+        }
+    }
+
+    @Override
+    public void restore(int city) {
+        if (removed[city]) {
+            removed[city] = false;
+            size++;
+            updateCounts(position[city], 1);
+        }
+    }
+
+    private void updateCounts(int target, int change) {
+        int lo = 0;
+        int hi = order.length;
+        while (true) {
+            int mid = (lo + hi) >>> 1;
+            present[mid] += change;
+            if (target == mid) {
+                return;
+            }
+            if (target < mid) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+    }
+
+    @Override
+    public int nearest(int city) {
+        int[] found = nearest(city, 1);
+        return found.length == 0 ? -1 : found[0];
+    }
+
+    @Override
+    public int[] nearest(int city, int k) {
+        return query(points.x[city], points.y[city], points.z[city], city, k);
+    }
+
+    @Override
+    public int nearest(double latitude, double longitude) {
+        double[] p = SpherePoints.toPoint(latitude, longitude);
+        int[] found = query(p[0], p[1], p[2], -1, 1);
+        return found.length == 0 ? -1 : found[0];
+    }
+
+    private int[] query(double qx, double qy, double qz, int exclude, int k) {
+        if (k <= 0) {
+            return new int[0];
+        }
+        Candidates best = new Candidates(k);
+        search(0, order.length, qx, qy, qz, exclude, best);
+        return best.toArray();
+    }
+
+    private void search(int lo, int hi, double qx, double qy, double qz, int exclude, Candidates best) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (present[mid] == 0) {
+            return;
+        }
+        int city = order[mid];
+        if (!removed[city] && city != exclude) {
+            best.offer(city, points.chordSquared(city, qx, qy, qz));
+        }
+        double diff = component(axis[mid], qx, qy, qz) - points.coordinate(axis[mid], city);
+        if (diff < 0) {
+            search(lo, mid, qx, qy, qz, exclude, best);
+            if (diff * diff < best.bound()) {
+                search(mid + 1, hi, qx, qy, qz, exclude, best);
+            }
+        } else {
+            search(mid + 1, hi, qx, qy, qz, exclude, best);
+            if (diff * diff < best.bound()) {
+                search(lo, mid, qx, qy, qz, exclude, best);
+            }
+        }
+    }
+
+    @Override
+    public int[] withinRadius(int city, double radius) {
+        IntStream.Builder found = IntStream.builder();
+        collect(0, order.length, city, SpherePoints.chordSquared(radius), found);
+        return found.build().toArray();
+    }
+
+    private void collect(int lo, int hi, int center, double limit, IntStream.Builder found) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (present[mid] == 0) {
+            return;
+        }
+        int city = order[mid];
+        if (!removed[city] && city != center
+                && points.chordSquared(city, points.x[center], points.y[center], points.z[center]) <= limit) {
+            found.add(city);
+        }
+        double diff = points.coordinate(axis[mid], center) - points.coordinate(axis[mid], city);
+        if (diff <= 0 || diff * diff <= limit) {
+            collect(lo, mid, center, limit, found);
+        }
+        if (diff >= 0 || diff * diff <= limit) {
+            collect(mid + 1, hi, center, limit, found);
+        }
+    }
+
+    private static double component(int axis, double x, double y, double z) {
+        return axis == 0 ? x : axis == 1 ? y : z;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.tsp.spatial;
+
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.NeighborLists;
+
+import java.util.stream.IntStream;
+
+/**
+ * Builds {@link NeighborLists}, the k nearest neighbours of every city.
+ */
+public final class NeighborSearch {
+
+    private NeighborSearch() {
+    }
+
+    /**
+     * Builds the lists from coordinates with a {@link UniformGrid}, which ranks by chord length
+     * and therefore in the same order as the haversine distance.
+     */
+    public static NeighborLists build(CitySet cities, int k) {
+        int n = cities.size();
+        k = Math.min(k, n - 1);
+        if (k <= 0) {
+            return NeighborLists.of(0, new int[0]);
+        }
+        UniformGrid grid = new UniformGrid(cities);
+        int[] neighbors = new int[n * k];
+        int finalK = k;
+        IntStream.range(0, n).parallel().forEach(city ->
+                System.arraycopy(grid.nearest(city, finalK), 0, neighbors, city * finalK, finalK));
+        return NeighborLists.of(k, neighbors);
+    }
+
+    /**
+     * Builds the lists by scanning every pair, for providers that have no coordinates.
+     */
+    public static NeighborLists build(DistanceProvider distances, int k) {
+        int n = distances.size();
+        k = Math.min(k, n - 1);
+        if (k <= 0) {
+            return NeighborLists.of(0, new int[0]);
+        }
+        int[] neighbors = new int[n * k];
+        int finalK = k;
+        IntStream.range(0, n).parallel().forEach(city -> {
+            Candidates best = new Candidates(finalK);
+            for (int other = 0; other < n; other++) {
+                if (other != city) {
+                    best.offer(other, distances.distance(city, other));
+                }
+            }
+            System.arraycopy(best.toArray(), 0, neighbors, city * finalK, finalK);
+        });
+        return NeighborLists.of(k, neighbors);
+    }
+}
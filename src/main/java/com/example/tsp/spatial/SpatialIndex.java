@@ -0,0 +1,31 @@
+package com.example.tsp.spatial;
+
+/**
+ * Nearest-neighbour queries over the cities of a {@link com.example.tsp.model.CitySet}, addressed
+ * by city index. Cities can be removed (for example once visited) and restored; removed cities
+ * are never returned. Distances are great-circle distances in meters, as in {@code CitySet}.
+ * Queries may run concurrently with each other, but not with {@link #remove} or {@link #restore}.
+ */
+public interface SpatialIndex {
+
+    /** Number of cities currently in the index. */
+    int size();
+
+    boolean contains(int city);
+
+    void remove(int city);
+
+    void restore(int city);
+
+    /** The closest city in the index other than {@code city} itself, or -1 if there is none. */
+    int nearest(int city);
+
+    /** Up to {@code k} closest cities other than {@code city}, closest first. */
+    int[] nearest(int city, int k);
+
+    /** The closest city in the index to an arbitrary point, or -1 if the index is empty. */
+    int nearest(double latitude, double longitude);
+
+    /** Every city other than {@code city} within {@code radius} meters of it, in no particular order. */
+    int[] withinRadius(int city, double radius);
+}
@@ -0,0 +1,62 @@
+package com.example.tsp.spatial;
+
+import com.example.tsp.Utility.DistanceUtil;
+import com.example.tsp.model.CitySet;
+
+/**
+ * Cities as points on a sphere of the Earth's radius, in meters. The straight-line (chord)
+ * distance between two such points grows with their great-circle distance, so nearest-neighbour
+ * rankings can be done with squared chords, and any axis or plane projection of the chord is a
+ * valid lower bound for pruning. No projection error, whatever the extent of the data.
+ */
+final class SpherePoints {
+    final double[] x;
+    final double[] y;
+    final double[] z;
+
+    SpherePoints(CitySet cities) {
+        int n = cities.size();
+        x = new double[n];
+        y = new double[n];
+        z = new double[n];
+        for (int i = 0; i < n; i++) {
+            double cosLat = cities.getCosLatitude(i);
+            double lon = cities.getLongitudeRadians(i);
+            x[i] = DistanceUtil.EARTH_RADIUS * cosLat * Math.cos(lon);
+            y[i] = DistanceUtil.EARTH_RADIUS * cosLat * Math.sin(lon);
+            z[i] = DistanceUtil.EARTH_RADIUS * Math.sin(cities.getLatitudeRadians(i));
+        }
+    }
+
+    int size() {
+        return x.length;
+    }
+
+    double coordinate(int axis, int point) {
+        return axis == 0 ? x[point] : axis == 1 ? y[point] : z[point];
+    }
+
+    double chordSquared(int point, double px, double py, double pz) {
+        double dx = x[point] - px;
+        double dy = y[point] - py;
+        double dz = z[point] - pz;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    static double[] toPoint(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        return new double[]{
+                DistanceUtil.EARTH_RADIUS * cosLat * Math.cos(lon),
+                DistanceUtil.EARTH_RADIUS * cosLat * Math.sin(lon),
+                DistanceUtil.EARTH_RADIUS * Math.sin(lat)};
+    }
+
+    /** Squared chord spanning a great-circle arc of the given length. */
+    static double chordSquared(double arc) {
+        double halfAngle = Math.min(arc / DistanceUtil.EARTH_RADIUS, Math.PI) / 2;
+        double chord = 2 * DistanceUtil.EARTH_RADIUS * Math.sin(halfAngle);
+        return chord * chord;
+    }
+}
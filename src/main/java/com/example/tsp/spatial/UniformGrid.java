@@ -0,0 +1,235 @@
+package com.example.tsp.spatial;
+
+import com.example.tsp.model.CitySet;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Uniform grid over the cities projected orthographically onto the plane tangent to the sphere
+ * at their centroid. That projection never lengthens a chord, so ring-by-ring searches can stop
+ * as soon as the next ring is provably farther than the current k-th best. Cheaper to build and
+ * to query than {@link KdTree} for evenly spread cities; clustered data favours the tree.
+ */
+public class UniformGrid implements SpatialIndex {
+    private final SpherePoints points;
+    private final double[] u;
+    private final double[] v;
+    // Tangent plane basis
+    private final double[] east;
+    private final double[] north;
+    private final double minU;
+    private final double minV;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart;
+    private final int[] cellItems;
+    private final int[] cellPresent;
+    private final int[] cellOf;
+    private final boolean[] removed;
+    private int size;
+
+    public UniformGrid(CitySet cities) {
+        points = new SpherePoints(cities);
+        int n = points.size();
+        double cx = 0;
+        double cy = 0;
+        double cz = 0;
+        for (int i = 0; i < n; i++) {
+            cx += points.x[i];
+            cy += points.y[i];
+            cz += points.z[i];
+        }
+        double[] normal = normalize(cx, cy, cz);
+        // Any vector not parallel to the normal gives the first in-plane axis
+        double[] helper = Math.abs(normal[2]) < 0.9 ? new double[]{0, 0, 1} : new double[]{1, 0, 0};
+        east = normalize(cross(helper, normal));
+        north = cross(normal, east);
+
+        u = new double[n];
+        v = new double[n];
+        double lowU = Double.POSITIVE_INFINITY;
+        double lowV = Double.POSITIVE_INFINITY;
+        double maxU = Double.NEGATIVE_INFINITY;
+        double maxV = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            u[i] = points.x[i] * east[0] + points.y[i] * east[1] + points.z[i] * east[2];
+            v[i] = points.x[i] * north[0] + points.y[i] * north[1] + points.z[i] * north[2];
+            lowU = Math.min(lowU, u[i]);
+            lowV = Math.min(lowV, v[i]);
+            maxU = Math.max(maxU, u[i]);
+            maxV = Math.max(maxV, v[i]);
+        }
+        minU = n == 0 ? 0 : lowU;
+        minV = n == 0 ? 0 : lowV;
+        // Aim for about two cities per cell, without letting long thin extents blow up the cell count
+        double width = n == 0 ? 0 : maxU - minU;
+        double height = n == 0 ? 0 : maxV - minV;
+        double size = Math.max(Math.sqrt(width * height * 2 / Math.max(n, 1)), Math.max(width, height) / (2.0 * Math.max(n, 1)));
+        cellSize = size > 0 ? size : 1;
+        columns = Math.max(1, Math.min((int) (width / cellSize) + 1, 1 << 15));
+        rows = Math.max(1, Math.min((int) (height / cellSize) + 1, 1 << 15));
+
+        int cells = columns * rows;
+        cellStart = new int[cells + 1];
+        cellOf = new int[n];
+        for (int i = 0; i < n; i++) {
+            cellOf[i] = cell(column(u[i]), row(v[i]));
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < cells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] fill = Arrays.copyOf(cellStart, cells);
+        cellItems = new int[n];
+        for (int i = 0; i < n; i++) {
+            cellItems[fill[cellOf[i]]++] = i;
+        }
+        cellPresent = new int[cells];
+        for (int c = 0; c < cells; c++) {
+            cellPresent[c] = cellStart[c + 1] - cellStart[c];
+        }
+        removed = new boolean[n];
+        this.size = n;
+    }
+
+    private int column(double pu) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor((pu - minU) / cellSize)));
+    }
+
+    private int row(double pv) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor((pv - minV) / cellSize)));
+    }
+
+    private int cell(int column, int row) {
+        return row * columns + column;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(int city) {
+        return !removed[city];
+    }
+
+    @Override
+    public void remove(int city) {
+        if (!removed[city]) {
+            removed[city] = true;
+            size--;
+            cellPresent[cellOf[city]]--;
+        }
+    }
+
+    @Override
+    public void restore(int city) {
+        if (removed[city]) {
+            removed[city] = false;
+            size++;
+            cellPresent[cellOf[city]]++;
+        }
+    }
+
+    @Override
+    public int nearest(int city) {
+        int[] found = nearest(city, 1);
+        return found.length == 0 ? -1 : found[0];
+    }
+
+    @Override
+    public int[] nearest(int city, int k) {
+        return query(points.x[city], points.y[city], points.z[city], u[city], v[city], city, k);
+    }
+
+    @Override
+    public int nearest(double latitude, double longitude) {
+        double[] p = SpherePoints.toPoint(latitude, longitude);
+        double pu = p[0] * east[0] + p[1] * east[1] + p[2] * east[2];
+        double pv = p[0] * north[0] + p[1] * north[1] + p[2] * north[2];
+        int[] found = query(p[0], p[1], p[2], pu, pv, -1, 1);
+        return found.length == 0 ? -1 : found[0];
+    }
+
+    private int[] query(double qx, double qy, double qz, double qu, double qv, int exclude, int k) {
+        if (k <= 0 || size == 0) {
+            return new int[0];
+        }
+        Candidates best = new Candidates(k);
+        int cx = column(qu);
+        int cy = row(qv);
+        int maxRing = Math.max(columns, rows);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Cells from this ring outwards are at least (ring - 1) * cellSize away in the projection
+            double gap = Math.max(0, ring - 1) * cellSize;
+            if (gap * gap >= best.bound()) {
+                break;
+            }
+            for (int row = cy - ring; row <= cy + ring; row++) {
+                if (row < 0 || row >= rows) {
+                    continue;
+                }
+                boolean edgeRow = row == cy - ring || row == cy + ring;
+                int step = edgeRow ? 1 : 2 * ring;
+                for (int column = cx - ring; column <= cx + ring; column += Math.max(step, 1)) {
+                    if (column < 0 || column >= columns) {
+                        continue;
+                    }
+                    int c = cell(column, row);
+                    if (cellPresent[c] == 0) {
+                        continue;
+                    }
+                    for (int p = cellStart[c]; p < cellStart[c + 1]; p++) {
+                        int other = cellItems[p];
+                        if (!removed[other] && other != exclude) {
+                            best.offer(other, points.chordSquared(other, qx, qy, qz));
+                        }
+                    }
+                }
+            }
+        }
+        return best.toArray();
+    }
+
+    @Override
+    public int[] withinRadius(int city, double radius) {
+        double limit = SpherePoints.chordSquared(radius);
+        double reach = Math.sqrt(limit);
+        IntStream.Builder found = IntStream.builder();
+        int fromColumn = column(u[city] - reach);
+        int toColumn = column(u[city] + reach);
+        int fromRow = row(v[city] - reach);
+        int toRow = row(v[city] + reach);
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                int c = cell(column, row);
+                if (cellPresent[c] == 0) {
+                    continue;
+                }
+                for (int p = cellStart[c]; p < cellStart[c + 1]; p++) {
+                    int other = cellItems[p];
+                    if (!removed[other] && other != city
+                            && points.chordSquared(other, points.x[city], points.y[city], points.z[city]) <= limit) {
+                        found.add(other);
+                    }
+                }
+            }
+        }
+        return found.build().toArray();
+    }
+
+    private static double[] cross(double[] a, double[] b) {
+        return new double[]{a[1] * b[2] - a[2] * b[1], a[2] * b[0] - a[0] * b[2], a[0] * b[1] - a[1] * b[0]};
+    }
+
+    private static double[] normalize(double... vector) {
+        double length = Math.sqrt(vector[0] * vector[0] + vector[1] * vector[1] + vector[2] * vector[2]);
+        if (length == 0) {
+            return new double[]{1, 0, 0};
+        }
+        return new double[]{vector[0] / length, vector[1] / length, vector[2] / length};
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.tsp.strategic;
+
+import com.example.tsp.model.City;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceMatrix;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.model.SearchControl;
+import com.example.tsp.model.Tour;
+import com.example.tsp.spatial.NeighborSearch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Variable-depth Lin-Kernighan local search. Starting from an edge (t1, t2), each step adds an
+ * edge from t2 to one of its candidate neighbours t3 and removes the tour edge (t3, t4) that lets
+ * the tour be closed again with (t4, t1), so every intermediate state is a valid tour. The chain
+ * continues while the partial gain stays positive and the best closed tour along it is kept.
+ * The first levels try several candidates (backtracking), deeper levels follow the best one.
+ */
+public class LinKernighanOptimizer {
+    public static final int DEFAULT_MAX_DEPTH = 50;
+    // Candidates tried at the first levels of the chain; deeper levels try only the best one
+    private static final int[] DEFAULT_BREADTH = {5, 5, 3, 2};
+
+    private static final double EPSILON = 1e-9;
+    // The search checks its control once every CHECK_MASK + 1 starting cities
+    private static final int CHECK_MASK = 0x3F;
+
+    private final DistanceProvider distances;
+    private final NeighborLists neighbors;
+    private final int maxDepth;
+    private final int[] breadth;
+
+    private Tour tour;
+    // Moves applied along the current chain, so they can be undone
+    private final int[] moveA;
+    private final int[] moveB;
+    private final int[] moveC;
+    private final int[] moveD;
+    private int moveCount;
+    // Per-level scratch for the candidate t3/t4 pairs
+    private final int[][] candidateT3;
+    private final int[][] candidateT4;
+    private final double[][] candidateScore;
+
+    public LinKernighanOptimizer(DistanceProvider distances, NeighborLists neighbors) {
+        this(distances, neighbors, DEFAULT_MAX_DEPTH, DEFAULT_BREADTH);
+    }
+
+    public LinKernighanOptimizer(DistanceProvider distances, NeighborLists neighbors, int maxDepth, int[] breadth) {
+        this.distances = distances;
+        this.neighbors = neighbors;
+        this.maxDepth = maxDepth;
+        this.breadth = breadth.clone();
+        this.moveA = new int[maxDepth];
+        this.moveB = new int[maxDepth];
+        this.moveC = new int[maxDepth];
+        this.moveD = new int[maxDepth];
+        int widest = 1;
+        for (int b : breadth) {
+            widest = Math.max(widest, b);
+        }
+        this.candidateT3 = new int[maxDepth][widest];
+        this.candidateT4 = new int[maxDepth][widest];
+        this.candidateScore = new double[maxDepth][widest];
+    }
+
+    public static List<City> optimize(List<City> tour) {
+        if (tour.size() < 2) return new ArrayList<>();
+        CitySet cities = CitySet.of(tour);
+        int[] order = optimize(cities.identityTour(), DistanceMatrix.cache(cities),
+                NeighborSearch.build(cities, NeighborLists.DEFAULT_K));
+        return cities.toCities(order, CitySet.isClosed(tour));
+    }
+
+    public static int[] optimize(int[] tour, DistanceProvider distances, NeighborLists neighbors) {
+        return new LinKernighanOptimizer(distances, neighbors).improve(tour);
+    }
+
+    public static int[] optimize(int[] tour, DistanceProvider distances, NeighborLists neighbors, SearchControl control) {
+        return new LinKernighanOptimizer(distances, neighbors).improve(tour, control);
+    }
+
+    public int[] improve(int[] initialTour) {
+        return improve(initialTour, new SearchControl());
+    }
+
+    /**
+     * Improves the tour in place until no chain improves it or {@code control} says stop. Every
+     * chain ends in a valid tour, so the current tour is always the best so far; it is offered to
+     * the control after each improving chain.
+     */
+    public int[] improve(int[] initialTour, SearchControl control) {
+        int n = initialTour.length;
+        if (n < 5) return initialTour;
+        tour = new Tour(initialTour);
+
+        int[] queue = initialTour.clone();
+        int head = 0;
+        int queuedCount = n;
+        boolean[] queued = new boolean[distances.size()];
+        for (int city : initialTour) {
+            queued[city] = true;
+        }
+
+        for (int examined = 0; queuedCount > 0; examined++) {
+            if ((examined & CHECK_MASK) == 0 && control.shouldStop()) {
+                break;
+            }
+            int t1 = queue[head];
+            head = (head + 1) % n;
+            queuedCount--;
+            queued[t1] = false;
+
+            if (improveFrom(t1)) {
+                control.offer(tour, distances);
+                // Everything the chain touched gets its don't-look bit cleared
+                for (int m = 0; m < moveCount; m++) {
+                    int[] cities = {moveA[m], moveB[m], moveC[m], moveD[m]};
+                    for (int city : cities) {
+                        if (!queued[city]) {
+                            queue[(head + queuedCount) % n] = city;
+                            queuedCount++;
+                            queued[city] = true;
+                        }
+                    }
+                }
+                if (!queued[t1]) {
+                    queue[(head + queuedCount) % n] = t1;
+                    queuedCount++;
+                    queued[t1] = true;
+                }
+            }
+        }
+        tour.copyTo(initialTour);
+        return initialTour;
+    }
+
+    private boolean improveFrom(int t1) {
+        for (int direction = 0; direction < 2; direction++) {
+            int t2 = direction == 0 ? tour.next(t1) : tour.prev(t1);
+            moveCount = 0;
+            if (step(0, t1, t2, distances.distance(t1, t2), 0.0) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extends the chain from t2, where {t1, t2} is the edge currently closing the tour and
+     * {@code gain} is the sum of removed minus added edge lengths excluding that closing edge.
+     * Returns the improvement of the best tour found beyond {@code best}, leaving the tour in that
+     * state, or 0 after restoring the tour to how it was on entry.
+     */
+    private double step(int level, int t1, int t2, double gain, double best) {
+        int width = level < breadth.length ? breadth[level] : 1;
+        int count = collectCandidates(level, t1, t2, gain, width);
+
+        for (int i = 0; i < count; i++) {
+            int t3 = candidateT3[level][i];
+            int t4 = candidateT4[level][i];
+
+            // Remove {t2, t1} and {t3, t4}, add {t2, t3} and {t1, t4}
+            apply(t2, t1, t3, t4);
+            double newGain = gain - distances.distance(t2, t3) + distances.distance(t3, t4);
+            double closedGain = newGain - distances.distance(t4, t1);
+            double threshold = Math.max(best, closedGain);
+
+            double deeper = level + 1 < maxDepth ? step(level + 1, t1, t4, newGain, threshold) : 0.0;
+            if (deeper > threshold) {
+                return deeper;
+            }
+            if (closedGain > best + EPSILON) {
+                return closedGain;
+            }
+            undoLast();
+        }
+        return 0.0;
+    }
+
+    private int collectCandidates(int level, int t1, int t2, double gain, int width) {
+        int count = 0;
+        boolean t1FollowsT2 = tour.next(t2) == t1;
+        for (int rank = 0; rank < neighbors.getK(); rank++) {
+            int t3 = neighbors.get(t2, rank);
+            double added = distances.distance(t2, t3);
+            // Neighbours are sorted, so the partial gain only gets worse from here
+            if (gain - added <= EPSILON) {
+                break;
+            }
+            if (t3 == t1 || t3 == tour.next(t2) || t3 == tour.prev(t2)) {
+                continue;
+            }
+            // t4 must sit on the same side of t3 as t1 sits of t2 for the tour to close
+            int t4 = t1FollowsT2 ? tour.next(t3) : tour.prev(t3);
+            if (t4 == t2 || wasAdded(t3, t4)) {
+                continue;
+            }
+            double score = distances.distance(t3, t4) - added;
+            // Keep the best `width` candidates, ordered by how much longer the removed edge is than the added one
+            if (count == width && score <= candidateScore[level][width - 1]) {
+                continue;
+            }
+            int slot = count < width ? count++ : width - 1;
+            while (slot > 0 && candidateScore[level][slot - 1] < score) {
+                candidateT3[level][slot] = candidateT3[level][slot - 1];
+                candidateT4[level][slot] = candidateT4[level][slot - 1];
+                candidateScore[level][slot] = candidateScore[level][slot - 1];
+                slot--;
+            }
+            candidateT3[level][slot] = t3;
+            candidateT4[level][slot] = t4;
+            candidateScore[level][slot] = score;
+        }
+        return count;
+    }
+
+    // Edges added earlier in the chain must not be removed again
+    private boolean wasAdded(int x, int y) {
+        for (int m = 0; m < moveCount; m++) {
+            int a = moveA[m];
+            int c = moveC[m];
+            if ((a == x && c == y) || (a == y && c == x)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void apply(int a, int b, int c, int d) {
+        tour.twoOptMove(a, b, c, d);
+        moveA[moveCount] = a;
+        moveB[moveCount] = b;
+        moveC[moveCount] = c;
+        moveD[moveCount] = d;
+        moveCount++;
+    }
+
+    private void undoLast() {
+        moveCount--;
+        // The move left {a, c} and {b, d} in the tour; swapping them back restores {a, b} and {c, d}
+        tour.twoOptMove(moveA[moveCount], moveC[moveCount], moveB[moveCount], moveD[moveCount]);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.tsp.strategic;
+
+import com.example.tsp.model.City;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceMatrix;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.model.SearchControl;
+import com.example.tsp.model.Tour;
+import com.example.tsp.model.TourOptimizer;
+import com.example.tsp.spatial.NeighborSearch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Or-opt: moves a segment of one to three consecutive cities to a better place in the tour,
+ * optionally reversing it. Insertion points are taken from the neighbour lists of the segment's
+ * endpoints, and cities are revisited through a don't-look-bit queue like the 2-opt search.
+ */
+public class OrOptOptimizer implements TourOptimizer {
+    public static final int MAX_SEGMENT_LENGTH = 3;
+
+    private static final double EPSILON = 1e-9;
+    // The search checks its control once every CHECK_MASK + 1 cities
+    private static final int CHECK_MASK = 0xFF;
+
+    private final NeighborLists neighbors;
+
+    public OrOptOptimizer(NeighborLists neighbors) {
+        this.neighbors = neighbors;
+    }
+
+    @Override
+    public int[] optimizeTour(int[] tour, DistanceProvider distances, SearchControl control) {
+        return optimize(tour, distances, neighbors, control);
+    }
+
+    public static List<City> optimize(List<City> tour) {
+        if (tour.size() < 2) return new ArrayList<>();
+        CitySet cities = CitySet.of(tour);
+        int[] order = optimize(cities.identityTour(), DistanceMatrix.cache(cities),
+                NeighborSearch.build(cities, NeighborLists.DEFAULT_K));
+        return cities.toCities(order, CitySet.isClosed(tour));
+    }
+
+    public static int[] optimize(int[] tour, DistanceProvider distances, NeighborLists neighbors) {
+        return optimize(tour, distances, neighbors, new SearchControl());
+    }
+
+    /**
+     * Improves the tour in place until no segment can be moved or {@code control} says stop. The
+     * current tour is always the best so far and is offered to the control after improving moves.
+     */
+    public static int[] optimize(int[] tour, DistanceProvider distances, NeighborLists neighbors, SearchControl control) {
+        int n = tour.length;
+        if (n < MAX_SEGMENT_LENGTH + 3) return tour;
+        Tour current = new Tour(tour);
+        int[] queue = tour.clone();
+        int head = 0;
+        int queuedCount = n;
+        boolean[] queued = new boolean[distances.size()];
+        for (int city : tour) {
+            queued[city] = true;
+        }
+
+        for (int examined = 0; queuedCount > 0; examined++) {
+            if ((examined & CHECK_MASK) == 0 && control.shouldStop()) {
+                break;
+            }
+            int s1 = queue[head];
+            head = (head + 1) % n;
+            queuedCount--;
+            queued[s1] = false;
+            int[] touched = improveSegment(current, distances, neighbors, s1);
+            if (touched != null) {
+                control.offer(current, distances);
+                for (int city : touched) {
+                    if (!queued[city]) {
+                        queue[(head + queuedCount) % n] = city;
+                        queuedCount++;
+                        queued[city] = true;
+                    }
+                }
+            }
+        }
+        current.copyTo(tour);
+        return tour;
+    }
+
+    // Tries to relocate each segment that starts at s1 and runs forward for 1..MAX_SEGMENT_LENGTH cities
+    private static int[] improveSegment(Tour tour, DistanceProvider distances, NeighborLists neighbors, int s1) {
+        int p = tour.prev(s1);
+        int s2 = s1;
+        for (int length = 1; length <= MAX_SEGMENT_LENGTH; length++) {
+            if (length > 1) {
+                s2 = tour.next(s2);
+            }
+            int nx = tour.next(s2);
+            if (nx == p) {
+                return null;
+            }
+            // What is saved by cutting the segment out and closing the gap
+            double removeGain = distances.distance(p, s1) + distances.distance(s2, nx) - distances.distance(p, nx);
+            if (removeGain <= EPSILON) {
+                continue;
+            }
+            for (int end = 0; end < 2; end++) {
+                int endpoint = end == 0 ? s1 : s2;
+                for (int rank = 0; rank < neighbors.getK(); rank++) {
+                    int x = neighbors.get(endpoint, rank);
+                    if (distances.distance(endpoint, x) >= removeGain) {
+                        break;
+                    }
+                    if (inSegment(tour, s1, length, x)) {
+                        continue;
+                    }
+                    // Insert between x and either of its tour neighbours
+                    for (int side = 0; side < 2; side++) {
+                        int c = side == 0 ? x : tour.prev(x);
+                        int d = side == 0 ? tour.next(x) : x;
+                        if (c == p || inSegment(tour, s1, length, c) || inSegment(tour, s1, length, d)) {
+                            continue;
+                        }
+                        double cd = distances.distance(c, d);
+                        double forward = distances.distance(c, s1) + distances.distance(s2, d) - cd;
+                        double reversed = distances.distance(c, s2) + distances.distance(s1, d) - cd;
+                        double insertCost = Math.min(forward, reversed);
+                        if (insertCost < removeGain - EPSILON) {
+                            tour.moveSegment(p, s1, s2, nx, c, d, reversed < forward);
+                            return new int[]{p, nx, s1, s2, c, d};
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean inSegment(Tour tour, int s1, int length, int city) {
+        int offset = tour.positionOf(city) - tour.positionOf(s1);
+        if (offset < 0) {
+            offset += tour.size();
+        }
+        return offset < length;
+    }
+}
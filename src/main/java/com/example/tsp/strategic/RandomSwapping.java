@@ -1,34 +1,58 @@
 package com.example.tsp.strategic;
 
 import com.example.tsp.model.City;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.SearchControl;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
 public class RandomSwapping {
+    // The search checks its control once every CHECK_MASK + 1 iterations
+    private static final int CHECK_MASK = 0x3FF;
+
     public static List<City> optimize(List<City> tour, int maxIterations) {
         if(tour.size() < 3) return tour;
+        CitySet cities = CitySet.of(tour);
+        int[] order = optimize(cities.identityTour(), cities, maxIterations);
+        return cities.toCities(order, CitySet.isClosed(tour));
+    }
+
+    public static int[] optimize(int[] tour, DistanceProvider distances, int maxIterations) {
+        return optimize(tour, distances, maxIterations, new SearchControl());
+    }
+
+    /**
+     * As above, stopping early when {@code control} says so. Only improving swaps are kept, so the
+     * tour is always the best so far.
+     */
+    public static int[] optimize(int[] tour, DistanceProvider distances, int maxIterations, SearchControl control) {
+        int n = tour.length;
+        if (n < 3) return tour;
         Random random = new Random();
-        int n = tour.size();
         int iterations = 0;
 
         while (iterations < maxIterations) {
+            if ((iterations & CHECK_MASK) == 0 && control.shouldStop()) {
+                break;
+            }
             // Choose random indices i and j (i < j)
             int i = random.nextInt(n - 1);
             int j = i + 1;
 
-            // Create a new tour by swapping cities at i and j
-            List<City> newTour = new ArrayList<>(tour);
-            Collections.swap(newTour, i, j);
-
-            // Calculate the cost of the new tour
-            double newCost = calculateTourCost(newTour);
+            // Only the three edges around the swapped pair change
+            int prev = tour[(i - 1 + n) % n];
+            int a = tour[i];
+            int b = tour[j];
+            int next = tour[(j + 1) % n];
+            double oldCost = distances.distance(prev, a) + distances.distance(a, b) + distances.distance(b, next);
+            double newCost = distances.distance(prev, b) + distances.distance(b, a) + distances.distance(a, next);
 
-            // If the new tour has a lower cost, replace the current tour
-            if (newCost < calculateTourCost(tour)) {
-                tour = newTour;
+            // If the new tour has a lower cost, keep the swap
+            if (newCost < oldCost) {
+                tour[i] = b;
+                tour[j] = a;
             }
 
             iterations++;
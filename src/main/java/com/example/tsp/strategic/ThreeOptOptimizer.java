@@ -1,67 +1,332 @@
 package com.example.tsp.strategic;
 
 import com.example.tsp.model.City;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceMatrix;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.model.SearchControl;
+import com.example.tsp.model.Tour;
+import com.example.tsp.model.TourOptimizer;
+import com.example.tsp.spatial.NeighborSearch;
 
-import java.util.ArrayList;
 import java.util.List;
 
-public class ThreeOptOptimizer {
+/**
+ * 3-opt local search. Three tour edges (a, b), (c, d) and (e, f) are removed and every way of
+ * reconnecting the three resulting paths is evaluated from the six edge lengths alone: the three
+ * 2-opt reconnections and the four pure 3-opt ones. Moves are applied in place as a sequence of
+ * edge-based 2-opt moves on a {@link Tour}, each reversing the shorter side.
+ */
+public class ThreeOptOptimizer implements TourOptimizer {
+    // From this many cities on, the O(n^3) sweep is replaced by the neighbor-list search
+    public static final int NEIGHBOR_LIST_THRESHOLD = 200;
+
+    private static final double EPSILON = 1e-9;
+
+    // Reconnection cases; the first three are plain 2-opt moves
+    static final int NONE = 0;
+    static final int TWO_OPT_AB_CD = 1;   // a-c, b-d
+    static final int TWO_OPT_CD_EF = 2;   // c-e, d-f
+    static final int TWO_OPT_AB_EF = 3;   // a-e, b-f
+    static final int REVERSE_BOTH = 4;    // a-c, b-e, d-f
+    static final int SWAP_SEGMENTS = 5;   // a-d, e-b, c-f
+    static final int SWAP_REVERSE_FIRST = 6;  // a-d, e-c, b-f
+    static final int SWAP_REVERSE_SECOND = 7; // a-e, d-b, c-f
+
+    private final NeighborLists neighbors;
+
+    public ThreeOptOptimizer() {
+        this(null);
+    }
+
+    /**
+     * Searches only the given candidate edges, or runs the full sweep when {@code neighbors} is null.
+     */
+    public ThreeOptOptimizer(NeighborLists neighbors) {
+        this.neighbors = neighbors;
+    }
+
+    @Override
+    public int[] optimizeTour(int[] tour, DistanceProvider distances, SearchControl control) {
+        return optimize(tour, distances, neighbors, control);
+    }
+
     public static List<City> optimize(List<City> tour) {
+        if (tour.size() < 2) return tour;
+        CitySet cities = CitySet.of(tour);
+        int[] order = cities.identityTour();
+        NeighborLists neighbors = order.length >= NEIGHBOR_LIST_THRESHOLD
+                ? NeighborSearch.build(cities, NeighborLists.DEFAULT_K) : null;
+        optimize(order, DistanceMatrix.cache(cities), neighbors, 0);
+        return cities.toCities(order, CitySet.isClosed(tour));
+    }
+
+    public static int[] optimize(int[] tour, DistanceProvider distances) {
+        return optimize(tour, distances, null, 0);
+    }
+
+    /**
+     * Improves the tour in place until no improving 3-opt move is left or the time limit is hit.
+     * With neighbor lists only cuts whose new edges join candidate neighbours are considered.
+     * A non-positive time limit means no limit.
+     */
+    public static int[] optimize(int[] tour, DistanceProvider distances, NeighborLists neighbors, long maxExecutionTimeMillis) {
+        return optimize(tour, distances, neighbors, SearchControl.withTimeBudget(maxExecutionTimeMillis));
+    }
+
+    /**
+     * As above, stopping when {@code control} says so. The current tour is always the best so far
+     * and is offered to the control after improving moves.
+     */
+    public static int[] optimize(int[] tour, DistanceProvider distances, NeighborLists neighbors, SearchControl control) {
+        int n = tour.length;
+        if (n < 5) return tour;
+        Tour current = new Tour(tour);
+        Move move = new Move();
+        if (neighbors == null) {
+            sweep(current, distances, move, control);
+        } else {
+            searchNeighbors(current, distances, neighbors, move, control);
+        }
+        current.copyTo(tour);
+        return tour;
+    }
+
+    private static void sweep(Tour tour, DistanceProvider distances, Move move, SearchControl control) {
+        int n = tour.size();
         boolean improvement = true;
         while (improvement) {
             improvement = false;
-            for (int i = 0; i < tour.size() - 2; i++) {
-                for (int j = i + 1; j < tour.size() - 1; j++) {
-                    for (int k = j + 1; k < tour.size(); k++) {
-                        if (shouldSwap(tour, i, j, k)) {
-                            tour = swap(tour, i, j, k);
+            for (int i = 0; i < n - 2; i++) {
+                for (int j = i + 1; j < n - 1; j++) {
+                    if (control.shouldStop()) {
+                        return;
+                    }
+                    for (int k = j + 1; k < n; k++) {
+                        if (evaluate(tour, distances, i, j, k, move) < -EPSILON) {
+                            apply(tour, move);
                             improvement = true;
+                            control.offer(tour, distances);
                         }
                     }
                 }
             }
         }
-        return tour;
     }
 
-    private static boolean shouldSwap(List<City> tour, int i, int j, int k) {
-        City a = tour.get(i);
-        City b = tour.get(i + 1);
-        City c = tour.get(j);
-        City d = tour.get(j + 1);
-        City e = tour.get(k);
-        City f = tour.get((k + 1) % tour.size());
+    private static void searchNeighbors(Tour tour, DistanceProvider distances, NeighborLists neighbors, Move move, SearchControl control) {
+        int n = tour.size();
+        int[] queue = new int[n];
+        for (int i = 0; i < n; i++) {
+            queue[i] = tour.get(i);
+        }
+        int head = 0;
+        int queuedCount = n;
+        boolean[] queued = new boolean[distances.size()];
+        for (int city : queue) {
+            queued[city] = true;
+        }
 
-        double originalDistance = a.distanceTo(b) + c.distanceTo(d) + e.distanceTo(f);
-        double newDistance = a.distanceTo(c) + b.distanceTo(e) + d.distanceTo(f);
+        while (queuedCount > 0 && !control.shouldStop()) {
+            int a = queue[head];
+            head = (head + 1) % n;
+            queuedCount--;
+            queued[a] = false;
 
-        return newDistance < originalDistance;
+            if (improveCity(tour, distances, neighbors, a, move)) {
+                int[] touched = {move.a, move.b, move.c, move.d, move.e, move.f};
+                apply(tour, move);
+                control.offer(tour, distances);
+                for (int city : touched) {
+                    if (!queued[city]) {
+                        queue[(head + queuedCount) % n] = city;
+                        queuedCount++;
+                        queued[city] = true;
+                    }
+                }
+            }
+        }
     }
 
-    private static List<City> swap(List<City> tour, int i, int j, int k) {
-        List<City> newTour = new ArrayList<>(tour.size());
+    /**
+     * Looks for an improving move where one removed edge touches {@code a}, a new edge joins
+     * {@code a} to one of its neighbours, and another new edge joins the city that lost its edge
+     * to {@code a} to one of its neighbours. The three cuts are then evaluated with every case.
+     */
+    private static boolean improveCity(Tour tour, DistanceProvider distances, NeighborLists neighbors, int a, Move move) {
+        int n = tour.size();
+        for (int direction = 0; direction < 2; direction++) {
+            int b = direction == 0 ? tour.next(a) : tour.prev(a);
+            int cut1 = direction == 0 ? tour.positionOf(a) : tour.positionOf(b);
+            double removed1 = distances.distance(a, b);
 
-        // Add the unchanged part of the tour
-        for (int index = 0; index <= i; index++) {
-            newTour.add(tour.get(index));
-        }
+            for (int r1 = 0; r1 < neighbors.getK(); r1++) {
+                int x = neighbors.get(a, r1);
+                double gain1 = removed1 - distances.distance(a, x);
+                if (gain1 <= EPSILON) {
+                    break;
+                }
+                for (int side1 = 0; side1 < 2; side1++) {
+                    int cut2 = side1 == 0 ? tour.positionOf(x) : previousPosition(tour.positionOf(x), n);
+                    if (cut2 == cut1) {
+                        continue;
+                    }
+                    double removed2 = distances.distance(tour.get(cut2), tour.get(nextPosition(cut2, n)));
 
-        // Add the reversed part between i+1 and j
-        for (int index = j; index > i; index--) {
-            newTour.add(tour.get(index));
+                    for (int r2 = 0; r2 < neighbors.getK(); r2++) {
+                        int y = neighbors.get(b, r2);
+                        if (distances.distance(b, y) >= gain1 + removed2) {
+                            break;
+                        }
+                        for (int side2 = 0; side2 < 2; side2++) {
+                            int cut3 = side2 == 0 ? tour.positionOf(y) : previousPosition(tour.positionOf(y), n);
+                            if (cut3 == cut1 || cut3 == cut2) {
+                                continue;
+                            }
+                            int i = Math.min(cut1, Math.min(cut2, cut3));
+                            int k = Math.max(cut1, Math.max(cut2, cut3));
+                            int j = cut1 + cut2 + cut3 - i - k;
+                            if (evaluate(tour, distances, i, j, k, move) < -EPSILON) {
+                                return true;
+                            }
+                        }
+                    }
+                }
+            }
         }
+        return false;
+    }
+
+    private static int nextPosition(int position, int n) {
+        return position + 1 == n ? 0 : position + 1;
+    }
+
+    private static int previousPosition(int position, int n) {
+        return position == 0 ? n - 1 : position - 1;
+    }
+
+    /**
+     * Finds the best reconnection after removing the edges leaving positions i < j < k and
+     * stores it in {@code move}. Returns its length change, or 0 when none improves.
+     */
+    static double evaluate(Tour tour, DistanceProvider distances, int i, int j, int k, Move move) {
+        int n = tour.size();
+        int a = tour.get(i);
+        int b = tour.get(i + 1);
+        int c = tour.get(j);
+        int d = tour.get(j + 1);
+        int e = tour.get(k);
+        int f = tour.get(nextPosition(k, n));
+
+        double ab = distances.distance(a, b);
+        double cd = distances.distance(c, d);
+        double ef = distances.distance(e, f);
+        double removed = ab + cd + ef;
+
+        double ac = distances.distance(a, c);
+        double bd = distances.distance(b, d);
+        double ce = distances.distance(c, e);
+        double df = distances.distance(d, f);
+        double ae = distances.distance(a, e);
+        double bf = distances.distance(b, f);
+        double be = distances.distance(b, e);
+        double ad = distances.distance(a, d);
+        double cf = distances.distance(c, f);
 
-        // Add the reversed part between j+1 and k
-        for (int index = k; index > j; index--) {
-            newTour.add(tour.get(index));
+        int bestKind = NONE;
+        double best = 0.0;
+        double delta = ac + bd + ef - removed;
+        if (delta < best) {
+            best = delta;
+            bestKind = TWO_OPT_AB_CD;
+        }
+        delta = ab + ce + df - removed;
+        if (delta < best) {
+            best = delta;
+            bestKind = TWO_OPT_CD_EF;
+        }
+        delta = ae + cd + bf - removed;
+        if (delta < best) {
+            best = delta;
+            bestKind = TWO_OPT_AB_EF;
+        }
+        delta = ac + be + df - removed;
+        if (delta < best) {
+            best = delta;
+            bestKind = REVERSE_BOTH;
         }
+        delta = ad + be + cf - removed;
+        if (delta < best) {
+            best = delta;
+            bestKind = SWAP_SEGMENTS;
+        }
+        delta = ad + ce + bf - removed;
+        if (delta < best) {
+            best = delta;
+            bestKind = SWAP_REVERSE_FIRST;
+        }
+        delta = ae + bd + cf - removed;
+        if (delta < best) {
+            best = delta;
+            bestKind = SWAP_REVERSE_SECOND;
+        }
+        move.kind = bestKind;
+        move.delta = best;
+        move.a = a;
+        move.b = b;
+        move.c = c;
+        move.d = d;
+        move.e = e;
+        move.f = f;
+        return best;
+    }
 
-        // Add the unchanged part between k+1 and the end
-        for (int index = k + 1; index < tour.size(); index++) {
-            newTour.add(tour.get(index));
+    /**
+     * Applies the move as edge-based 2-opt moves. The starting tour is a b..c d..e f, with all
+     * three removed edges traversed in the same direction.
+     */
+    static void apply(Tour tour, Move move) {
+        int a = move.a, b = move.b, c = move.c, d = move.d, e = move.e, f = move.f;
+        switch (move.kind) {
+            case TWO_OPT_AB_CD:
+                tour.twoOptMove(a, b, c, d);
+                break;
+            case TWO_OPT_CD_EF:
+                tour.twoOptMove(c, d, e, f);
+                break;
+            case TWO_OPT_AB_EF:
+                tour.twoOptMove(a, b, e, f);
+                break;
+            case REVERSE_BOTH:
+                // a c..b d..e f  ->  a c..b e..d f
+                tour.twoOptMove(a, b, c, d);
+                tour.twoOptMove(b, d, e, f);
+                break;
+            case SWAP_REVERSE_SECOND:
+                // a e..d c..b f  ->  a e..d b..c f
+                tour.twoOptMove(a, b, e, f);
+                tour.twoOptMove(d, c, b, f);
+                break;
+            case SWAP_REVERSE_FIRST:
+                // a e..d c..b f  ->  a d..e c..b f
+                tour.twoOptMove(a, b, e, f);
+                tour.twoOptMove(a, e, d, c);
+                break;
+            case SWAP_SEGMENTS:
+                // a e..d c..b f  ->  a d..e c..b f  ->  a d..e b..c f
+                tour.twoOptMove(a, b, e, f);
+                tour.twoOptMove(a, e, d, c);
+                tour.twoOptMove(e, c, b, f);
+                break;
+            default:
+                break;
         }
+    }
 
-        return newTour;
+    static final class Move {
+        int kind;
+        double delta;
+        int a, b, c, d, e, f;
     }
 }
-
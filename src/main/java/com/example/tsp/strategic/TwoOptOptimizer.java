@@ -1,40 +1,162 @@
 package com.example.tsp.strategic;
 
 import com.example.tsp.model.City;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceMatrix;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.model.SearchControl;
+import com.example.tsp.model.Tour;
+import com.example.tsp.model.TourOptimizer;
+import com.example.tsp.spatial.NeighborSearch;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
-public class TwoOptOptimizer {
+public class TwoOptOptimizer implements TourOptimizer {
+    // From this many cities on, the full O(n^2) sweep is replaced by the neighbor-list search
+    public static final int NEIGHBOR_LIST_THRESHOLD = 1_000;
+
+    private static final double EPSILON = 1e-9;
+    // The neighbor-list search checks its control once every CHECK_MASK + 1 cities
+    private static final int CHECK_MASK = 0xFF;
+
+    private final NeighborLists neighbors;
+
+    public TwoOptOptimizer() {
+        this(null);
+    }
+
+    /**
+     * Searches only the given candidate edges, or runs the full sweep when {@code neighbors} is null.
+     */
+    public TwoOptOptimizer(NeighborLists neighbors) {
+        this.neighbors = neighbors;
+    }
+
+    @Override
+    public int[] optimizeTour(int[] tour, DistanceProvider distances, SearchControl control) {
+        return neighbors == null ? optimize(tour, distances, control) : optimize(tour, distances, neighbors, control);
+    }
 
     public static List<City> optimize(List<City> tour) {
         if(tour.size() < 2) return new ArrayList<>();
+        CitySet cities = CitySet.of(tour);
+        int[] order = cities.identityTour();
+        if (order.length >= NEIGHBOR_LIST_THRESHOLD) {
+            optimize(order, DistanceMatrix.cache(cities), NeighborSearch.build(cities, NeighborLists.DEFAULT_K));
+        } else {
+            optimize(order, DistanceMatrix.cache(cities));
+        }
+        return cities.toCities(order, CitySet.isClosed(tour));
+    }
+
+    public static int[] optimize(int[] tour, DistanceProvider distances) {
+        return optimize(tour, distances, new SearchControl());
+    }
+
+    public static int[] optimize(int[] tour, DistanceProvider distances, SearchControl control) {
+        int n = tour.length;
+        if (n < 4) return tour;
+        Tour current = new Tour(tour);
         boolean improved = true;
 
         while (improved) {
             improved = false;
 
-            for (int i = 0; i < tour.size() - 2; i++) {
-                for (int j = i + 2; j < tour.size() - 1; j++) {
-                    double oldDistance = tour.get(i).distanceTo(tour.get(i + 1)) + tour.get(j).distanceTo(tour.get(j + 1));
-                    double newDistance = tour.get(i).distanceTo(tour.get(j)) + tour.get(i + 1).distanceTo(tour.get(j + 1));
+            // Once the control says stop, the pass ends without an improvement and so does the search
+            for (int i = 0; i < n - 2 && !control.shouldStop(); i++) {
+                for (int j = i + 2; j < n; j++) {
+                    int a = current.get(i);
+                    int b = current.next(a);
+                    int c = current.get(j);
+                    int d = current.next(c);
+                    double oldDistance = distances.distance(a, b) + distances.distance(c, d);
+                    double newDistance = distances.distance(a, c) + distances.distance(b, d);
 
-                    if (newDistance < oldDistance) {
-                        reverseSubList(tour, i + 1, j);
+                    if (newDistance < oldDistance - EPSILON) {
+                        // Reverses whichever of the two sides between the edges is shorter
+                        current.twoOptMove(a, b, c, d);
                         improved = true;
+                        control.offer(current, distances);
+                    }
+                }
+            }
+        }
+        current.copyTo(tour);
+        return tour;
+    }
+
+    /**
+     * 2-opt restricted to candidate edges: for each city only its k nearest neighbours are tried
+     * as new endpoints. Cities whose surroundings did not change are skipped via don't-look bits,
+     * kept here as a work queue of cities that still need to be examined.
+     */
+    public static int[] optimize(int[] tour, DistanceProvider distances, NeighborLists neighbors) {
+        return optimize(tour, distances, neighbors, new SearchControl());
+    }
+
+    public static int[] optimize(int[] tour, DistanceProvider distances, NeighborLists neighbors, SearchControl control) {
+        int n = tour.length;
+        if (n < 4) return tour;
+        Tour current = new Tour(tour);
+        // Circular queue of cities whose don't-look bit is off; each city is queued at most once
+        int[] queue = tour.clone();
+        int head = 0;
+        int queuedCount = n;
+        boolean[] queued = new boolean[distances.size()];
+        for (int city : tour) {
+            queued[city] = true;
+        }
+
+        for (int examined = 0; queuedCount > 0; examined++) {
+            if ((examined & CHECK_MASK) == 0 && control.shouldStop()) {
+                break;
+            }
+            int a = queue[head];
+            head = (head + 1) % n;
+            queuedCount--;
+            queued[a] = false;
+            int[] touched = improveCity(current, distances, neighbors, a);
+            if (touched != null) {
+                control.offer(current, distances);
+                for (int city : touched) {
+                    if (!queued[city]) {
+                        queue[(head + queuedCount) % n] = city;
+                        queuedCount++;
+                        queued[city] = true;
                     }
                 }
             }
         }
+        current.copyTo(tour);
         return tour;
     }
 
-    private static void reverseSubList(List<City> list, int start, int end) {
-        while (start < end) {
-            Collections.swap(list, start, end);
-            start++;
-            end--;
+    private static int[] improveCity(Tour tour, DistanceProvider distances, NeighborLists neighbors, int a) {
+        for (int direction = 0; direction < 2; direction++) {
+            boolean forward = direction == 0;
+            int b = forward ? tour.next(a) : tour.prev(a);
+            double removed = distances.distance(a, b);
+
+            for (int rank = 0; rank < neighbors.getK(); rank++) {
+                int c = neighbors.get(a, rank);
+                double added = distances.distance(a, c);
+                // Neighbours are sorted, so no later candidate can yield a gain either
+                if (added >= removed) {
+                    break;
+                }
+                int d = forward ? tour.next(c) : tour.prev(c);
+                if (c == b || d == a) {
+                    continue;
+                }
+                double delta = added + distances.distance(b, d) - removed - distances.distance(c, d);
+                if (delta < -EPSILON) {
+                    tour.twoOptMove(a, b, c, d);
+                    return new int[]{a, b, c, d};
+                }
+            }
         }
+        return null;
     }
 }
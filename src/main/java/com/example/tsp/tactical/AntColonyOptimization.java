@@ -1,151 +1,524 @@
 package com.example.tsp.tactical;
 
 import com.example.tsp.model.City;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceMatrix;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.model.SearchControl;
+import com.example.tsp.model.TourOptimizer;
+import com.example.tsp.spatial.NeighborSearch;
+import com.example.tsp.strategic.TwoOptOptimizer;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
-public class AntColonyOptimization {
+/**
+ * Ant colony optimization. Ants only choose among each city's candidate neighbours, so trails,
+ * and the choice info tau^alpha * eta^beta built from them, are kept for candidate edges alone
+ * in flat n*k tables and the choice info is refreshed once per iteration; building a tour needs
+ * no Math.pow. Every other edge shares one level that evaporates and is clamped like the rest but
+ * never gets a deposit, since no ant reads it. When every candidate has been visited the ant moves
+ * to the nearest unvisited city instead.
+ * <p>
+ * An instance owns a worker pool that is reused across iterations and runs; the static methods
+ * share one pool for the whole application. Each worker keeps its own random generator and
+ * scratch arrays, and pheromone updates are split by row so no two threads write the same entry.
+ */
+public class AntColonyOptimization implements AutoCloseable {
+    public static final int DEFAULT_CANDIDATES = 20;
+
+    public enum Variant {
+        /** Every ant deposits, no pheromone bounds. */
+        ANT_SYSTEM,
+        /** Max-Min Ant System: only the iteration's best ant deposits, trails are kept within [tauMin, tauMax]. */
+        MAX_MIN,
+        /** Ant Colony System: greedy-biased choices, local pheromone decay while ants walk, best-so-far update only. */
+        ANT_COLONY_SYSTEM
+    }
+
+    // MMAS: probability that an ant exactly rebuilds the best tour once the colony has converged
+    private static final double MMAS_P_BEST = 0.05;
+    // ACS: probability of taking the best candidate instead of sampling, and the local decay rate
+    private static final double ACS_Q0 = 0.9;
+    private static final double ACS_XI = 0.1;
+
+    private static AntColonyOptimization shared;
+
+    private final int threads;
+    private final ExecutorService executor;
+
+    public AntColonyOptimization() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public AntColonyOptimization(int threads) {
+        this.threads = Math.max(1, threads);
+        this.executor = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable, "ant-colony-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static synchronized AntColonyOptimization shared() {
+        if (shared == null) {
+            shared = new AntColonyOptimization();
+        }
+        return shared;
+    }
 
     public static List<City> optimize(List<City> initialTour, int numAnts, int numIterations, double alpha, double beta, double evaporationRate) {
-        Map<Integer, Integer> cityIndices = new HashMap<>();
-        for (int i = 0; i < initialTour.size(); i++) {
-            cityIndices.put(initialTour.get(i).getId(), i);
+        if (initialTour.size() < 2) {
+            return new ArrayList<>(initialTour);
         }
+        CitySet cities = CitySet.of(initialTour);
+        int[] bestTour = shared().solve(cities.identityTour(), DistanceMatrix.cache(cities), NeighborSearch.build(cities, DEFAULT_CANDIDATES),
+                Variant.ANT_SYSTEM, false, numAnts, numIterations, alpha, beta, evaporationRate);
+        return cities.toCities(bestTour, CitySet.isClosed(initialTour));
+    }
 
-        double[][] pheromoneLevels = initializePheromoneLevels(initialTour.size());
-        double[][] distances = calculateDistances(initialTour);
+    public static int[] optimize(int[] initialTour, DistanceProvider distanceProvider, int numAnts, int numIterations, double alpha, double beta, double evaporationRate) {
+        return optimize(initialTour, distanceProvider, Variant.ANT_SYSTEM, false, numAnts, numIterations, alpha, beta, evaporationRate);
+    }
 
-        List<City> bestTour = new ArrayList<>(initialTour);
-        double bestTourDistance = calculateTourDistance(initialTour);
+    public static int[] optimize(int[] initialTour, DistanceProvider distanceProvider, Variant variant, boolean localSearch,
+                                 int numAnts, int numIterations, double alpha, double beta, double evaporationRate) {
+        return shared().solve(initialTour, distanceProvider, variant, localSearch, numAnts, numIterations, alpha, beta, evaporationRate);
+    }
 
-        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    public static int[] optimize(int[] initialTour, DistanceProvider distanceProvider, NeighborLists candidates, Variant variant, boolean localSearch,
+                                 int numAnts, int numIterations, double alpha, double beta, double evaporationRate, SearchControl control) {
+        return shared().solve(initialTour, distanceProvider, candidates, variant, localSearch, numAnts, numIterations, alpha, beta, evaporationRate, control);
+    }
 
-        for (int iteration = 0; iteration < numIterations; iteration++) {
-            List<Future<List<City>>> antTourFutures = new ArrayList<>();
+    /**
+     * These settings as an anytime optimizer on the shared pool. With {@link Integer#MAX_VALUE}
+     * iterations it runs until its control stops it.
+     */
+    public static TourOptimizer optimizer(Variant variant, boolean localSearch, int numAnts, int numIterations,
+                                          double alpha, double beta, double evaporationRate) {
+        return (tour, distanceProvider, control) -> {
+            DistanceProvider distances = DistanceMatrix.cache(distanceProvider);
+            return shared().solve(tour, distances, NeighborSearch.build(distances, DEFAULT_CANDIDATES), variant, localSearch,
+                    numAnts, numIterations, alpha, beta, evaporationRate, control);
+        };
+    }
 
-            for (int i = 0; i < numAnts; i++) {
-                Callable<List<City>> callable = () -> constructAntTour(initialTour, distances, pheromoneLevels, alpha, beta, cityIndices);
-                Future<List<City>> future = executor.submit(callable);
-                antTourFutures.add(future);
-            }
+    public int[] solve(int[] initialTour, DistanceProvider distanceProvider, Variant variant, boolean localSearch,
+                       int numAnts, int numIterations, double alpha, double beta, double evaporationRate) {
+        DistanceProvider distances = DistanceMatrix.cache(distanceProvider);
+        return solve(initialTour, distances, NeighborSearch.build(distances, DEFAULT_CANDIDATES), variant, localSearch,
+                numAnts, numIterations, alpha, beta, evaporationRate);
+    }
 
-            List<List<City>> antTours = new ArrayList<>();
-            for (Future<List<City>> future : antTourFutures) {
-                try {
-                    List<City> antTour = future.get();
-                    antTours.add(antTour);
-                    double antTourDistance = calculateTourDistance(antTour);
+    public int[] solve(int[] initialTour, DistanceProvider distanceProvider, NeighborLists candidates, Variant variant, boolean localSearch,
+                       int numAnts, int numIterations, double alpha, double beta, double evaporationRate) {
+        return solve(initialTour, distanceProvider, candidates, variant, localSearch, numAnts, numIterations, alpha, beta, evaporationRate,
+                new SearchControl());
+    }
 
-                    if (antTourDistance < bestTourDistance) {
-                        bestTour = new ArrayList<>(antTour);
-                        bestTourDistance = antTourDistance;
-                    }
-                } catch (InterruptedException | ExecutionException e) {
-                    e.printStackTrace();
+    /**
+     * Runs the given variant. With {@code localSearch} the best ant of every iteration is improved
+     * with candidate-list 2-opt before it updates the pheromone. The control is checked once per
+     * iteration and gets every new best tour that is due for a report.
+     */
+    public int[] solve(int[] initialTour, DistanceProvider distanceProvider, NeighborLists candidates, Variant variant, boolean localSearch,
+                       int numAnts, int numIterations, double alpha, double beta, double evaporationRate, SearchControl control) {
+        if (initialTour.length < 3 || numAnts < 1) {
+            return initialTour.clone();
+        }
+        DistanceProvider distances = DistanceMatrix.cache(distanceProvider);
+        Colony colony = new Colony(distances, candidates, variant, alpha, beta, evaporationRate, initialTour, numAnts);
+
+        int[] bestTour = initialTour.clone();
+        double bestTourDistance = distances.tourLength(initialTour);
+        colony.initializePheromoneLevels(bestTourDistance);
+
+        // One task per worker; each pulls ant indices until the iteration's ants are all built
+        AtomicInteger nextAnt = new AtomicInteger();
+        SplittableRandom seeds = new SplittableRandom();
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int w = 0; w < Math.min(threads, numAnts); w++) {
+            Colony.Worker worker = colony.new Worker(seeds.split());
+            workers.add(() -> {
+                for (int ant = nextAnt.getAndIncrement(); ant < numAnts; ant = nextAnt.getAndIncrement()) {
+                    worker.constructAntTour(ant);
+                }
+                return null;
+            });
+        }
+
+        for (int iteration = 0; iteration < numIterations && !control.shouldStop(); iteration++) {
+            colony.updateChoiceInfo();
+            nextAnt.set(0);
+            try {
+                for (Future<Void> future : executor.invokeAll(workers)) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Ant construction failed", e.getCause());
+            }
+
+            int iterationBest = 0;
+            for (int ant = 1; ant < numAnts; ant++) {
+                if (colony.lengths[ant] < colony.lengths[iterationBest]) {
+                    iterationBest = ant;
+                }
+            }
+            if (localSearch) {
+                colony.improve(iterationBest);
+            }
+            if (colony.lengths[iterationBest] < bestTourDistance) {
+                bestTour = colony.tours[iterationBest].clone();
+                bestTourDistance = colony.lengths[iterationBest];
+                colony.bestTourImproved(bestTourDistance);
+                if (control.wantsReport()) {
+                    control.report(bestTour.clone(), bestTourDistance);
                 }
             }
 
-            updatePheromoneLevels(pheromoneLevels, antTours, evaporationRate, cityIndices);
+            switch (variant) {
+                case MAX_MIN:
+                    colony.evaporate();
+                    colony.deposit(colony.tours[iterationBest], colony.lengths[iterationBest]);
+                    colony.clamp();
+                    break;
+                case ANT_COLONY_SYSTEM:
+                    colony.reinforce(bestTour, bestTourDistance);
+                    break;
+                default:
+                    colony.evaporateAndDepositAll();
+                    break;
+            }
         }
 
-        executor.shutdown();
+        control.report(bestTour.clone(), bestTourDistance);
         return bestTour;
     }
 
-    private static double[][] initializePheromoneLevels(int numCities) {
-        double[][] pheromoneLevels = new double[numCities][numCities];
-        for (int i = 0; i < numCities; i++) {
-            for (int j = 0; j < numCities; j++) {
-                pheromoneLevels[i][j] = 1.0;
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Pheromone and choice-info tables shared by the ants of one run, plus the ants' tours.
+     */
+    private static final class Colony {
+        private final DistanceProvider distances;
+        private final NeighborLists candidates;
+        private final Variant variant;
+        private final int n;
+        private final int k;
+        private final double alpha;
+        private final double evaporationRate;
+        private final int[] cities;
+
+        // Trail on the edge from city i to its r-th candidate at i * k + r, and on every other edge
+        private final double[] pheromoneLevels;
+        private double otherLevel;
+        private final double[] heuristic;
+        private final double[] choiceInfo;
+        private double tauMin;
+        private double tauMax;
+        private double tau0;
+
+        // Reused every iteration: each ant's tour, where each city sits in it (-1 if absent), and its length
+        final int[][] tours;
+        final int[][] positions;
+        final double[] lengths;
+
+        Colony(DistanceProvider distances, NeighborLists candidates, Variant variant, double alpha, double beta, double evaporationRate,
+               int[] cities, int numAnts) {
+            this.distances = distances;
+            this.candidates = candidates;
+            this.variant = variant;
+            this.n = distances.size();
+            this.k = candidates.getK();
+            // ACS reads the trails directly while they change, so it always uses alpha = 1
+            this.alpha = variant == Variant.ANT_COLONY_SYSTEM ? 1.0 : alpha;
+            this.evaporationRate = evaporationRate;
+            this.cities = cities;
+            this.pheromoneLevels = new double[n * k];
+            this.heuristic = heuristicLevels(beta);
+            this.choiceInfo = new double[heuristic.length];
+            this.tours = new int[numAnts][cities.length];
+            this.positions = new int[numAnts][n];
+            for (int[] position : positions) {
+                Arrays.fill(position, -1);
             }
+            this.lengths = new double[numAnts];
         }
-        return pheromoneLevels;
-    }
 
-    private static double[][] calculateDistances(List<City> cities) {
-        int numCities = cities.size();
-        double[][] distances = new double[numCities][numCities];
-        for (int i = 0; i < numCities; i++) {
-            for (int j = 0; j < numCities; j++) {
-                distances[i][j] = cities.get(i).distanceTo(cities.get(j));
+        // eta^beta for every candidate edge, computed once; coincident cities get a large but finite value
+        private double[] heuristicLevels(double beta) {
+            double[] levels = new double[n * k];
+            IntStream.range(0, n).parallel().forEach(i -> {
+                for (int r = 0; r < k; r++) {
+                    levels[i * k + r] = Math.pow(1 / Math.max(distances.distance(i, candidates.get(i, r)), 1e-9), beta);
+                }
+            });
+            return levels;
+        }
+
+        void initializePheromoneLevels(double tourLength) {
+            switch (variant) {
+                case MAX_MIN:
+                    bestTourImproved(tourLength);
+                    otherLevel = tauMax;
+                    break;
+                case ANT_COLONY_SYSTEM:
+                    tau0 = 1 / (n * tourLength);
+                    otherLevel = tau0;
+                    break;
+                default:
+                    otherLevel = 1.0;
+                    break;
             }
+            Arrays.fill(pheromoneLevels, otherLevel);
         }
-        return distances;
-    }
 
-    private static List<City> constructAntTour(List<City> cities, double[][] distances, double[][] pheromoneLevels, double alpha, double beta, Map<Integer, Integer> cityIndices) {
-        List<City> tour = new ArrayList<>();
-        List<City> remainingCities = new ArrayList<>(cities);
-
-        City startCity = remainingCities.remove(0);
-        tour.add(startCity);
-        City currentCity = startCity;
-
-        Random random = new Random();
-        while (!remainingCities.isEmpty()) {
-            double totalProbability = 0;
-            for (City city : remainingCities) {
-                int i = cityIndices.get(currentCity.getId());
-                int j = cityIndices.get(city.getId());
-                totalProbability += Math.pow(pheromoneLevels[i][j], alpha) * Math.pow(1 / distances[i][j], beta);
-            }
-
-            double selectionValue = random.nextDouble() * totalProbability;
-            double accumulatedProbability = 0;
-            City nextCity = null;
-            Iterator<City> iterator = remainingCities.iterator();
-            while (iterator.hasNext() && nextCity == null) {
-                City city = iterator.next();
-                int i = cityIndices.get(currentCity.getId());
-                int j = cityIndices.get(city.getId());
-                accumulatedProbability += Math.pow(pheromoneLevels[i][j], alpha) * Math.pow(1 / distances[i][j], beta);
-                if (accumulatedProbability >= selectionValue) {
-                    nextCity = city;
-                    iterator.remove();
+        void bestTourImproved(double tourLength) {
+            if (variant != Variant.MAX_MIN) {
+                return;
+            }
+            tauMax = 1 / (evaporationRate * tourLength);
+            double root = Math.pow(MMAS_P_BEST, 1.0 / n);
+            tauMin = Math.min(tauMax, tauMax * (1 - root) / (Math.max(n / 2.0 - 1, 1) * root));
+        }
+
+        void updateChoiceInfo() {
+            if (variant == Variant.ANT_COLONY_SYSTEM) {
+                return;
+            }
+            boolean linear = alpha == 1.0;
+            IntStream.range(0, n).parallel().forEach(i -> {
+                for (int r = 0; r < k; r++) {
+                    double tau = pheromoneLevels[i * k + r];
+                    choiceInfo[i * k + r] = (linear ? tau : Math.pow(tau, alpha)) * heuristic[i * k + r];
                 }
+            });
+        }
+
+        private double weight(int city, int rank) {
+            if (variant == Variant.ANT_COLONY_SYSTEM) {
+                return pheromoneLevels[city * k + rank] * heuristic[city * k + rank];
             }
+            return choiceInfo[city * k + rank];
+        }
 
-            tour.add(nextCity);
-            currentCity = nextCity;
+        void improve(int ant) {
+            int[] tour = tours[ant];
+            TwoOptOptimizer.optimize(tour, distances, candidates);
+            for (int i = 0; i < tour.length; i++) {
+                positions[ant][tour[i]] = i;
+            }
+            lengths[ant] = distances.tourLength(tour);
         }
 
-        tour.add(startCity);
-        return tour;
-    }
+        // Where the trail from one city to another is kept, or -1 if the other city is not one of its candidates
+        private int slot(int from, int to) {
+            for (int r = 0; r < k; r++) {
+                if (candidates.get(from, r) == to) {
+                    return from * k + r;
+                }
+            }
+            return -1;
+        }
 
-    private static void updatePheromoneLevels(double[][] pheromoneLevels, List<List<City>> antTours, double evaporationRate, Map<Integer, Integer> cityIndices) {
-        int numCities = pheromoneLevels.length;
+        private double level(int from, int to) {
+            int slot = slot(from, to);
+            if (slot < 0) {
+                slot = slot(to, from);
+            }
+            return slot < 0 ? otherLevel : pheromoneLevels[slot];
+        }
 
-        // Evaporate pheromones
-        for (int i = 0; i < numCities; i++) {
-            for (int j = 0; j < numCities; j++) {
-                pheromoneLevels[i][j] *= (1 - evaporationRate);
+        // The edge is stored once for each end that has the other as a candidate
+        private void setLevel(int from, int to, double level) {
+            int slot = slot(from, to);
+            if (slot >= 0) {
+                pheromoneLevels[slot] = level;
+            }
+            slot = slot(to, from);
+            if (slot >= 0) {
+                pheromoneLevels[slot] = level;
             }
         }
 
-        // Add new pheromones
-        for (List<City> tour : antTours) {
-            double tourDistance = calculateTourDistance(tour);
+        // ACS local update. Ants walk concurrently, so an occasional lost update is accepted rather than locking
+        private void decay(int from, int to) {
+            setLevel(from, to, (1 - ACS_XI) * level(from, to) + ACS_XI * tau0);
+        }
 
-            for (int i = 0; i < tour.size() - 1; i++) {
-                City city1 = tour.get(i);
-                City city2 = tour.get(i + 1);
+        void evaporate() {
+            double keep = 1 - evaporationRate;
+            IntStream.range(0, n).parallel().forEach(i -> {
+                for (int j = i * k; j < (i + 1) * k; j++) {
+                    pheromoneLevels[j] *= keep;
+                }
+            });
+            otherLevel *= keep;
+        }
 
-                int id1 = cityIndices.get(city1.getId());
-                int id2 = cityIndices.get(city2.getId());
+        /**
+         * Ant System update. Each city's row of candidate trails is owned by one thread, which
+         * evaporates it and then adds every ant's deposit on the two tour edges at that city, found
+         * through the ant's position index. No locks and no per-thread copies of the table are needed.
+         */
+        void evaporateAndDepositAll() {
+            double keep = 1 - evaporationRate;
+            otherLevel *= keep;
+            IntStream.range(0, n).parallel().forEach(city -> {
+                int row = city * k;
+                for (int j = row; j < row + k; j++) {
+                    pheromoneLevels[j] *= keep;
+                }
+                for (int ant = 0; ant < tours.length; ant++) {
+                    int position = positions[ant][city];
+                    if (position < 0) {
+                        continue;
+                    }
+                    int[] tour = tours[ant];
+                    double amount = 1 / lengths[ant];
+                    addToRow(city, tour[position == 0 ? tour.length - 1 : position - 1], amount);
+                    addToRow(city, tour[position + 1 == tour.length ? 0 : position + 1], amount);
+                }
+            });
+        }
 
-                pheromoneLevels[id1][id2] += 1 / tourDistance;
-                pheromoneLevels[id2][id1] += 1 / tourDistance;
+        private void addToRow(int city, int other, double amount) {
+            int slot = slot(city, other);
+            if (slot >= 0) {
+                pheromoneLevels[slot] += amount;
             }
         }
-    }
 
-    private static double calculateTourDistance(List<City> tour) {
-        double totalDistance = 0;
-        for (int i = 0; i < tour.size() - 1; i++) {
-            totalDistance += tour.get(i).distanceTo(tour.get(i + 1));
+        void deposit(int[] tour, double tourLength) {
+            double amount = 1 / tourLength;
+            for (int i = 0; i < tour.length; i++) {
+                int id1 = tour[i];
+                int id2 = tour[(i + 1) % tour.length];
+
+                addToRow(id1, id2, amount);
+                addToRow(id2, id1, amount);
+            }
+        }
+
+        void clamp() {
+            IntStream.range(0, n).parallel().forEach(i -> {
+                for (int j = i * k; j < (i + 1) * k; j++) {
+                    pheromoneLevels[j] = Math.max(tauMin, Math.min(tauMax, pheromoneLevels[j]));
+                }
+            });
+            otherLevel = Math.max(tauMin, Math.min(tauMax, otherLevel));
+        }
+
+        // ACS global update: only the best-so-far tour's edges evaporate and are reinforced
+        void reinforce(int[] tour, double tourLength) {
+            for (int i = 0; i < tour.length; i++) {
+                int id1 = tour[i];
+                int id2 = tour[(i + 1) % tour.length];
+                setLevel(id1, id2, (1 - evaporationRate) * level(id1, id2) + evaporationRate / tourLength);
+            }
+        }
+
+        /**
+         * Builds ant tours on one pool thread, with its own random generator and scratch arrays.
+         */
+        final class Worker {
+            private final SplittableRandom random;
+            // Unvisited cities with swap-remove, and where each one sits in that array
+            private final int[] remainingCities;
+            private final int[] remainingIndex;
+            private final boolean[] visited;
+            private final double[] weights;
+
+            Worker(SplittableRandom random) {
+                this.random = random;
+                this.remainingCities = new int[cities.length];
+                this.remainingIndex = new int[n];
+                this.visited = new boolean[n];
+                this.weights = new double[k];
+            }
+
+            void constructAntTour(int ant) {
+                int[] tour = tours[ant];
+                System.arraycopy(cities, 0, remainingCities, 0, cities.length);
+                // Cities outside the tour count as visited so candidate lists never lead to them
+                Arrays.fill(visited, true);
+                for (int i = 0; i < remainingCities.length; i++) {
+                    remainingIndex[remainingCities[i]] = i;
+                    visited[remainingCities[i]] = false;
+                }
+                int remaining = remainingCities.length;
+
+                int currentCity = remainingCities[random.nextInt(remaining)];
+                int tourSize = 0;
+
+                while (true) {
+                    positions[ant][currentCity] = tourSize;
+                    tour[tourSize++] = currentCity;
+                    visited[currentCity] = true;
+                    int index = remainingIndex[currentCity];
+                    int last = remainingCities[--remaining];
+                    remainingCities[index] = last;
+                    remainingIndex[last] = index;
+                    if (remaining == 0) {
+                        break;
+                    }
+
+                    double totalProbability = 0;
+                    int greedy = -1;
+                    for (int r = 0; r < k; r++) {
+                        weights[r] = visited[candidates.get(currentCity, r)] ? 0.0 : weight(currentCity, r);
+                        totalProbability += weights[r];
+                        if (weights[r] > 0 && (greedy < 0 || weights[r] > weights[greedy])) {
+                            greedy = r;
+                        }
+                    }
+
+                    int nextCity = -1;
+                    if (variant == Variant.ANT_COLONY_SYSTEM && greedy >= 0 && random.nextDouble() < ACS_Q0) {
+                        nextCity = candidates.get(currentCity, greedy);
+                    } else if (totalProbability > 0) {
+                        double selectionValue = random.nextDouble() * totalProbability;
+                        double accumulatedProbability = 0;
+                        for (int r = 0; r < k; r++) {
+                            accumulatedProbability += weights[r];
+                            if (weights[r] > 0 && accumulatedProbability >= selectionValue) {
+                                nextCity = candidates.get(currentCity, r);
+                                break;
+                            }
+                        }
+                    }
+                    if (nextCity < 0) {
+                        double nearest = Double.POSITIVE_INFINITY;
+                        for (int r = 0; r < remaining; r++) {
+                            int j = remainingCities[r];
+                            double distance = distances.distance(currentCity, j);
+                            if (distance < nearest) {
+                                nearest = distance;
+                                nextCity = j;
+                            }
+                        }
+                    }
+                    if (variant == Variant.ANT_COLONY_SYSTEM) {
+                        decay(currentCity, nextCity);
+                    }
+                    currentCity = nextCity;
+                }
+                if (variant == Variant.ANT_COLONY_SYSTEM) {
+                    decay(tour[tour.length - 1], tour[0]);
+                }
+                lengths[ant] = distances.tourLength(tour);
+            }
         }
-        return totalDistance;
     }
 }
@@ -1,98 +1,62 @@
 package com.example.tsp.tactical;
 
 import com.example.tsp.model.City;
-import com.example.tsp.model.Edge;
-import org.jgrapht.Graph;
-import org.jgrapht.alg.matching.blossom.v5.KolmogorovMinimumWeightPerfectMatching;
-import org.jgrapht.graph.DefaultWeightedEdge;
-import org.jgrapht.graph.SimpleWeightedGraph;
+import com.example.tsp.model.CitySet;
 
 import java.util.*;
 
 public class ChristofidesTSP {
+    // Start positions tried when shortcutting the Eulerian circuit
+    public static final int SHORTCUT_STARTS = 8;
 
     public static double totalWeight = 0.0;
 
     public static List<City> optimize(List<City> cities) {
+        return optimize(cities, PerfectMatching.Mode.AUTO);
+    }
+
+    public static List<City> optimize(List<City> cities, PerfectMatching.Mode matchingMode) {
         if (cities.size() < 2) {
             return new ArrayList<>();
         }
+        CitySet citySet = CitySet.of(cities);
+        // Return the list of cities in the order they appear in the Hamiltonian cycle
+        return citySet.toCities(optimize(citySet, matchingMode), true);
+    }
+
+    /**
+     * Returns the Hamiltonian cycle as an open tour over the city indices.
+     */
+    public static int[] optimize(CitySet citySet, PerfectMatching.Mode matchingMode) {
+        if (citySet.size() < 2) {
+            return citySet.identityTour();
+        }
+
         // Step 1: Create a minimum spanning tree (MST) for the given graph (cities).
-        List<Edge> mstEdges = createMinimumSpanningTree(cities);
-        System.out.println("MST: " + mstEdges.size());
+        MinimumSpanningTree tree = createMinimumSpanningTree(citySet);
 
         // Step 2: Find the set of vertices (cities) with odd degrees in the MST.
-        List<City> oddDegreeVertices = findOddDegreeVertices(cities, mstEdges);
-        System.out.println("Odd degree vertices: " + oddDegreeVertices.size());
+        int[] oddDegreeVertices = findOddDegreeVertices(citySet.size(), tree);
 
         // Step 3: Find the minimum-weight perfect matching (MWPM) of the odd-degree vertices.
-        List<Edge> mwpmEdges = findMinimumWeightPerfectMatching(oddDegreeVertices);
-        System.out.println("MWPM: " + mwpmEdges.size());
+        int[] matching = PerfectMatching.match(citySet, oddDegreeVertices, matchingMode);
 
         // Step 4: Combine the edges of the MST and the MWPM to form a multigraph.
-        List<Edge> combinedEdges = combineMSTAndMWPM(mstEdges, mwpmEdges);
-        System.out.println("Combined edges: " + combinedEdges.size());
+        int[][] combinedEdges = combineMSTAndMWPM(citySet, tree, matching);
 
         // Step 5: Find an Eulerian circuit (a closed loop visiting every edge exactly once) in the multigraph.
-        List<City> eulerianCircuit = findEulerianCircuit(combinedEdges);
-        System.out.println("Eulerian circuit: " + eulerianCircuit.size());
-
+        int[] eulerianCircuit = findEulerianCircuit(citySet.size(), combinedEdges[0], combinedEdges[1]);
 
         // Step 6: Convert the Eulerian circuit into a Hamiltonian cycle (a closed loop visiting every vertex exactly once) by skipping visited vertices.
-        List<City> hamiltonianCycle = convertEulerianToHamiltonian(eulerianCircuit);
-        System.out.println("Hamiltonian cycle: " + hamiltonianCycle.size());
+        int[] hamiltonianCycle = convertEulerianToHamiltonian(citySet, eulerianCircuit, SHORTCUT_STARTS);
 
-        // Return the list of cities in the order they appear in the Hamiltonian cycle
         return hamiltonianCycle;
     }
 
-    private static City findParent(City city, Map<City, City> parentMap) {
-        if (!parentMap.get(city).equals(city)) {
-            parentMap.put(city, findParent(parentMap.get(city), parentMap));
-        }
-        return parentMap.get(city);
-    }
-
-    private static List<Edge> createMinimumSpanningTree(List<City> cities) {
-        List<Edge> mstEdges = new ArrayList<>();
-        List<Edge> allEdges = new ArrayList<>();
-        Map<City, City> parentMap = new HashMap<>();
-        totalWeight = 0.0;
-
-        // Create a list of all edges with their weights
-        for (City city1 : cities) {
-            for (City city2 : cities) {
-                if (!city1.equals(city2)) {
-                    double weight = city1.distanceTo(city2);
-                    allEdges.add(new Edge(city1, city2, weight));
-                }
-            }
-        }
-
-        // Sort the edges based on their weights
-        Collections.sort(allEdges);
-
-        // Initialize the parent map
-        for (City city : cities) {
-            parentMap.put(city, city);
-        }
-
-        // Kruskal's algorithm
-        for (Edge edge : allEdges) {
-            City sourceParent = findParent(edge.getSource(), parentMap);
-            City targetParent = findParent(edge.getTarget(), parentMap);
-
-            if (!sourceParent.equals(targetParent)) {
-                mstEdges.add(edge);
-                totalWeight += edge.getWeight();
-                if (mstEdges.size() == cities.size() - 1) {
-                    break;
-                }
-                parentMap.put(sourceParent, targetParent);
-            }
-        }
-        System.out.println("Total weight of the MST: " + totalWeight);
-        return mstEdges;
+    private static MinimumSpanningTree createMinimumSpanningTree(CitySet cities) {
+        MinimumSpanningTree tree = MinimumSpanningTree.build(cities);
+        totalWeight = tree.getTotalWeight();
+        return tree;
     }
 
     public static double calculateSolutionCost(List<City> cities) {
@@ -105,120 +69,138 @@ public class ChristofidesTSP {
         return cost;
     }
 
-    private static List<City> findOddDegreeVertices(List<City> cities, List<Edge> mstEdges) {
-        Map<City, Integer> degreeMap = new HashMap<>();
-
-        // Initialize the degree map
-        for (City city : cities) {
-            degreeMap.put(city, 0);
-        }
-
-        // Calculate the degree of each vertex
-        for (Edge edge : mstEdges) {
-            degreeMap.put(edge.getSource(), degreeMap.get(edge.getSource()) + 1);
-            degreeMap.put(edge.getTarget(), degreeMap.get(edge.getTarget()) + 1);
-        }
-
-        // Find the vertices with an odd degree
-        List<City> oddDegreeVertices = new ArrayList<>();
-        for (Map.Entry<City, Integer> entry : degreeMap.entrySet()) {
-            if (entry.getValue() % 2 != 0) {
-                oddDegreeVertices.add(entry.getKey());
+    private static int[] findOddDegreeVertices(int cityCount, MinimumSpanningTree tree) {
+        int[] degree = tree.degrees(cityCount);
+        int count = 0;
+        for (int d : degree) {
+            count += d & 1;
+        }
+        int[] oddDegreeVertices = new int[count];
+        int next = 0;
+        for (int city = 0; city < cityCount; city++) {
+            if ((degree[city] & 1) != 0) {
+                oddDegreeVertices[next++] = city;
             }
         }
-
         return oddDegreeVertices;
     }
 
-    private static List<Edge> findMinimumWeightPerfectMatching(List<City> oddDegreeVertices) {
-        Graph<City, DefaultWeightedEdge> graph = new SimpleWeightedGraph<>(DefaultWeightedEdge.class);
-
-        // Add vertices to the graph
-        for (City city : oddDegreeVertices) {
-            graph.addVertex(city);
-        }
-
-        // Add weighted edges to the graph
-        for (City city1 : oddDegreeVertices) {
-            for (City city2 : oddDegreeVertices) {
-                if (!city1.equals(city2)) {
-                    double weight = city1.distanceTo(city2);
-                    DefaultWeightedEdge edge = graph.addEdge(city1, city2);
-                    if(edge != null) {
-                        graph.setEdgeWeight(edge, weight);
-                    }
-                }
-            }
-        }
-
-        // Find the minimum weight perfect matching using the Blossom algorithm
-        KolmogorovMinimumWeightPerfectMatching<City, DefaultWeightedEdge> matchingAlgorithm =
-                new KolmogorovMinimumWeightPerfectMatching<>(graph);
-        Set<DefaultWeightedEdge> matchingEdges = matchingAlgorithm.getMatching().getEdges();
-
-        // Convert the matching edges to a list of Edge objects
-        List<Edge> minimumWeightPerfectMatching = new ArrayList<>();
-        for (DefaultWeightedEdge edge : matchingEdges) {
-            City source = graph.getEdgeSource(edge);
-            City target = graph.getEdgeTarget(edge);
-            double weight = graph.getEdgeWeight(edge);
-            minimumWeightPerfectMatching.add(new Edge(source, target, weight));
-        }
-
-        return minimumWeightPerfectMatching;
-    }
-
-    private static List<Edge> combineMSTAndMWPM(List<Edge> mstEdges, List<Edge> mwpmEdges) {
-        List<Edge> combinedEdges = new ArrayList<>(mstEdges);
-        combinedEdges.addAll(mwpmEdges);
-        return combinedEdges;
+    /**
+     * The multigraph as two parallel endpoint arrays: the MST edges in Kruskal's order (by weight
+     * rounded to a float, lower index first), which the Euler walk follows, then the matching edges.
+     */
+    private static int[][] combineMSTAndMWPM(CitySet cities, MinimumSpanningTree tree, int[] matching) {
+        // One distance per edge, packed above its index: non-negative float bits order like the floats
+        long[] order = new long[tree.size()];
+        for (int e = 0; e < order.length; e++) {
+            float weight = (float) cities.distance(tree.getFrom(e), tree.getTo(e));
+            order[e] = ((long) Float.floatToIntBits(weight) << 32) | e;
+        }
+        Arrays.sort(order);
+
+        int edgeCount = tree.size() + matching.length / 2;
+        int[] from = new int[edgeCount];
+        int[] to = new int[edgeCount];
+        for (int i = 0; i < order.length; i++) {
+            int e = (int) order[i];
+            from[i] = Math.min(tree.getFrom(e), tree.getTo(e));
+            to[i] = Math.max(tree.getFrom(e), tree.getTo(e));
+        }
+        for (int p = 0, i = order.length; p < matching.length; p += 2, i++) {
+            from[i] = matching[p];
+            to[i] = matching[p + 1];
+        }
+        return new int[][]{from, to};
     }
 
-    public static List<City> findEulerianCircuit(List<Edge> combinedEdges) {
-        Map<City, List<Edge>> adjList = new HashMap<>();
-
-        for (Edge edge : combinedEdges) {
-            adjList.computeIfAbsent(edge.getSource(), k -> new ArrayList<>()).add(edge);
-            adjList.computeIfAbsent(edge.getTarget(), k -> new ArrayList<>()).add(edge);
-        }
-
-        List<City> circuit = new ArrayList<>();
-        Deque<City> stack = new ArrayDeque<>();
-        City startCity = combinedEdges.get(0).getSource();
-        stack.push(startCity);
-
-        while (!stack.isEmpty()) {
-            City currentCity = stack.peek();
-            if (adjList.get(currentCity).isEmpty()) {
-                circuit.add(currentCity);
-                stack.pop();
+    /**
+     * Hierholzer's algorithm over compact adjacency arrays: each vertex keeps a cursor into its
+     * incident edges and skips the ones already used from the other end, so every edge is looked
+     * at twice in total. Returns the closed circuit, starting and ending at the first edge's source.
+     */
+    public static int[] findEulerianCircuit(int cityCount, int[] from, int[] to) {
+        int edgeCount = from.length;
+        if (edgeCount == 0) {
+            return new int[0];
+        }
+        int[] offset = new int[cityCount + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            offset[from[e] + 1]++;
+            offset[to[e] + 1]++;
+        }
+        for (int v = 0; v < cityCount; v++) {
+            offset[v + 1] += offset[v];
+        }
+        int[] incident = new int[2 * edgeCount];
+        int[] cursor = Arrays.copyOf(offset, cityCount);
+        for (int e = 0; e < edgeCount; e++) {
+            incident[cursor[from[e]]++] = e;
+            incident[cursor[to[e]]++] = e;
+        }
+        System.arraycopy(offset, 0, cursor, 0, cityCount);
+
+        BitSet used = new BitSet(edgeCount);
+        int[] stack = new int[edgeCount + 1];
+        int[] circuit = new int[edgeCount + 1];
+        int top = 0;
+        int length = 0;
+        stack[top++] = from[0];
+        while (top > 0) {
+            int city = stack[top - 1];
+            int c = cursor[city];
+            while (c < offset[city + 1] && used.get(incident[c])) {
+                c++;
+            }
+            if (c == offset[city + 1]) {
+                cursor[city] = c;
+                circuit[length++] = city;
+                top--;
             } else {
-                Edge nextEdge = adjList.get(currentCity).remove(0);
-                stack.push(nextEdge.getSource() == currentCity ? nextEdge.getTarget() : nextEdge.getSource());
-                adjList.get(nextEdge.getSource() == currentCity ? nextEdge.getTarget() : nextEdge.getSource()).remove(nextEdge);
+                int e = incident[c];
+                cursor[city] = c + 1;
+                used.set(e);
+                stack[top++] = from[e] == city ? to[e] : from[e];
             }
         }
-
         return circuit;
     }
 
-    private static List<City> convertEulerianToHamiltonian(List<City> eulerianCircuit) {
-        List<City> hamiltonianPath = new ArrayList<>();
-        Set<City> visitedCities = new HashSet<>();
-
-        for (City city : eulerianCircuit) {
-            if (visitedCities.add(city)) {
-                hamiltonianPath.add(city);
+    /**
+     * Shortcuts the circuit starting from {@code starts} evenly spaced positions and keeps the
+     * shortest result. Where the walk starts decides which visit of a repeated city is kept, so the
+     * tours differ; position 0 is always tried. Returns an open tour over every city.
+     */
+    public static int[] convertEulerianToHamiltonian(CitySet cities, int[] eulerianCircuit, int starts) {
+        int n = cities.size();
+        // The circuit is closed, so its last entry repeats the first
+        int length = eulerianCircuit.length - 1;
+        boolean[] visited = new boolean[n];
+        int[] tour = new int[n];
+        int[] bestTour = null;
+        double bestCost = Double.POSITIVE_INFINITY;
+        int tries = Math.max(1, Math.min(starts, length));
+        for (int k = 0; k < tries; k++) {
+            int start = (int) ((long) k * length / tries);
+            Arrays.fill(visited, false);
+            int size = 0;
+            double cost = 0.0;
+            for (int i = 0; i < length && size < n; i++) {
+                int city = eulerianCircuit[(start + i) % length];
+                if (!visited[city]) {
+                    visited[city] = true;
+                    if (size > 0) {
+                        cost += cities.distance(tour[size - 1], city);
+                    }
+                    tour[size++] = city;
+                }
+            }
+            cost += cities.distance(tour[size - 1], tour[0]);
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestTour = tour.clone();
             }
         }
-
-        // Connect the last city back to the first city to form a Hamiltonian cycle
-        if (!hamiltonianPath.isEmpty()) {
-            hamiltonianPath.add(hamiltonianPath.get(0));
-        }
-
-        return hamiltonianPath;
+        return bestTour;
     }
 
 }
-
@@ -0,0 +1,248 @@
+package com.example.tsp.tactical;
+
+import com.example.tsp.model.CandidateEdges;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DisjointSet;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.spatial.KdTree;
+import com.example.tsp.spatial.NeighborSearch;
+import com.example.tsp.spatial.SpatialIndex;
+
+import java.util.Arrays;
+
+/**
+ * Minimum spanning tree as two parallel arrays of edge endpoints. Small instances use dense Prim,
+ * which is exact for any distance, needs O(n) memory and never materialises the edge list. Large
+ * instances run Kruskal on the k-nearest-neighbour graph and join any components it leaves with
+ * Boruvka rounds over the cheapest edges between components, found with a {@link KdTree} when
+ * the cities have coordinates.
+ */
+public class MinimumSpanningTree {
+    // Above this many cities the O(n^2) Prim scan gives way to the sparse candidate graph
+    public static final int SPARSE_THRESHOLD = 5_000;
+    public static final int SPARSE_NEIGHBORS = 10;
+
+    private final int[] from;
+    private final int[] to;
+    private final double totalWeight;
+
+    private MinimumSpanningTree(int[] from, int[] to, double totalWeight) {
+        this.from = from;
+        this.to = to;
+        this.totalWeight = totalWeight;
+    }
+
+    public static MinimumSpanningTree build(CitySet cities) {
+        if (cities.size() <= SPARSE_THRESHOLD) {
+            return prim(cities);
+        }
+        return kruskal(cities, NeighborSearch.build(cities, SPARSE_NEIGHBORS));
+    }
+
+    public int size() {
+        return from.length;
+    }
+
+    public int getFrom(int edge) {
+        return from[edge];
+    }
+
+    public int getTo(int edge) {
+        return to[edge];
+    }
+
+    public double getTotalWeight() {
+        return totalWeight;
+    }
+
+    public int[] degrees(int cityCount) {
+        int[] degree = new int[cityCount];
+        for (int e = 0; e < from.length; e++) {
+            degree[from[e]]++;
+            degree[to[e]]++;
+        }
+        return degree;
+    }
+
+    /**
+     * Dense Prim: O(n^2) distance evaluations, O(n) memory. Edges come out in the order their
+     * endpoint joined the tree.
+     */
+    public static MinimumSpanningTree prim(DistanceProvider distances) {
+        int n = distances.size();
+        if (n < 2) {
+            return new MinimumSpanningTree(new int[0], new int[0], 0.0);
+        }
+        double[] key = new double[n];
+        int[] parent = new int[n];
+        boolean[] inTree = new boolean[n];
+        Arrays.fill(key, Double.POSITIVE_INFINITY);
+
+        int[] from = new int[n - 1];
+        int[] to = new int[n - 1];
+        double total = 0.0;
+        int current = 0;
+        inTree[0] = true;
+        for (int added = 0; added < n - 1; added++) {
+            int next = -1;
+            for (int v = 0; v < n; v++) {
+                if (inTree[v]) {
+                    continue;
+                }
+                double d = distances.distance(current, v);
+                if (d < key[v]) {
+                    key[v] = d;
+                    parent[v] = current;
+                }
+                if (next < 0 || key[v] < key[next]) {
+                    next = v;
+                }
+            }
+            inTree[next] = true;
+            from[added] = parent[next];
+            to[added] = next;
+            total += key[next];
+            current = next;
+        }
+        return new MinimumSpanningTree(from, to, total);
+    }
+
+    /**
+     * Kruskal over the candidate edges, followed by Boruvka rounds if the candidate graph is not
+     * connected. Exact whenever the true tree only uses candidate edges, which is the normal case
+     * for k around 10.
+     */
+    public static MinimumSpanningTree kruskal(DistanceProvider distances, NeighborLists neighbors) {
+        int n = distances.size();
+        if (n < 2) {
+            return new MinimumSpanningTree(new int[0], new int[0], 0.0);
+        }
+        CandidateEdges candidates = new CandidateEdges(distances, neighbors);
+
+        int[] from = new int[n - 1];
+        int[] to = new int[n - 1];
+        double total = 0.0;
+        int added = 0;
+        DisjointSet components = new DisjointSet(n);
+        for (int e = 0; e < candidates.size() && added < n - 1; e++) {
+            if (components.union(candidates.getFrom(e), candidates.getTo(e))) {
+                from[added] = candidates.getFrom(e);
+                to[added] = candidates.getTo(e);
+                total += candidates.getWeight(e);
+                added++;
+            }
+        }
+
+        // Clustered cities leave the neighbour graph in pieces; their coordinates make joining them cheap
+        SpatialIndex index = components.getComponents() > 1 && distances instanceof CitySet ? new KdTree((CitySet) distances) : null;
+        while (components.getComponents() > 1) {
+            int before = added;
+            added = joinComponents(distances, index, components, from, to, added);
+            for (int e = before; e < added; e++) {
+                total += distances.distance(from[e], to[e]);
+            }
+        }
+        return new MinimumSpanningTree(from, to, total);
+    }
+
+    /**
+     * One Boruvka round. Components are visited from the smallest up, skipping the largest, and
+     * each adds its cheapest edge to a city outside it. A component that has already been joined
+     * this round by another one's edge is skipped as well, since it no longer needs an edge of its
+     * own, so a round scans at most half of the remaining components. With an index the cheapest
+     * edge comes from nearest-neighbour queries with the component's own cities removed; without
+     * one every city outside the component is scanned.
+     */
+    private static int joinComponents(DistanceProvider distances, SpatialIndex index, DisjointSet components,
+                                      int[] from, int[] to, int added) {
+        int n = distances.size();
+        int[] root = new int[n];
+        int[] componentStart = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            root[v] = components.find(v);
+            componentStart[root[v] + 1]++;
+        }
+        int largest = 0;
+        int componentCount = 0;
+        for (int r = 0; r < n; r++) {
+            if (componentStart[r + 1] > componentStart[largest + 1]) {
+                largest = r;
+            }
+            if (componentStart[r + 1] > 0) {
+                componentCount++;
+            }
+        }
+        // Smaller components first, by size in the high bits and root in the low bits
+        long[] order = new long[componentCount - 1];
+        int next = 0;
+        for (int r = 0; r < n; r++) {
+            if (componentStart[r + 1] > 0 && r != largest) {
+                order[next++] = (long) componentStart[r + 1] << 32 | r;
+            }
+        }
+        Arrays.sort(order);
+
+        // Cities grouped by component
+        for (int r = 0; r < n; r++) {
+            componentStart[r + 1] += componentStart[r];
+        }
+        int[] members = new int[n];
+        int[] fill = Arrays.copyOf(componentStart, n);
+        for (int v = 0; v < n; v++) {
+            members[fill[root[v]]++] = v;
+        }
+
+        boolean[] joined = new boolean[n];
+        for (long key : order) {
+            int r = (int) key;
+            if (joined[r]) {
+                continue;
+            }
+            int bestFrom = -1;
+            int bestTo = -1;
+            double bestWeight = Double.POSITIVE_INFINITY;
+            if (index != null) {
+                for (int m = componentStart[r]; m < componentStart[r + 1]; m++) {
+                    index.remove(members[m]);
+                }
+            }
+            for (int m = componentStart[r]; m < componentStart[r + 1]; m++) {
+                int u = members[m];
+                if (index != null) {
+                    int v = index.nearest(u);
+                    double d = distances.distance(u, v);
+                    if (d < bestWeight) {
+                        bestWeight = d;
+                        bestFrom = u;
+                        bestTo = v;
+                    }
+                } else {
+                    for (int v = 0; v < n; v++) {
+                        if (root[v] != r) {
+                            double d = distances.distance(u, v);
+                            if (d < bestWeight) {
+                                bestWeight = d;
+                                bestFrom = u;
+                                bestTo = v;
+                            }
+                        }
+                    }
+                }
+            }
+            if (index != null) {
+                for (int m = componentStart[r]; m < componentStart[r + 1]; m++) {
+                    index.restore(members[m]);
+                }
+            }
+            // The component was untouched so far this round, so this never closes a cycle
+            components.union(bestFrom, bestTo);
+            from[added] = bestFrom;
+            to[added] = bestTo;
+            added++;
+            joined[r] = true;
+            joined[root[bestTo]] = true;
+        }
+        return added;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.tsp.tactical;
+
+import com.example.tsp.model.City;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceMatrix;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.SearchControl;
+import com.example.tsp.model.TourOptimizer;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel tempering: one annealing chain per temperature on a geometric ladder, all running at
+ * once. After every round of steps, neighbouring rungs may exchange their chains with the usual
+ * Metropolis probability, so good tours found hot drift down to the cold end to be refined while
+ * cold chains stuck in a local minimum get a chance to escape.
+ */
+public class ParallelTemperingOptimizer implements TourOptimizer {
+    public static final int DEFAULT_EXCHANGE_INTERVAL = 10_000;
+
+    private final double minTemperature;
+    private final double maxTemperature;
+    private final int replicas;
+    private final long stepsPerReplica;
+    private final int exchangeInterval;
+    private final long maxExecutionTimeMillis;
+    private final SimulatedAnnealingOptimizer.MoveType[] moves;
+
+    public ParallelTemperingOptimizer(double minTemperature, double maxTemperature, long stepsPerReplica) {
+        this(minTemperature, maxTemperature, Runtime.getRuntime().availableProcessors(), stepsPerReplica,
+                DEFAULT_EXCHANGE_INTERVAL, 0);
+    }
+
+    /**
+     * A non-positive time limit means the chains run for {@code stepsPerReplica} steps.
+     */
+    public ParallelTemperingOptimizer(double minTemperature, double maxTemperature, int replicas, long stepsPerReplica,
+                                      int exchangeInterval, long maxExecutionTimeMillis, SimulatedAnnealingOptimizer.MoveType... moves) {
+        if (replicas < 1) {
+            throw new IllegalArgumentException("At least one replica is needed, got " + replicas);
+        }
+        this.minTemperature = minTemperature;
+        this.maxTemperature = maxTemperature;
+        this.replicas = replicas;
+        this.stepsPerReplica = stepsPerReplica;
+        this.exchangeInterval = Math.max(1, exchangeInterval);
+        this.maxExecutionTimeMillis = maxExecutionTimeMillis;
+        this.moves = moves.length == 0 ? SimulatedAnnealingOptimizer.DEFAULT_MOVES : moves.clone();
+    }
+
+    public List<City> optimizeTour(List<City> initialTour) {
+        if (initialTour.size() < 2) return initialTour;
+        CitySet cities = CitySet.of(initialTour);
+        int[] bestTour = optimizeTour(cities.identityTour(), DistanceMatrix.cache(cities));
+        return cities.toCities(bestTour, CitySet.isClosed(initialTour));
+    }
+
+    public int[] optimizeTour(int[] initialTour, DistanceProvider distances) {
+        return optimizeTour(initialTour, distances, new SearchControl());
+    }
+
+    /**
+     * Stops at the configured time limit or when the control says so, whichever comes first. The
+     * control is checked between exchange rounds, while no chain is stepping.
+     */
+    @Override
+    public int[] optimizeTour(int[] initialTour, DistanceProvider distances, SearchControl control) {
+        if (initialTour.length < 4) return initialTour.clone();
+        long deadline = maxExecutionTimeMillis > 0 ? System.nanoTime() + maxExecutionTimeMillis * 1_000_000 : Long.MAX_VALUE;
+        SplittableRandom random = new SplittableRandom();
+
+        double[] temperatures = ladder();
+        // chains[r] is the chain currently sitting at temperatures[r]
+        SimulatedAnnealingOptimizer.Chain[] chains = new SimulatedAnnealingOptimizer.Chain[replicas];
+        for (int r = 0; r < replicas; r++) {
+            chains[r] = new SimulatedAnnealingOptimizer.Chain(initialTour, distances, moves, random.split());
+        }
+
+        boolean evenPairs = true;
+        for (long done = 0; done < stepsPerReplica && System.nanoTime() < deadline; done += exchangeInterval) {
+            if (control.shouldStop()) {
+                break;
+            }
+            if (control.wantsReport()) {
+                SimulatedAnnealingOptimizer.Chain best = best(chains);
+                control.report(best.bestTour(), best.getBestCost());
+            }
+            int steps = (int) Math.min(exchangeInterval, stepsPerReplica - done);
+            IntStream.range(0, replicas).parallel().forEach(r -> {
+                SimulatedAnnealingOptimizer.Chain chain = chains[r];
+                double temperature = temperatures[r];
+                for (int s = 0; s < steps; s++) {
+                    chain.step(temperature);
+                }
+            });
+            exchange(chains, temperatures, random, evenPairs);
+            evenPairs = !evenPairs;
+        }
+
+        SimulatedAnnealingOptimizer.Chain best = best(chains);
+        int[] bestTour = best.bestTour();
+        control.report(bestTour.clone(), best.getBestCost());
+        return bestTour;
+    }
+
+    private static SimulatedAnnealingOptimizer.Chain best(SimulatedAnnealingOptimizer.Chain[] chains) {
+        SimulatedAnnealingOptimizer.Chain best = chains[0];
+        for (SimulatedAnnealingOptimizer.Chain chain : chains) {
+            if (chain.getBestCost() < best.getBestCost()) {
+                best = chain;
+            }
+        }
+        return best;
+    }
+
+    private double[] ladder() {
+        double[] temperatures = new double[replicas];
+        for (int r = 0; r < replicas; r++) {
+            double fraction = replicas == 1 ? 0.0 : (double) r / (replicas - 1);
+            temperatures[r] = minTemperature * Math.pow(maxTemperature / minTemperature, fraction);
+        }
+        return temperatures;
+    }
+
+    // Alternating even and odd pairs keeps every attempted swap independent of the others in a round
+    private static void exchange(SimulatedAnnealingOptimizer.Chain[] chains, double[] temperatures, SplittableRandom random, boolean evenPairs) {
+        for (int r = evenPairs ? 0 : 1; r + 1 < chains.length; r += 2) {
+            double exponent = (chains[r].getCost() - chains[r + 1].getCost()) * (1.0 / temperatures[r] - 1.0 / temperatures[r + 1]);
+            if (exponent >= 0 || random.nextDouble() < Math.exp(exponent)) {
+                SimulatedAnnealingOptimizer.Chain colder = chains[r];
+                chains[r] = chains[r + 1];
+                chains[r + 1] = colder;
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.tsp.tactical;
+
+import com.example.tsp.model.CandidateEdges;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.spatial.NeighborSearch;
+import org.jgrapht.Graph;
+import org.jgrapht.alg.matching.blossom.v5.KolmogorovMinimumWeightPerfectMatching;
+import org.jgrapht.graph.DefaultWeightedEdge;
+import org.jgrapht.graph.SimpleWeightedGraph;
+
+import java.util.Arrays;
+
+/**
+ * Minimum-weight perfect matching of the odd-degree vertices for Christofides, on a sparse
+ * candidate graph instead of the complete one. The candidates are each vertex's nearest odd
+ * neighbours plus the edges of a greedy matching, which guarantees a perfect matching exists.
+ * Blossom V then finds the best matching within those edges; above a size threshold, or when
+ * asked to, the greedy matching is returned as is.
+ */
+public class PerfectMatching {
+    public enum Mode {
+        /** Blossom V on the sparse candidate graph. */
+        EXACT,
+        /** Shortest candidate edges first, leftovers paired among themselves. */
+        GREEDY,
+        /** EXACT up to {@link #EXACT_THRESHOLD} vertices, GREEDY beyond. */
+        AUTO
+    }
+
+    public static final int EXACT_THRESHOLD = 4_000;
+    public static final int CANDIDATES = 10;
+    // Leftovers from the greedy pass up to this many are paired by looking at all their pairs
+    private static final int BRUTE_FORCE_LIMIT = 2_000;
+
+    /**
+     * Matches an even number of city indices. Returns the pairs flattened as
+     * {a0, b0, a1, b1, ...}.
+     */
+    public static int[] match(CitySet cities, int[] vertices, Mode mode) {
+        int m = vertices.length;
+        if (m % 2 != 0) {
+            throw new IllegalArgumentException("A perfect matching needs an even number of vertices, got " + m);
+        }
+        if (m == 0) {
+            return new int[0];
+        }
+        CitySet odd = subset(cities, vertices);
+        CandidateEdges candidates = new CandidateEdges(odd, NeighborSearch.build(odd, CANDIDATES));
+        int[] mate = greedy(odd, candidates);
+
+        boolean exact = mode == Mode.EXACT || (mode == Mode.AUTO && m <= EXACT_THRESHOLD);
+        if (exact) {
+            mate = blossom(odd, candidates, mate);
+        }
+
+        int[] pairs = new int[m];
+        int p = 0;
+        for (int a = 0; a < m; a++) {
+            if (a < mate[a]) {
+                pairs[p++] = vertices[a];
+                pairs[p++] = vertices[mate[a]];
+            }
+        }
+        return pairs;
+    }
+
+    private static CitySet subset(CitySet cities, int[] vertices) {
+        double[] latitude = new double[vertices.length];
+        double[] longitude = new double[vertices.length];
+        for (int i = 0; i < vertices.length; i++) {
+            latitude[i] = cities.getLatitude(vertices[i]);
+            longitude[i] = cities.getLongitude(vertices[i]);
+        }
+        return new CitySet(latitude, longitude, null);
+    }
+
+    private static int[] greedy(CitySet odd, CandidateEdges candidates) {
+        int m = odd.size();
+        int[] mate = new int[m];
+        Arrays.fill(mate, -1);
+        matchAlong(candidates, odd.identityTour(), mate);
+        // Vertices whose candidates were all taken get their own neighbour graph, until few are left
+        int[] left = unmatched(mate);
+        while (left.length > BRUTE_FORCE_LIMIT) {
+            CitySet rest = subset(odd, left);
+            matchAlong(new CandidateEdges(rest, NeighborSearch.build(rest, CANDIDATES)), left, mate);
+            left = unmatched(mate);
+        }
+        pairAll(odd, left, mate);
+        return mate;
+    }
+
+    // Walks the edges shortest first and matches both ends whenever both are still free
+    private static void matchAlong(CandidateEdges candidates, int[] ids, int[] mate) {
+        for (int e = 0; e < candidates.size(); e++) {
+            int a = ids[candidates.getFrom(e)];
+            int b = ids[candidates.getTo(e)];
+            if (mate[a] < 0 && mate[b] < 0) {
+                mate[a] = b;
+                mate[b] = a;
+            }
+        }
+    }
+
+    private static int[] unmatched(int[] mate) {
+        int count = 0;
+        for (int partner : mate) {
+            if (partner < 0) {
+                count++;
+            }
+        }
+        int[] left = new int[count];
+        int i = 0;
+        for (int a = 0; a < mate.length; a++) {
+            if (mate[a] < 0) {
+                left[i++] = a;
+            }
+        }
+        return left;
+    }
+
+    // Greedy over every pair of the remaining vertices
+    private static void pairAll(CitySet odd, int[] left, int[] mate) {
+        int count = left.length;
+        long[] order = new long[count * (count - 1) / 2];
+        int pairs = 0;
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                float weight = (float) odd.distance(left[i], left[j]);
+                order[pairs++] = ((long) Float.floatToIntBits(weight) << 32) | ((long) i << 16) | j;
+            }
+        }
+        Arrays.sort(order);
+        for (long key : order) {
+            int a = left[(int) (key >>> 16) & 0xFFFF];
+            int b = left[(int) key & 0xFFFF];
+            if (mate[a] < 0 && mate[b] < 0) {
+                mate[a] = b;
+                mate[b] = a;
+            }
+        }
+    }
+
+    private static int[] blossom(CitySet odd, CandidateEdges candidates, int[] greedyMate) {
+        int m = odd.size();
+        Graph<Integer, DefaultWeightedEdge> graph = new SimpleWeightedGraph<>(DefaultWeightedEdge.class);
+        for (int a = 0; a < m; a++) {
+            graph.addVertex(a);
+        }
+        for (int e = 0; e < candidates.size(); e++) {
+            addEdge(graph, candidates.getFrom(e), candidates.getTo(e), candidates.getWeight(e));
+        }
+        for (int a = 0; a < m; a++) {
+            if (a < greedyMate[a]) {
+                addEdge(graph, a, greedyMate[a], odd.distance(a, greedyMate[a]));
+            }
+        }
+
+        KolmogorovMinimumWeightPerfectMatching<Integer, DefaultWeightedEdge> matchingAlgorithm =
+                new KolmogorovMinimumWeightPerfectMatching<>(graph);
+        int[] mate = new int[m];
+        for (DefaultWeightedEdge edge : matchingAlgorithm.getMatching().getEdges()) {
+            int a = graph.getEdgeSource(edge);
+            int b = graph.getEdgeTarget(edge);
+            mate[a] = b;
+            mate[b] = a;
+        }
+        return mate;
+    }
+
+    private static void addEdge(Graph<Integer, DefaultWeightedEdge> graph, int a, int b, double weight) {
+        DefaultWeightedEdge edge = graph.addEdge(a, b);
+        if (edge != null) {
+            graph.setEdgeWeight(edge, weight);
+        }
+    }
+}
@@ -1,22 +1,33 @@
 package com.example.tsp.tactical;
 
 import com.example.tsp.model.City;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceProvider;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
 public class SimulatedAnnealing {
     public static List<City> optimize(List<City> tour, double initialTemp, double coolingRate, int maxIterations) {
+        if (tour.size() < 3) return new ArrayList<>(tour);
+        CitySet cities = CitySet.of(tour);
+        int[] order = optimize(cities.identityTour(), cities, initialTemp, coolingRate, maxIterations);
+        return cities.toCities(order, CitySet.isClosed(tour));
+    }
+
+    public static int[] optimize(int[] tour, DistanceProvider distances, double initialTemp, double coolingRate, int maxIterations) {
         Random random = new Random();
-        int n = tour.size();
+        int n = tour.length;
+        if (n < 3) return tour;
 
-        double currentCost = calculateTourCost(tour);
-        List<City> currentTour = new ArrayList<>(tour);
+        int[] currentTour = tour.clone();
+        double currentCost = distances.tourLength(currentTour);
 
         double bestCost = currentCost;
-        List<City> bestTour = new ArrayList<>(tour);
+        int[] bestTour = tour.clone();
+        // The best tour is only copied out when the current tour is about to move away from it
+        boolean currentIsBest = true;
 
         double temperature = initialTemp;
 
@@ -26,25 +37,30 @@ public class SimulatedAnnealing {
             int i = random.nextInt(n - 1);
             int j = i + 1;
 
-            // Create a new tour by swapping cities at i and j
-            List<City> newTour = new ArrayList<>(currentTour);
-            Collections.swap(newTour, i, j);
-
-            // Calculate the cost of the new tour
-            double newCost = calculateTourCost(newTour);
+            // Swapping neighbours only changes the edges into i, between i and j, and out of j
+            int prev = currentTour[(i - 1 + n) % n];
+            int a = currentTour[i];
+            int b = currentTour[j];
+            int next = currentTour[(j + 1) % n];
+            double delta = distances.distance(prev, b) + distances.distance(a, next)
+                    - distances.distance(prev, a) - distances.distance(b, next);
 
             // Calculate the probability of accepting the new tour
-            double delta = newCost - currentCost;
             double acceptanceProbability = delta < 0 ? 1.0 : Math.exp(-delta / temperature);
 
             // Accept the new tour based on the calculated probability
             if (acceptanceProbability > random.nextDouble()) {
-                currentTour = newTour;
-                currentCost = newCost;
+                if (currentIsBest && delta > 0) {
+                    System.arraycopy(currentTour, 0, bestTour, 0, n);
+                    currentIsBest = false;
+                }
+                currentTour[i] = b;
+                currentTour[j] = a;
+                currentCost += delta;
 
                 if (currentCost < bestCost) {
-                    bestTour = new ArrayList<>(currentTour);
                     bestCost = currentCost;
+                    currentIsBest = true;
                 }
             }
 
@@ -54,6 +70,9 @@ public class SimulatedAnnealing {
             iterations++;
         }
 
+        if (currentIsBest) {
+            System.arraycopy(currentTour, 0, bestTour, 0, n);
+        }
         return bestTour;
     }
 
@@ -1,63 +1,247 @@
 package com.example.tsp.tactical;
 
 import com.example.tsp.model.City;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceMatrix;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.SearchControl;
+import com.example.tsp.model.Tour;
+import com.example.tsp.model.TourOptimizer;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Simulated annealing over an in-place tour. Every proposed move is scored from the handful of
+ * edges it changes, so a step costs O(1) unless the move is accepted and has to be applied. The
+ * best tour is only copied when the search is about to leave it.
+ */
+public class SimulatedAnnealingOptimizer implements TourOptimizer {
+    public enum MoveType {
+        TWO_OPT, SWAP, OR_OPT
+    }
+
+    static final MoveType[] DEFAULT_MOVES = {MoveType.TWO_OPT, MoveType.OR_OPT};
+
+    // The control is checked once every CHECK_MASK + 1 steps
+    private static final int CHECK_MASK = 0x3FF;
 
-public class SimulatedAnnealingOptimizer {
     private final double initialTemperature;
     private final double coolingRate;
     private final int maxIterations;
+    private final MoveType[] moves;
 
     public SimulatedAnnealingOptimizer(double initialTemperature, double coolingRate, int maxIterations) {
+        this(initialTemperature, coolingRate, maxIterations, DEFAULT_MOVES);
+    }
+
+    public SimulatedAnnealingOptimizer(double initialTemperature, double coolingRate, int maxIterations, MoveType... moves) {
         this.initialTemperature = initialTemperature;
         this.coolingRate = coolingRate;
         this.maxIterations = maxIterations;
+        this.moves = moves.length == 0 ? DEFAULT_MOVES : moves.clone();
     }
 
     public List<City> optimizeTour(List<City> initialTour) {
-        List<City> currentTour = new ArrayList<>(initialTour);
-        List<City> bestTour = new ArrayList<>(initialTour);
-        double currentTemperature = initialTemperature;
-        Random random = new Random();
-
-        for (int i = 0; i < maxIterations; i++) {
-            List<City> newTour = new ArrayList<>(currentTour);
+        if (initialTour.size() < 2) return initialTour;
+        CitySet cities = CitySet.of(initialTour);
+        int[] bestTour = optimizeTour(cities.identityTour(), DistanceMatrix.cache(cities));
+        return cities.toCities(bestTour, CitySet.isClosed(initialTour));
+    }
 
-            int index1 = random.nextInt(newTour.size());
-            int index2 = random.nextInt(newTour.size());
-            Collections.swap(newTour, index1, index2);
+    public int[] optimizeTour(int[] initialTour, DistanceProvider distances) {
+        return optimizeTour(initialTour, distances, new SearchControl());
+    }
 
-            double currentTourDistance = calculateTourDistance(currentTour);
-            double newTourDistance = calculateTourDistance(newTour);
-            double deltaDistance = newTourDistance - currentTourDistance;
+    /**
+     * Anneals for the configured number of iterations, or until the control says stop.
+     */
+    @Override
+    public int[] optimizeTour(int[] initialTour, DistanceProvider distances, SearchControl control) {
+        if (initialTour.length < 4) return initialTour.clone();
+        Chain chain = new Chain(initialTour, distances, moves, new SplittableRandom());
+        double currentTemperature = initialTemperature;
 
-            if (deltaDistance < 0 || random.nextDouble() < Math.exp(-deltaDistance / currentTemperature)) {
-                currentTour = newTour;
-                if (newTourDistance < calculateTourDistance(bestTour)) {
-                    bestTour = new ArrayList<>(newTour);
+        for (int i = 0; i < maxIterations; i++) {
+            if ((i & CHECK_MASK) == 0) {
+                if (control.shouldStop()) {
+                    break;
+                }
+                if (control.wantsReport()) {
+                    control.report(chain.bestTour(), chain.getBestCost());
                 }
             }
-
+            chain.step(currentTemperature);
             currentTemperature *= coolingRate;
-            //System.out.println("Iteration: " + (i + 1) + " | Current tour length: " + currentTourDistance + " | Best tour length: " + bestTour + " | Temperature: " + currentTemperature);
         }
 
+        int[] bestTour = chain.bestTour();
+        control.report(bestTour.clone(), chain.getBestCost());
         return bestTour;
     }
 
-    private double calculateTourDistance(List<City> tour) {
-        double totalDistance = 0;
-        int tourSize = tour.size();
-        for (int i = 0; i < tourSize; i++) {
-            City from = tour.get(i);
-            City to = (i + 1 < tourSize) ? tour.get(i + 1) : tour.get(0); // Go back to the first city at the end
-            totalDistance += from.distanceTo(to);
+    /**
+     * One Markov chain: a tour, its running cost, and the best state seen so far. The temperature
+     * is passed to every step so callers can cool it, or hold it fixed as in parallel tempering.
+     */
+    static final class Chain {
+        // Beyond this many temperatures uphill the acceptance probability is below e^-40
+        private static final double MAX_EXPONENT = 40.0;
+
+        private final Tour tour;
+        private final DistanceProvider distances;
+        private final MoveType[] moves;
+        private final SplittableRandom random;
+        private final int maxSegmentLength;
+
+        private double cost;
+        private double bestCost;
+        private final int[] best;
+        // While set, `best` may be stale and the current tour is the best one
+        private boolean currentIsBest = true;
+
+        Chain(int[] initialTour, DistanceProvider distances, MoveType[] moves, SplittableRandom random) {
+            this.tour = new Tour(initialTour);
+            this.distances = distances;
+            this.moves = moves;
+            this.random = random;
+            this.maxSegmentLength = Math.min(3, initialTour.length - 3);
+            this.cost = distances.tourLength(initialTour);
+            this.bestCost = cost;
+            this.best = initialTour.clone();
+        }
+
+        double getCost() {
+            return cost;
+        }
+
+        double getBestCost() {
+            return bestCost;
+        }
+
+        int[] bestTour() {
+            if (currentIsBest) {
+                tour.copyTo(best);
+            }
+            return best.clone();
+        }
+
+        /**
+         * Proposes one random move and applies it if the Metropolis criterion accepts it.
+         */
+        boolean step(double temperature) {
+            MoveType move = moves.length == 1 ? moves[0] : moves[random.nextInt(moves.length)];
+            switch (move) {
+                case TWO_OPT:
+                    return twoOpt(temperature);
+                case SWAP:
+                    return swap(temperature);
+                default:
+                    return orOpt(temperature);
+            }
+        }
+
+        private boolean twoOpt(double temperature) {
+            int n = tour.size();
+            int a = tour.get(random.nextInt(n));
+            int c = tour.get(random.nextInt(n));
+            int b = tour.next(a);
+            int d = tour.next(c);
+            if (a == c || b == c || d == a) {
+                return false;
+            }
+            double delta = distances.distance(a, c) + distances.distance(b, d)
+                    - distances.distance(a, b) - distances.distance(c, d);
+            if (!accept(delta, temperature)) {
+                return false;
+            }
+            record(delta);
+            tour.twoOptMove(a, b, c, d);
+            return true;
+        }
+
+        private boolean swap(double temperature) {
+            int n = tour.size();
+            int x = tour.get(random.nextInt(n));
+            int y = tour.get(random.nextInt(n));
+            if (x == y) {
+                return false;
+            }
+            if (tour.next(y) == x) {
+                int t = x;
+                x = y;
+                y = t;
+            }
+            int px = tour.prev(x);
+            int nx = tour.next(x);
+            int py = tour.prev(y);
+            int ny = tour.next(y);
+            double delta;
+            if (nx == y) {
+                // px x y ny  ->  px y x ny
+                delta = distances.distance(px, y) + distances.distance(x, ny)
+                        - distances.distance(px, x) - distances.distance(y, ny);
+            } else {
+                delta = distances.distance(px, y) + distances.distance(y, nx) + distances.distance(py, x) + distances.distance(x, ny)
+                        - distances.distance(px, x) - distances.distance(x, nx) - distances.distance(py, y) - distances.distance(y, ny);
+            }
+            if (!accept(delta, temperature)) {
+                return false;
+            }
+            record(delta);
+            tour.swap(x, y);
+            return true;
+        }
+
+        private boolean orOpt(double temperature) {
+            int n = tour.size();
+            if (maxSegmentLength < 1) {
+                return false;
+            }
+            int length = 1 + random.nextInt(maxSegmentLength);
+            int start = random.nextInt(n);
+            int s1 = tour.get(start);
+            int s2 = tour.get((start + length - 1) % n);
+            int p = tour.prev(s1);
+            int nx = tour.next(s2);
+            // Any edge (c, d) outside the segment and not (p, s1)
+            int c = tour.get((start + length + random.nextInt(n - length - 1)) % n);
+            int d = tour.next(c);
+
+            double removeGain = distances.distance(p, s1) + distances.distance(s2, nx) - distances.distance(p, nx);
+            double cd = distances.distance(c, d);
+            double forward = distances.distance(c, s1) + distances.distance(s2, d) - cd;
+            double reversed = distances.distance(c, s2) + distances.distance(s1, d) - cd;
+            double delta = Math.min(forward, reversed) - removeGain;
+            if (!accept(delta, temperature)) {
+                return false;
+            }
+            record(delta);
+            tour.moveSegment(p, s1, s2, nx, c, d, reversed < forward);
+            return true;
+        }
+
+        private boolean accept(double delta, double temperature) {
+            if (delta <= 0) {
+                return true;
+            }
+            if (delta > MAX_EXPONENT * temperature) {
+                return false;
+            }
+            return random.nextDouble() < Math.exp(-delta / temperature);
+        }
+
+        // Must be called before the tour changes so the best state can still be snapshotted
+        private void record(double delta) {
+            if (currentIsBest && delta > 0) {
+                tour.copyTo(best);
+                currentIsBest = false;
+            }
+            cost += delta;
+            if (cost < bestCost) {
+                bestCost = cost;
+                currentIsBest = true;
+            }
         }
-        return totalDistance;
     }
 }
-
@@ -0,0 +1,183 @@
+package com.example.tsp.tsplib;
+
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceProvider;
+
+/**
+ * A symmetric TSPLIB instance given by node coordinates. Distances follow the TSPLIB definitions
+ * exactly, rounding included, so tour lengths can be compared with the published optima.
+ */
+public class TsplibInstance implements DistanceProvider {
+
+    public enum EdgeWeightType {
+        EUC_2D, CEIL_2D, ATT, GEO
+    }
+
+    // TSPLIB's own values, not Math.PI and the mean Earth radius
+    private static final double GEO_PI = 3.141592;
+    private static final double GEO_RADIUS = 6378.388;
+    // Planar instances are laid onto this many degrees around the equator for the geometric code
+    private static final double PATCH_DEGREES = 1.0;
+
+    private final String name;
+    private final String comment;
+    private final EdgeWeightType type;
+    private final double[] x;
+    private final double[] y;
+    private final double[] geoLatitude;
+    private final double[] geoLongitude;
+    private int[] optimalTour;
+
+    public TsplibInstance(String name, String comment, EdgeWeightType type, double[] x, double[] y) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Coordinate arrays must have the same length");
+        }
+        this.name = name;
+        this.comment = comment;
+        this.type = type;
+        this.x = x;
+        this.y = y;
+        if (type == EdgeWeightType.GEO) {
+            geoLatitude = new double[x.length];
+            geoLongitude = new double[x.length];
+            for (int i = 0; i < x.length; i++) {
+                geoLatitude[i] = geoRadians(x[i]);
+                geoLongitude[i] = geoRadians(y[i]);
+            }
+        } else {
+            geoLatitude = null;
+            geoLongitude = null;
+        }
+    }
+
+    /**
+     * GEO coordinates are DDD.MM, degrees and minutes. The degrees are truncated towards zero, as
+     * in the reference implementation the optima were computed with.
+     */
+    private static double geoRadians(double coordinate) {
+        int degrees = (int) coordinate;
+        double minutes = coordinate - degrees;
+        return GEO_PI * (degrees + 5.0 * minutes / 3.0) / 180.0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public EdgeWeightType getEdgeWeightType() {
+        return type;
+    }
+
+    public double getX(int node) {
+        return x[node];
+    }
+
+    public double getY(int node) {
+        return y[node];
+    }
+
+    public int[] getOptimalTour() {
+        return optimalTour;
+    }
+
+    public void setOptimalTour(int[] optimalTour) {
+        if (optimalTour != null && optimalTour.length != x.length) {
+            throw new IllegalArgumentException("Tour has " + optimalTour.length + " nodes, instance " + name + " has " + x.length);
+        }
+        this.optimalTour = optimalTour;
+    }
+
+    /**
+     * Length of the optimal tour, or NaN when the instance came without one.
+     */
+    public double getOptimum() {
+        return optimalTour == null ? Double.NaN : tourLength(optimalTour);
+    }
+
+    @Override
+    public int size() {
+        return x.length;
+    }
+
+    @Override
+    public double distance(int from, int to) {
+        double dx = x[from] - x[to];
+        double dy = y[from] - y[to];
+        switch (type) {
+            case EUC_2D:
+                return nint(Math.sqrt(dx * dx + dy * dy));
+            case CEIL_2D:
+                return Math.ceil(Math.sqrt(dx * dx + dy * dy));
+            case ATT:
+                double r = Math.sqrt((dx * dx + dy * dy) / 10.0);
+                double t = nint(r);
+                return t < r ? t + 1 : t;
+            case GEO:
+                if (from == to) {
+                    return 0;
+                }
+                double q1 = Math.cos(geoLongitude[from] - geoLongitude[to]);
+                double q2 = Math.cos(geoLatitude[from] - geoLatitude[to]);
+                double q3 = Math.cos(geoLatitude[from] + geoLatitude[to]);
+                return (int) (GEO_RADIUS * Math.acos(0.5 * ((1.0 + q1) * q2 - (1.0 - q1) * q3)) + 1.0);
+            default:
+                throw new IllegalStateException("Unhandled edge weight type " + type);
+        }
+    }
+
+    private static double nint(double value) {
+        return (int) (value + 0.5);
+    }
+
+    /**
+     * The nodes as a {@link CitySet} for the code that works on geometry: constructions, spatial
+     * indexes and neighbour lists. GEO nodes keep their real latitude and longitude. Planar nodes
+     * are scaled onto a small patch at the equator, where the haversine distance is proportional
+     * to the Euclidean one to within a few parts per million, so nearest neighbours are preserved.
+     * Tour costs should still be taken from this instance, not from the city set.
+     */
+    public CitySet toCitySet() {
+        int n = x.length;
+        double[] latitude = new double[n];
+        double[] longitude = new double[n];
+        String[] ids = new String[n];
+        if (type == EdgeWeightType.GEO) {
+            for (int i = 0; i < n; i++) {
+                latitude[i] = Math.toDegrees(geoLatitude[i]);
+                longitude[i] = Math.toDegrees(geoLongitude[i]);
+                ids[i] = Integer.toString(i + 1);
+            }
+            return new CitySet(latitude, longitude, ids);
+        }
+
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, x[i]);
+            maxX = Math.max(maxX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        double extent = Math.max(maxX - minX, maxY - minY);
+        double scale = extent > 0 ? PATCH_DEGREES / extent : 0;
+        double centerX = (minX + maxX) / 2;
+        double centerY = (minY + maxY) / 2;
+        for (int i = 0; i < n; i++) {
+            latitude[i] = (y[i] - centerY) * scale;
+            longitude[i] = (x[i] - centerX) * scale;
+            ids[i] = Integer.toString(i + 1);
+        }
+        return new CitySet(latitude, longitude, ids);
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + x.length + " nodes, " + type + ")";
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.tsp.tsplib;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Reads TSPLIB files: symmetric {@code .tsp} instances with a NODE_COORD_SECTION, and
+ * {@code .opt.tour} tours. Node numbers in the files are 1-based, the returned indices 0-based.
+ * Header keywords the solver has no use for are skipped; anything it cannot represent, such as
+ * explicit weight matrices, is rejected with an {@link IllegalArgumentException}.
+ */
+public class TsplibReader {
+
+    public static TsplibInstance readInstance(Path file) throws IOException {
+        TsplibInstance instance;
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            instance = readInstance(reader);
+        }
+        Path tourFile = file.resolveSibling(stripExtension(file.getFileName().toString()) + ".opt.tour");
+        if (Files.exists(tourFile)) {
+            instance.setOptimalTour(readTour(tourFile));
+        }
+        return instance;
+    }
+
+    public static TsplibInstance readInstance(BufferedReader reader) throws IOException {
+        String name = null;
+        String comment = null;
+        TsplibInstance.EdgeWeightType type = null;
+        int dimension = -1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (line.startsWith("NODE_COORD_SECTION")) {
+                if (dimension < 0) {
+                    throw new IllegalArgumentException("NODE_COORD_SECTION before DIMENSION");
+                }
+                if (type == null) {
+                    throw new IllegalArgumentException("No EDGE_WEIGHT_TYPE given");
+                }
+                double[] x = new double[dimension];
+                double[] y = new double[dimension];
+                readCoordinates(reader, x, y);
+                return new TsplibInstance(name, comment, type, x, y);
+            }
+            if (line.equals("EOF")) {
+                break;
+            }
+            String key = keyOf(line);
+            String value = valueOf(line);
+            switch (key) {
+                case "NAME":
+                    name = value;
+                    break;
+                case "COMMENT":
+                    comment = comment == null ? value : comment + " " + value;
+                    break;
+                case "TYPE":
+                    if (!value.equals("TSP")) {
+                        throw new IllegalArgumentException("Unsupported problem type " + value + ", only TSP is supported");
+                    }
+                    break;
+                case "DIMENSION":
+                    dimension = parseInt(value, line);
+                    break;
+                case "EDGE_WEIGHT_TYPE":
+                    type = edgeWeightType(value);
+                    break;
+                default:
+                    // EDGE_WEIGHT_FORMAT, DISPLAY_DATA_TYPE and the like
+                    break;
+            }
+        }
+        throw new IllegalArgumentException("No NODE_COORD_SECTION found");
+    }
+
+    private static void readCoordinates(BufferedReader reader, double[] x, double[] y) throws IOException {
+        boolean[] seen = new boolean[x.length];
+        int count = 0;
+        String line;
+        while (count < x.length && (line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields.length < 3) {
+                throw new IllegalArgumentException("Expected '<node> <x> <y>', got '" + line + "'");
+            }
+            int node = parseInt(fields[0], line) - 1;
+            if (node < 0 || node >= x.length || seen[node]) {
+                throw new IllegalArgumentException("Invalid or repeated node number in '" + line + "'");
+            }
+            seen[node] = true;
+            x[node] = parseDouble(fields[1], line);
+            y[node] = parseDouble(fields[2], line);
+            count++;
+        }
+        if (count < x.length) {
+            throw new IllegalArgumentException("NODE_COORD_SECTION has " + count + " nodes, DIMENSION is " + x.length);
+        }
+    }
+
+    public static int[] readTour(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            return readTour(reader);
+        }
+    }
+
+    /**
+     * Reads the TOUR_SECTION up to its terminating -1. Nodes may be spread over any number of
+     * lines, as some tour files put them all on one.
+     */
+    public static int[] readTour(BufferedReader reader) throws IOException {
+        int dimension = -1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.startsWith("TOUR_SECTION")) {
+                return readTourSection(reader, dimension);
+            }
+            if (!line.isEmpty() && keyOf(line).equals("DIMENSION")) {
+                dimension = parseInt(valueOf(line), line);
+            }
+        }
+        throw new IllegalArgumentException("No TOUR_SECTION found");
+    }
+
+    private static int[] readTourSection(BufferedReader reader, int dimension) throws IOException {
+        int[] tour = new int[Math.max(dimension, 16)];
+        int count = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            for (String field : line.split("\\s+")) {
+                int node = parseInt(field, line);
+                if (node == -1) {
+                    return checkTour(Arrays.copyOf(tour, count), dimension);
+                }
+                if (count == tour.length) {
+                    tour = Arrays.copyOf(tour, count * 2);
+                }
+                tour[count++] = node - 1;
+            }
+        }
+        // EOF without the -1 terminator, which some writers leave out
+        return checkTour(Arrays.copyOf(tour, count), dimension);
+    }
+
+    private static int[] checkTour(int[] tour, int dimension) {
+        if (dimension >= 0 && tour.length != dimension) {
+            throw new IllegalArgumentException("TOUR_SECTION has " + tour.length + " nodes, DIMENSION is " + dimension);
+        }
+        boolean[] seen = new boolean[tour.length];
+        for (int node : tour) {
+            if (node < 0 || node >= tour.length || seen[node]) {
+                throw new IllegalArgumentException("Tour is not a permutation: node " + (node + 1));
+            }
+            seen[node] = true;
+        }
+        return tour;
+    }
+
+    private static TsplibInstance.EdgeWeightType edgeWeightType(String value) {
+        try {
+            return TsplibInstance.EdgeWeightType.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported EDGE_WEIGHT_TYPE " + value + ", expected one of "
+                    + Arrays.toString(TsplibInstance.EdgeWeightType.values()));
+        }
+    }
+
+    private static String keyOf(String line) {
+        int colon = line.indexOf(':');
+        return (colon < 0 ? line : line.substring(0, colon)).trim();
+    }
+
+    private static String valueOf(String line) {
+        int colon = line.indexOf(':');
+        return colon < 0 ? "" : line.substring(colon + 1).trim();
+    }
+
+    private static int parseInt(String value, String line) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected an integer, got '" + value + "' in '" + line + "'");
+        }
+    }
+
+    private static double parseDouble(String value, String line) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected a number, got '" + value + "' in '" + line + "'");
+        }
+    }
+
+    static String stripExtension(String fileName) {
+        int dot = fileName.indexOf('.');
+        return dot < 0 ? fileName : fileName.substring(0, dot);
+    }
+}
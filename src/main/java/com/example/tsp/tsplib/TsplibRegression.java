@@ -0,0 +1,295 @@
+package com.example.tsp.tsplib;
+
+import com.example.tsp.engine.Pipeline;
+import com.example.tsp.engine.SolverContext;
+import com.example.tsp.engine.SolverResult;
+import com.example.tsp.model.SearchControl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Runs solver pipelines over TSPLIB instances with known optima and reports each run's gap to the
+ * optimum and its wall-clock time, e.g.
+ * <pre>
+ * TsplibRegression --pipelines "greedy > oropt > 2opt; christofides > lk" --max-gap 10
+ * </pre>
+ * Without {@code --dir} the instances bundled under {@code /tsplib} are used: five small TSPLIB
+ * classics and {@code grid1024}, a 32 by 32 lattice whose optimum is one unit edge per city. The
+ * lattice is big enough for the optimizers to take their neighbour-list paths. With
+ * {@code --max-gap} the exit code is 1 when any run is further from the optimum than that, so the
+ * suite can gate a build.
+ */
+public class TsplibRegression {
+    public static final List<String> BUNDLED = List.of("burma14", "ulysses16", "att48", "eil51", "berlin52", "grid1024");
+    private static final String DEFAULT_PIPELINES =
+            "nn; greedy; christofides; greedy > oropt > 2opt; hilbert > oropt > 2opt > lk; christofides > lk";
+
+    public static class Result {
+        private final String instance;
+        private final int size;
+        private final String pipeline;
+        private final double optimum;
+        private final double cost;
+        private final long elapsedMillis;
+
+        Result(String instance, int size, String pipeline, double optimum, double cost, long elapsedMillis) {
+            this.instance = instance;
+            this.size = size;
+            this.pipeline = pipeline;
+            this.optimum = optimum;
+            this.cost = cost;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public String getInstance() {
+            return instance;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public String getPipeline() {
+            return pipeline;
+        }
+
+        public double getOptimum() {
+            return optimum;
+        }
+
+        public double getCost() {
+            return cost;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * How far the tour is above the optimum, in percent, or NaN when the optimum is unknown.
+         */
+        public double getGapPercent() {
+            return 100.0 * (cost - optimum) / optimum;
+        }
+
+        @Override
+        public String toString() {
+            String gap = Double.isNaN(optimum) ? "-" : String.format("%.2f%%", getGapPercent());
+            return String.format("%-12s %6d  %-36s %10.0f %10.0f %8s %8d ms", instance, size, pipeline, optimum, cost, gap, elapsedMillis);
+        }
+    }
+
+    public static void main(String[] args) {
+        try {
+            System.exit(run(args));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(usage());
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    static int run(String[] args) throws IOException {
+        String directory = null;
+        String pipelineSpecs = DEFAULT_PIPELINES;
+        long timeBudgetMillis = 0;
+        double maxGapPercent = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--help")) {
+                System.out.println(usage());
+                return 0;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--dir":
+                    directory = value;
+                    break;
+                case "--pipelines":
+                    pipelineSpecs = value;
+                    break;
+                case "--time":
+                    timeBudgetMillis = (long) parseNumber(value, "Time budget");
+                    break;
+                case "--max-gap":
+                    maxGapPercent = parseNumber(value, "Maximum gap");
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+
+        List<Pipeline> pipelines = parsePipelines(pipelineSpecs);
+        List<TsplibInstance> instances = directory == null ? bundled() : load(Path.of(directory));
+        if (instances.isEmpty()) {
+            System.err.println("No .tsp files found in " + directory);
+            return 1;
+        }
+
+        System.out.printf("%-12s %6s  %-36s %10s %10s %8s %11s%n", "instance", "n", "pipeline", "optimum", "cost", "gap", "time");
+        List<Result> results = new ArrayList<>();
+        for (TsplibInstance instance : instances) {
+            for (Pipeline pipeline : pipelines) {
+                Result result = run(instance, pipeline, timeBudgetMillis);
+                System.out.println(result);
+                results.add(result);
+            }
+        }
+        printSummary(results);
+
+        int failures = 0;
+        for (Result result : results) {
+            if (result.getGapPercent() > maxGapPercent) {
+                System.err.printf("%s on %s is %.2f%% above the optimum, the limit is %.2f%%%n",
+                        result.getPipeline(), result.getInstance(), result.getGapPercent(), maxGapPercent);
+                failures++;
+            }
+        }
+        return failures == 0 ? 0 : 1;
+    }
+
+    /**
+     * Solves one instance from scratch, distance table included, so runs do not share any work.
+     */
+    public static Result run(TsplibInstance instance, Pipeline pipeline, long timeBudgetMillis) {
+        long start = System.nanoTime();
+        SolverContext context = new SolverContext(instance.toCitySet(), instance);
+        SolverResult solved = pipeline.run(context, null, timeBudgetMillis, new SearchControl());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new Result(instance.getName(), instance.size(), pipeline.toString(), instance.getOptimum(),
+                instance.tourLength(solved.getTour()), elapsedMillis);
+    }
+
+    public static List<Result> run(List<TsplibInstance> instances, List<Pipeline> pipelines, long timeBudgetMillis) {
+        List<Result> results = new ArrayList<>();
+        for (TsplibInstance instance : instances) {
+            for (Pipeline pipeline : pipelines) {
+                results.add(run(instance, pipeline, timeBudgetMillis));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Pipelines separated by semicolons, since commas already separate the stages of one.
+     */
+    public static List<Pipeline> parsePipelines(String specs) {
+        List<Pipeline> pipelines = new ArrayList<>();
+        for (String spec : specs.split(";")) {
+            if (!spec.isBlank()) {
+                pipelines.add(Pipeline.parse(spec));
+            }
+        }
+        if (pipelines.isEmpty()) {
+            throw new IllegalArgumentException("No pipelines given");
+        }
+        return pipelines;
+    }
+
+    public static List<TsplibInstance> bundled() throws IOException {
+        List<TsplibInstance> instances = new ArrayList<>();
+        for (String name : BUNDLED) {
+            instances.add(bundled(name));
+        }
+        return instances;
+    }
+
+    public static TsplibInstance bundled(String name) throws IOException {
+        TsplibInstance instance;
+        try (BufferedReader reader = resource(name + ".tsp")) {
+            instance = TsplibReader.readInstance(reader);
+        }
+        try (BufferedReader reader = resource(name + ".opt.tour")) {
+            instance.setOptimalTour(TsplibReader.readTour(reader));
+        }
+        return instance;
+    }
+
+    private static BufferedReader resource(String fileName) {
+        InputStream stream = TsplibRegression.class.getResourceAsStream("/tsplib/" + fileName);
+        if (stream == null) {
+            throw new IllegalArgumentException("No bundled TSPLIB file " + fileName + ", bundled instances are " + BUNDLED);
+        }
+        return new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Every {@code .tsp} file in the directory, smallest first, each with its {@code .opt.tour}
+     * when there is one next to it.
+     */
+    public static List<TsplibInstance> load(Path directory) throws IOException {
+        List<TsplibInstance> instances = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".tsp")).sorted().forEach(file -> {
+                try {
+                    instances.add(TsplibReader.readInstance(file));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read " + file, e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        instances.sort(Comparator.comparingInt(TsplibInstance::size));
+        return instances;
+    }
+
+    private static void printSummary(List<Result> results) {
+        Map<String, List<Result>> byPipeline = new LinkedHashMap<>();
+        for (Result result : results) {
+            byPipeline.computeIfAbsent(result.getPipeline(), key -> new ArrayList<>()).add(result);
+        }
+        System.out.println();
+        System.out.printf("%-36s %10s %10s %11s%n", "pipeline", "mean gap", "max gap", "total time");
+        for (Map.Entry<String, List<Result>> entry : byPipeline.entrySet()) {
+            double sum = 0;
+            double max = Double.NEGATIVE_INFINITY;
+            int known = 0;
+            long totalMillis = 0;
+            for (Result result : entry.getValue()) {
+                totalMillis += result.getElapsedMillis();
+                if (!Double.isNaN(result.getGapPercent())) {
+                    sum += result.getGapPercent();
+                    max = Math.max(max, result.getGapPercent());
+                    known++;
+                }
+            }
+            String mean = known == 0 ? "-" : String.format("%.2f%%", sum / known);
+            String worst = known == 0 ? "-" : String.format("%.2f%%", max);
+            System.out.printf("%-36s %10s %10s %8d ms%n", entry.getKey(), mean, worst, totalMillis);
+        }
+    }
+
+    private static double parseNumber(String value, String what) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(what + " must be a number, got " + value);
+        }
+    }
+
+    private static String usage() {
+        return "Usage: TsplibRegression [--dir <directory of .tsp files>] [--pipelines \"" + DEFAULT_PIPELINES + "\"]\n"
+                + "                        [--time <millis per run>] [--max-gap <percent>]\n"
+                + "Bundled instances: " + String.join(", ", BUNDLED);
+    }
+}
@@ -19,4 +19,14 @@ module com.example.tsp {
     opens com.example.tsp.tactical to com.google.gson, javafx.fxml;
     exports com.example.tsp.model;
     opens com.example.tsp.model to com.google.gson, javafx.fxml;
+    exports com.example.tsp.construction;
+    opens com.example.tsp.construction to com.google.gson, javafx.fxml;
+    exports com.example.tsp.engine;
+    opens com.example.tsp.engine to com.google.gson, javafx.fxml;
+    exports com.example.tsp.spatial;
+    opens com.example.tsp.spatial to com.google.gson, javafx.fxml;
+    exports com.example.tsp.io;
+    opens com.example.tsp.io to com.google.gson, javafx.fxml;
+    exports com.example.tsp.tsplib;
+    opens com.example.tsp.tsplib to com.google.gson, javafx.fxml;
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.example.tsp;
+
+import com.example.tsp.model.CitySet;
+
+import java.util.Random;
+
+/**
+ * Random city sets for tests, spread uniformly over a box around London.
+ */
+public final class TestCities {
+
+    private TestCities() {
+    }
+
+    public static CitySet random(int n, long seed) {
+        return random(new Random(seed), n);
+    }
+
+    /**
+     * As above, drawing from {@code random}, so a test can keep using the same sequence.
+     */
+    public static CitySet random(Random random, int n) {
+        double[] latitude = new double[n];
+        double[] longitude = new double[n];
+        for (int i = 0; i < n; i++) {
+            latitude[i] = 51.3 + random.nextDouble() * 0.4;
+            longitude[i] = -0.5 + random.nextDouble() * 0.6;
+        }
+        return new CitySet(latitude, longitude, null);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.tsp;
+
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceMatrix;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.SearchControl;
+import com.example.tsp.model.TourOptimizer;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * What every {@link TourOptimizer} promises about its {@link SearchControl}, for the optimizer
+ * tests of each package to run over their own optimizers.
+ */
+public final class TourOptimizerChecks {
+    public static final long BUDGET_MILLIS = 200;
+
+    private TourOptimizerChecks() {
+    }
+
+    /**
+     * Each optimizer stops soon after its time budget and has published a snapshot that matches
+     * its cost and is no worse than the tour it returns.
+     */
+    public static void assertBudgetIsHonoured(CitySet cities, List<TourOptimizer> optimizers) {
+        DistanceProvider distances = DistanceMatrix.cache(cities);
+        double initialCost = cities.tourLength(cities.identityTour());
+
+        for (TourOptimizer optimizer : optimizers) {
+            SearchControl control = SearchControl.withTimeBudget(BUDGET_MILLIS);
+            long start = System.nanoTime();
+            int[] tour = optimizer.optimizeTour(cities.identityTour(), distances, control);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            String name = optimizer.getClass().getSimpleName();
+            assertTrue(elapsedMillis < BUDGET_MILLIS + 1_000, name + " ran for " + elapsedMillis + " ms");
+            int[] sorted = tour.clone();
+            Arrays.sort(sorted);
+            assertArrayEquals(cities.identityTour(), sorted, name);
+
+            int[] snapshot = control.getBestTour();
+            assertNotNull(snapshot, name);
+            assertEquals(cities.tourLength(snapshot), control.getBestCost(), 1e-6, name);
+            assertTrue(control.getBestCost() <= initialCost + 1e-6, name);
+            assertTrue(cities.tourLength(tour) <= control.getBestCost() + 1e-6, name);
+        }
+    }
+
+    public static void assertCancelledFromAnotherThread(CitySet cities, List<TourOptimizer> optimizers) throws InterruptedException {
+        DistanceProvider distances = DistanceMatrix.cache(cities);
+
+        for (TourOptimizer optimizer : optimizers) {
+            SearchControl control = new SearchControl();
+            Thread canceller = new Thread(() -> {
+                try {
+                    Thread.sleep(BUDGET_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                control.cancel();
+            });
+            canceller.start();
+            long start = System.nanoTime();
+            int[] tour = optimizer.optimizeTour(cities.identityTour(), distances, control);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            canceller.join();
+
+            String name = optimizer.getClass().getSimpleName();
+            assertTrue(elapsedMillis < BUDGET_MILLIS + 1_000, name + " ran for " + elapsedMillis + " ms");
+            assertEquals(cities.size(), tour.length, name);
+        }
+    }
+}
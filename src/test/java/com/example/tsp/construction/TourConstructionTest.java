@@ -0,0 +1,61 @@
+package com.example.tsp.construction;
+
+import com.example.tsp.TestCities;
+import com.example.tsp.model.CitySet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TourConstructionTest {
+
+    private static void assertPermutation(int n, int[] tour) {
+        int[] sorted = tour.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, sorted[i]);
+        }
+        assertEquals(n, tour.length);
+    }
+
+    @Test
+    void testEveryHeuristicVisitsEveryCityOnce() {
+        for (int n : new int[]{0, 1, 2, 3, 4, 1000}) {
+            CitySet cities = TestCities.random(n, 81 + n);
+            for (TourConstruction construction : TourConstruction.values()) {
+                assertPermutation(n, construction.build(cities));
+            }
+        }
+    }
+
+    @Test
+    void testTourQualityOrdering() {
+        CitySet cities = TestCities.random(5000, 82);
+        double hilbert = cities.tourLength(TourConstruction.HILBERT.build(cities));
+        double nearestNeighbor = cities.tourLength(TourConstruction.NEAREST_NEIGHBOR.build(cities));
+        double greedy = cities.tourLength(TourConstruction.GREEDY_EDGE.build(cities));
+        double farthest = cities.tourLength(TourConstruction.FARTHEST_INSERTION.build(cities));
+
+        // Well-known ranking on uniform random points
+        assertTrue(greedy < nearestNeighbor, "greedy " + greedy + " vs nearest neighbour " + nearestNeighbor);
+        assertTrue(farthest < nearestNeighbor, "farthest " + farthest + " vs nearest neighbour " + nearestNeighbor);
+        assertTrue(nearestNeighbor < hilbert, "nearest neighbour " + nearestNeighbor + " vs hilbert " + hilbert);
+    }
+
+    @Test
+    void testHilbertIndexVisitsNeighbouringCells() {
+        // Consecutive positions along the curve are always adjacent cells
+        int[][] cells = new int[16][];
+        for (int x = 0; x < 4; x++) {
+            for (int y = 0; y < 4; y++) {
+                long d = HilbertCurve.index(x << 14, y << 14) >>> 28;
+                cells[(int) d] = new int[]{x, y};
+            }
+        }
+        for (int d = 1; d < 16; d++) {
+            int step = Math.abs(cells[d][0] - cells[d - 1][0]) + Math.abs(cells[d][1] - cells[d - 1][1]);
+            assertEquals(1, step);
+        }
+    }
+}
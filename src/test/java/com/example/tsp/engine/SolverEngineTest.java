@@ -0,0 +1,134 @@
+package com.example.tsp.engine;
+
+import com.example.tsp.TestCities;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.SearchControl;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverEngineTest {
+
+    @Test
+    void testStagesRunInOrderAndOnlyImprove() {
+        CitySet cities = TestCities.random(800, 91);
+        SolverResult result = SolverEngine.solve(cities,
+                List.of(Stages.byName("hilbert"), Stages.byName("oropt"), Stages.byName("2opt")), 0);
+
+        assertEquals(3, result.getStages().size());
+        assertEquals("hilbert", result.getStages().get(0).getName());
+        for (int s = 1; s < result.getStages().size(); s++) {
+            assertTrue(result.getStages().get(s).getCost() <= result.getStages().get(s - 1).getCost() + 1e-6);
+        }
+        int[] sorted = result.getTour().clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(cities.identityTour(), sorted);
+        assertEquals(cities.tourLength(result.getTour()), result.getCost(), 1e-6);
+    }
+
+    @Test
+    void testConstructionOnlyRunDoesNotBuildTheDistanceTable() {
+        CitySet cities = TestCities.random(3000, 94);
+        AtomicInteger lookups = new AtomicInteger();
+        DistanceProvider metric = new DistanceProvider() {
+            @Override
+            public int size() {
+                return cities.size();
+            }
+
+            @Override
+            public double distance(int from, int to) {
+                lookups.incrementAndGet();
+                return cities.distance(from, to);
+            }
+        };
+        SolverResult result = SolverEngine.solve(new SolverContext(cities, metric), null, List.of(Stages.byName("hilbert")), 0);
+
+        assertEquals(cities.tourLength(result.getTour()), result.getCost(), 1e-6);
+        assertTrue(lookups.get() <= 2 * cities.size());
+    }
+
+    @Test
+    void testStagesAfterTheBudgetAreSkipped() {
+        CitySet cities = TestCities.random(3000, 92);
+        SolverResult result = SolverEngine.solve(cities, List.of(Stages.byName("farthest"), Stages.byName("sa")), 1);
+
+        assertEquals(1, result.getStages().size());
+        assertEquals(cities.size(), result.getTour().length);
+    }
+
+    @Test
+    void testCancelledRunReturnsReportedProgress() {
+        CitySet cities = TestCities.random(2000, 93);
+        SearchControl control = new SearchControl();
+        AtomicInteger reports = new AtomicInteger();
+        // Annealing with this many steps would take minutes; the first report cancels it
+        control.setListener((tour, cost) -> {
+            assertEquals(cities.size(), tour.length);
+            reports.incrementAndGet();
+            control.cancel();
+        });
+        long start = System.nanoTime();
+        SolverResult result = SolverEngine.solve(new SolverContext(cities), null,
+                List.of(Stages.byName("sa"), Stages.byName("2opt")), 0, control);
+
+        assertTrue(reports.get() >= 1);
+        assertEquals(1, result.getStages().size());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 5_000);
+        assertEquals(cities.size(), result.getTour().length);
+    }
+
+    @Test
+    void testPipelineChainsStagesWithCostDeltas() {
+        CitySet cities = TestCities.random(1500, 94);
+        Pipeline pipeline = Pipeline.parse(" hilbert > oropt -> 2opt,lk ");
+
+        assertEquals("hilbert > oropt > 2opt > lk", pipeline.toString());
+        SolverResult result = pipeline.run(cities, 0);
+        assertEquals(4, result.getStages().size());
+        assertEquals(cities.tourLength(cities.identityTour()), result.getStages().get(0).getCostBefore(), 1e-6);
+        for (int s = 1; s < result.getStages().size(); s++) {
+            SolverResult.StageReport stage = result.getStages().get(s);
+            assertEquals(result.getStages().get(s - 1).getCost(), stage.getCostBefore(), 1e-6);
+            assertEquals(stage.getCost() - stage.getCostBefore(), stage.getDelta(), 1e-6);
+            assertTrue(stage.getDelta() <= 1e-6);
+        }
+        assertEquals(result.getStages().get(3).getCost(), result.getCost(), 1e-6);
+    }
+
+    @Test
+    void testMalformedPipelineIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Pipeline.parse("hilbert >> 2opt"));
+        assertThrows(IllegalArgumentException.class, () -> Pipeline.parse("hilbert > bogus"));
+        assertThrows(IllegalArgumentException.class, () -> Pipeline.parse(""));
+    }
+
+    @Test
+    void testUnknownStageIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Stages.byName("bogus"));
+    }
+
+    @Test
+    void testCliWritesTour() throws Exception {
+        File input = new File(getClass().getClassLoader().getResource("test1.csv").toURI());
+        Path output = Files.createTempFile("tour", ".csv");
+        try {
+            int status = SolverCli.run(new String[]{"--input", input.getPath(), "--stages", "greedy,2opt", "--output", output.toString()});
+
+            assertEquals(0, status);
+            List<String> lines = Files.readAllLines(output);
+            assertEquals("id,latitude,longitude", lines.get(0));
+            assertTrue(lines.size() > 1);
+        } finally {
+            Files.deleteIfExists(output);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.tsp.io;
+
+import com.example.tsp.TestCities;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceMatrix;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.spatial.NeighborSearch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryInstanceFormatTest {
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("tspb");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static CitySet randomCities(int n, long seed, boolean withIds) {
+        CitySet cities = TestCities.random(n, seed);
+        if (!withIds) {
+            return cities;
+        }
+        double[] latitude = new double[n];
+        double[] longitude = new double[n];
+        String[] ids = new String[n];
+        for (int i = 0; i < n; i++) {
+            latitude[i] = cities.getLatitude(i);
+            longitude[i] = cities.getLongitude(i);
+            // Repeated, empty and non-ASCII ids all go through the dictionary
+            ids[i] = i % 7 == 0 ? "" : i % 5 == 0 ? "dup" : "id-" + i + (i % 3 == 0 ? "-\u00e9" : "");
+        }
+        return new CitySet(latitude, longitude, ids);
+    }
+
+    @Test
+    void testInstanceRoundTripsExactly() throws IOException {
+        // An odd count leaves the id index column unaligned, so the padding is exercised too
+        CitySet cities = randomCities(1001, 241, true);
+        Path file = directory.resolve("cities.tspb");
+        BinaryInstanceFormat.write(file, cities);
+        CitySet read = BinaryInstanceFormat.read(file);
+
+        assertEquals(cities.size(), read.size());
+        for (int i = 0; i < cities.size(); i++) {
+            assertEquals(cities.getLatitude(i), read.getLatitude(i));
+            assertEquals(cities.getLongitude(i), read.getLongitude(i));
+            assertEquals(cities.getCrimeId(i), read.getCrimeId(i));
+        }
+        assertSame(read.getCrimeId(5), read.getCrimeId(10));
+    }
+
+    @Test
+    void testInstanceWithoutIdsHasNoDictionary() throws IOException {
+        CitySet cities = randomCities(100, 242, false);
+        Path file = directory.resolve("plain.tspb");
+        BinaryInstanceFormat.write(file, cities);
+
+        assertEquals(32 + 2 * 8 * 100, Files.size(file));
+        CitySet read = BinaryInstanceFormat.read(file);
+        assertEquals("", read.getCrimeId(42));
+        assertEquals(cities.getLatitude(99), read.getLatitude(99));
+    }
+
+    @Test
+    void testNeighborListsAreOnlyReusedForTheSameCities() throws IOException {
+        CitySet cities = randomCities(500, 243, true);
+        Path file = directory.resolve("cities.tspb");
+        assertNull(BinaryInstanceFormat.readNeighbors(file, cities));
+
+        NeighborLists neighbors = NeighborSearch.build(cities, NeighborLists.DEFAULT_K);
+        BinaryInstanceFormat.write(file, cities);
+        BinaryInstanceFormat.writeNeighbors(file, cities, neighbors);
+        NeighborLists read = BinaryInstanceFormat.readNeighbors(file, BinaryInstanceFormat.read(file));
+        assertNotNull(read);
+        assertEquals(neighbors.getK(), read.getK());
+        for (int city = 0; city < cities.size(); city++) {
+            assertArrayEquals(neighbors.neighborsOf(city), read.neighborsOf(city));
+        }
+
+        assertNull(BinaryInstanceFormat.readNeighbors(file, randomCities(500, 244, true)));
+    }
+
+    @Test
+    void testDistanceTablesRoundTripInEveryStorage() throws IOException {
+        CitySet cities = randomCities(301, 245, false);
+        Path file = directory.resolve("cities.tspb");
+        for (DistanceMatrix.Storage storage : DistanceMatrix.Storage.values()) {
+            DistanceMatrix matrix = DistanceMatrix.build(cities, storage);
+            BinaryInstanceFormat.writeDistances(file, cities, matrix);
+            DistanceMatrix read = BinaryInstanceFormat.readDistances(file, cities);
+            assertEquals(storage, read.getStorage());
+            for (int i = 0; i < cities.size(); i += 7) {
+                for (int j = 0; j < cities.size(); j += 3) {
+                    assertEquals(matrix.distance(i, j), read.distance(i, j));
+                }
+            }
+        }
+        assertNull(BinaryInstanceFormat.readDistances(file, randomCities(301, 246, false)));
+    }
+
+    @Test
+    void testDamagedFilesAreRejected() throws IOException {
+        Path file = directory.resolve("cities.tspb");
+        BinaryInstanceFormat.write(file, randomCities(50, 247, true));
+        byte[] bytes = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 100));
+        assertThrows(IOException.class, () -> BinaryInstanceFormat.read(file));
+
+        Path csv = directory.resolve("cities.csv");
+        Files.writeString(csv, "crimeID,longitude,latitude\n");
+        assertThrows(IOException.class, () -> BinaryInstanceFormat.read(csv));
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.tsp.io;
+
+import com.example.tsp.model.CitySet;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvCityReaderTest {
+
+    private static Path write(String content) throws IOException {
+        Path file = Files.createTempFile("cities", ".csv");
+        Files.writeString(file, content);
+        return file;
+    }
+
+    private static double parse(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        return CsvCityReader.parseDouble(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    @Test
+    void testNumbersParseExactlyAsDoubleParseDouble() {
+        Random random = new Random(23);
+        for (int i = 0; i < 100_000; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(8));
+            String text = String.format(Locale.ROOT, "%." + random.nextInt(12) + "f", value);
+            assertEquals(Double.parseDouble(text), parse(text), text);
+        }
+        assertEquals(-0.106220, parse("-0.106220"));
+        assertEquals(51.5, parse(" +51.5 "));
+        assertEquals(12.0, parse("12."));
+        assertEquals(0.25, parse(".25"));
+        assertEquals(1.5e-3, parse("1.5e-3"));
+        assertEquals(Double.parseDouble("0.12345678901234567890123"), parse("0.12345678901234567890123"));
+        assertTrue(Double.isNaN(parse("")));
+        assertTrue(Double.isNaN(parse("-")));
+        assertTrue(Double.isNaN(parse("1.2.3")));
+        assertTrue(Double.isNaN(parse("51,5")));
+        assertTrue(Double.isNaN(parse("N/A")));
+    }
+
+    @Test
+    void testTeamProjectLayoutMatchesTheOldSplitParser() throws IOException {
+        Path file = Path.of("src/main/resources/test1.csv");
+        CitySet cities = new CsvCityReader(CsvCityReader.Layout.TEAM_PROJECT).read(file);
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(lines.size() - 1, cities.size());
+        for (int i = 1; i < lines.size(); i++) {
+            String[] values = lines.get(i).split(",");
+            assertEquals(values[0].substring(values[0].length() - 5), cities.getCrimeId(i - 1));
+            assertEquals(Double.parseDouble(values[1]), cities.getLongitude(i - 1));
+            assertEquals(Double.parseDouble(values[2]), cities.getLatitude(i - 1));
+        }
+    }
+
+    @Test
+    void testColumnsByHeaderNameMatchColumnsByIndex() throws IOException {
+        Path file = Path.of("src/main/resources/2023-01-city-of-london-street.csv");
+        CsvCityReader byIndex = new CsvCityReader(CsvCityReader.Layout.POLICE_STREET);
+        CitySet expected = byIndex.read(file);
+        CsvCityReader byName = new CsvCityReader(CsvCityReader.Layout.parse("crime_id, Longitude, Latitude"));
+        CitySet actual = byName.read(file);
+
+        assertTrue(expected.size() > 600);
+        assertEquals(expected.size(), actual.size());
+        assertEquals(byIndex.getSkippedRows(), byName.getSkippedRows());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getCrimeId(i), actual.getCrimeId(i));
+            assertEquals(expected.getLatitude(i), actual.getLatitude(i));
+            assertEquals(expected.getLongitude(i), actual.getLongitude(i));
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsvCityReader(CsvCityReader.Layout.byHeader(null, "lon", "lat")).read(file));
+    }
+
+    @Test
+    void testQuotesLineEndingsAndBadRows() throws IOException {
+        Path file = write("name;note;lat;lon\r\n"
+                + "\"a;1\";\"say \"\"hi\"\"; twice\";51.5;-0.1\r\n"
+                + "\r\n"
+                + "b;;;-0.2\r\n"
+                + "c;x;fifty;-0.3\r\n"
+                + "d;short\r\n"
+                + "e;x;\"51.7\";-0.4;extra;\"quoted, column\"\r\n"
+                + "f;x;51.8;-0.5");
+        try {
+            CsvCityReader reader = new CsvCityReader(new CsvCityReader.Layout(0, 3, 2).withDelimiter(';'));
+            CitySet cities = reader.read(file);
+            assertEquals(3, cities.size());
+            assertEquals(3, reader.getSkippedRows());
+            assertEquals("a;1", cities.getCrimeId(0));
+            assertEquals(51.5, cities.getLatitude(0));
+            assertEquals(-0.1, cities.getLongitude(0));
+            assertEquals("e", cities.getCrimeId(1));
+            assertEquals(51.7, cities.getLatitude(1));
+            assertEquals("f", cities.getCrimeId(2));
+            assertEquals(-0.5, cities.getLongitude(2));
+
+            CitySet withoutIds = new CsvCityReader(new CsvCityReader.Layout(-1, 3, 2).withDelimiter(';')).read(file);
+            assertEquals(3, withoutIds.size());
+            assertEquals("", withoutIds.getCrimeId(0));
+
+            CitySet notesAsIds = new CsvCityReader(new CsvCityReader.Layout(1, 3, 2).withDelimiter(';')).read(file);
+            assertEquals("say \"hi\"; twice", notesAsIds.getCrimeId(0));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testParallelReadKeepsFileOrder() throws IOException {
+        Path file = Files.createTempFile("cities", ".csv");
+        try {
+            Random random = new Random(24);
+            int rows = 120_000;
+            try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                writer.write("crimeID,longitude,latitude\n");
+                for (int i = 0; i < rows; i++) {
+                    writer.write(String.format(Locale.ROOT, "id%07d,%.6f,%.6f%n", i, -0.5 + random.nextDouble() * 0.6,
+                            51.3 + random.nextDouble() * 0.4));
+                }
+            }
+            assertTrue(Files.size(file) > 3L * CsvCityReader.MIN_PARALLEL_CHUNK_BYTES);
+
+            CitySet sequential = new CsvCityReader(CsvCityReader.Layout.TEAM_PROJECT).read(file);
+            CitySet parallel = new CsvCityReader(CsvCityReader.Layout.TEAM_PROJECT, true).read(file);
+            assertEquals(rows, sequential.size());
+            assertEquals(rows, parallel.size());
+            for (int i = 0; i < rows; i++) {
+                assertEquals(sequential.getLatitude(i), parallel.getLatitude(i));
+                assertEquals(sequential.getLongitude(i), parallel.getLongitude(i));
+                assertEquals(String.format("%05d", i % 100_000), parallel.getCrimeId(i));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.tsp.io;
+
+import com.example.tsp.model.CitySet;
+import com.example.tsp.tsplib.TsplibReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TourExporterTest {
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("tours");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static CitySet cities() {
+        return new CitySet(new double[]{51.50, 51.51, 51.52, 51.53},
+                new double[]{-0.10, -0.12, -0.11, -0.13},
+                new String[]{"a", "b\"quoted\"", "c", "d"});
+    }
+
+    @Test
+    void testEveryFormatWritesTheTourInOrder() throws IOException {
+        CitySet cities = cities();
+        int[] tour = {2, 0, 3, 1};
+
+        Path csv = directory.resolve("tour.csv");
+        TourExporter.write(csv, cities, tour, TourExporter.Format.CSV);
+        assertEquals(List.of("id,latitude,longitude", "c,51.52,-0.11", "a,51.5,-0.1", "d,51.53,-0.13",
+                "\"b\"\"quoted\"\"\",51.51,-0.12"), Files.readAllLines(csv));
+
+        Path tsplib = directory.resolve("tour.tour");
+        TourExporter.write(tsplib, cities, tour, TourExporter.Format.TSPLIB);
+        assertArrayEquals(tour, TsplibReader.readTour(tsplib));
+
+        Path binary = directory.resolve("tour.tourb");
+        TourExporter.write(binary, cities, tour, TourExporter.Format.BINARY);
+        assertArrayEquals(tour, BinaryInstanceFormat.readTour(binary, cities));
+        CitySet other = new CitySet(new double[]{1, 2, 3, 4}, new double[]{1, 2, 3, 4}, null);
+        assertThrows(IOException.class, () -> BinaryInstanceFormat.readTour(binary, other));
+
+        Path geoJson = directory.resolve("tour.geojson");
+        TourExporter.write(geoJson, cities, tour, TourExporter.Format.GEOJSON);
+        String json = Files.readString(geoJson);
+        assertTrue(json.startsWith("{\"type\":\"Feature\",\"properties\":{\"name\":\"tour\",\"cities\":4,"), json);
+        assertTrue(json.contains("\"coordinates\":[[-0.11,51.52],[-0.1,51.5],[-0.13,51.53],[-0.12,51.51],[-0.11,51.52]]"), json);
+    }
+
+    @Test
+    void testCsvIdsSurviveAReadBack() throws IOException {
+        CitySet cities = new CitySet(new double[]{51.50, 51.51, 51.52, 51.53},
+                new double[]{-0.10, -0.12, -0.11, -0.13},
+                new String[]{"plain", "b\"quoted\"", "with, comma", "\"\""});
+        int[] tour = {3, 1, 0, 2};
+
+        Path csv = directory.resolve("tour.csv");
+        TourExporter.write(csv, cities, tour, TourExporter.Format.CSV);
+        CitySet read = new CsvCityReader(CsvCityReader.Layout.byHeader("id", "longitude", "latitude")).read(csv);
+
+        assertEquals(tour.length, read.size());
+        for (int i = 0; i < tour.length; i++) {
+            assertEquals(cities.getCrimeId(tour[i]), read.getCrimeId(i));
+            assertEquals(cities.getLatitude(tour[i]), read.getLatitude(i));
+            assertEquals(cities.getLongitude(tour[i]), read.getLongitude(i));
+        }
+    }
+
+    @Test
+    void testFormatsFollowTheFileExtension() {
+        assertEquals(TourExporter.Format.GEOJSON, TourExporter.Format.forFile(Path.of("out", "Tour.GeoJSON")));
+        assertEquals(TourExporter.Format.BINARY, TourExporter.Format.forFile(Path.of("tour.tourb")));
+        assertEquals(EnumSet.of(TourExporter.Format.CSV, TourExporter.Format.TSPLIB), TourExporter.parseFormats("csv, .tour"));
+        assertThrows(IllegalArgumentException.class, () -> TourExporter.Format.forFile(Path.of("tour.txt")));
+    }
+
+    @Test
+    void testExportWritesEveryFormatInTheBackground() throws Exception {
+        CitySet cities = cities();
+        int[] tour = cities.identityTour();
+        Path output = directory.resolve("nested").resolve("output");
+        // The export thread is held on a latch until the tour has been changed
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> {
+            release.await();
+            return null;
+        });
+        try (TourExporter exporter = new TourExporter(output, EnumSet.allOf(TourExporter.Format.class), executor)) {
+            CompletableFuture<List<Path>> export = exporter.export(cities, tour, "twoOpt.csv");
+            // Changing the tour while the export is pending must not reach it
+            tour[0] = 3;
+            tour[3] = 0;
+            assertFalse(export.isDone());
+            release.countDown();
+            List<Path> files = export.join();
+
+            assertEquals(TourExporter.Format.values().length, files.size());
+            for (Path file : files) {
+                assertEquals(output, file.getParent());
+                assertTrue(file.getFileName().toString().startsWith("twoOpt."), file.toString());
+                assertTrue(Files.size(file) > 0);
+            }
+            assertArrayEquals(cities.identityTour(), BinaryInstanceFormat.readTour(output.resolve("twoOpt.tourb"), cities));
+            try (Stream<Path> left = Files.list(output)) {
+                assertEquals(files.size(), left.count());
+            }
+        }
+    }
+
+    @Test
+    void testFailedExportCompletesExceptionally() throws Exception {
+        Path blocked = directory.resolve("file");
+        Files.writeString(blocked, "not a directory");
+        try (TourExporter exporter = new TourExporter(blocked, EnumSet.of(TourExporter.Format.CSV))) {
+            CompletionException error = assertThrows(CompletionException.class,
+                    () -> exporter.export(cities(), new int[]{0, 1, 2, 3}, "tour").join());
+            assertTrue(error.getCause() instanceof TourExporter.ExportException);
+        }
+    }
+}
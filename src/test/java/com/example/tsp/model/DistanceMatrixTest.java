@@ -0,0 +1,57 @@
+package com.example.tsp.model;
+
+import com.example.tsp.TestCities;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceMatrixTest {
+    private CitySet cities;
+
+    @BeforeEach
+    void setUp() {
+        cities = TestCities.random(50, 42);
+    }
+
+    @Test
+    void testFullStorageMatchesSource() {
+        assertMatchesSource(DistanceMatrix.build(cities, DistanceMatrix.Storage.FULL), 1e-9);
+    }
+
+    @Test
+    void testTriangularStorageMatchesSource() {
+        assertMatchesSource(DistanceMatrix.build(cities, DistanceMatrix.Storage.TRIANGULAR), 1e-9);
+    }
+
+    @Test
+    void testFloatTriangularStorageMatchesSource() {
+        // Float precision is well below a metre at city scale
+        assertMatchesSource(DistanceMatrix.build(cities, DistanceMatrix.Storage.FLOAT_TRIANGULAR), 0.01);
+    }
+
+    @Test
+    void testChooseStorage() {
+        assertEquals(DistanceMatrix.Storage.FULL, DistanceMatrix.chooseStorage(1_000, 1L << 30));
+        assertEquals(DistanceMatrix.Storage.TRIANGULAR, DistanceMatrix.chooseStorage(10_000, 2L << 30));
+        assertEquals(DistanceMatrix.Storage.FLOAT_TRIANGULAR, DistanceMatrix.chooseStorage(10_000, 1L << 30));
+        assertNull(DistanceMatrix.chooseStorage(100_000, 1L << 30));
+    }
+
+    @Test
+    void testCacheReusesMatrix() {
+        DistanceProvider cached = DistanceMatrix.cache(cities);
+        assertSame(cached, DistanceMatrix.cache(cached));
+    }
+
+    private void assertMatchesSource(DistanceMatrix matrix, double delta) {
+        assertEquals(cities.size(), matrix.size());
+        for (int i = 0; i < cities.size(); i++) {
+            assertEquals(0, matrix.distance(i, i), 0);
+            for (int j = 0; j < cities.size(); j++) {
+                assertEquals(cities.distance(i, j), matrix.distance(i, j), delta);
+                assertEquals(matrix.distance(i, j), matrix.distance(j, i), 0);
+            }
+        }
+    }
+}
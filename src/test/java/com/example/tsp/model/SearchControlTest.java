@@ -0,0 +1,18 @@
+package com.example.tsp.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchControlTest {
+
+    @Test
+    void testReportKeepsTheBestTour() {
+        SearchControl control = new SearchControl(0);
+        control.report(new int[]{0, 1, 2}, 10.0);
+        control.report(new int[]{2, 1, 0}, 12.0);
+
+        assertEquals(10.0, control.getBestCost());
+        assertArrayEquals(new int[]{0, 1, 2}, control.getBestTour());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.tsp.spatial;
+
+import com.example.tsp.TestCities;
+import com.example.tsp.model.CitySet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpatialIndexTest {
+
+    private static CitySet worldCities(int n, long seed) {
+        Random random = new Random(seed);
+        double[] latitude = new double[n];
+        double[] longitude = new double[n];
+        for (int i = 0; i < n; i++) {
+            latitude[i] = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+            longitude[i] = random.nextDouble() * 360 - 180;
+        }
+        return new CitySet(latitude, longitude, null);
+    }
+
+    private static double[] bruteForceDistances(CitySet cities, int city, boolean[] removed) {
+        return IntStream.range(0, cities.size())
+                .filter(other -> other != city && !removed[other])
+                .mapToDouble(other -> cities.distance(city, other))
+                .sorted()
+                .toArray();
+    }
+
+    private static void assertMatchesBruteForce(CitySet cities, Function<CitySet, SpatialIndex> factory) {
+        SpatialIndex index = factory.apply(cities);
+        boolean[] removed = new boolean[cities.size()];
+        for (int city = 0; city < cities.size(); city += 3) {
+            index.remove(city);
+            removed[city] = true;
+        }
+        index.restore(0);
+        removed[0] = false;
+        assertEquals(cities.size() - (cities.size() + 2) / 3 + 1, index.size());
+
+        for (int city = 0; city < cities.size(); city += 7) {
+            double[] expected = bruteForceDistances(cities, city, removed);
+            int[] found = index.nearest(city, 5);
+            assertEquals(5, found.length);
+            for (int rank = 0; rank < found.length; rank++) {
+                assertFalse(removed[found[rank]]);
+                assertEquals(expected[rank], cities.distance(city, found[rank]), 1e-6);
+            }
+            assertEquals(expected[0], cities.distance(city, index.nearest(city)), 1e-6);
+
+            double radius = (expected[9] + expected[10]) / 2;
+            int[] within = index.withinRadius(city, radius);
+            long inside = Arrays.stream(expected).filter(d -> d <= radius).count();
+            assertEquals(inside, within.length);
+        }
+    }
+
+    @Test
+    void testKdTreeMatchesBruteForce() {
+        assertMatchesBruteForce(TestCities.random(2000, 71), KdTree::new);
+        assertMatchesBruteForce(worldCities(1000, 72), KdTree::new);
+    }
+
+    @Test
+    void testUniformGridMatchesBruteForce() {
+        assertMatchesBruteForce(TestCities.random(2000, 73), UniformGrid::new);
+        assertMatchesBruteForce(worldCities(1000, 74), UniformGrid::new);
+    }
+
+    @Test
+    void testNearestToPointAndEmptyIndex() {
+        CitySet cities = TestCities.random(50, 75);
+        for (SpatialIndex index : new SpatialIndex[]{new KdTree(cities), new UniformGrid(cities)}) {
+            assertEquals(7, index.nearest(cities.getLatitude(7), cities.getLongitude(7)));
+            for (int city = 0; city < cities.size(); city++) {
+                index.remove(city);
+            }
+            assertEquals(0, index.size());
+            assertEquals(-1, index.nearest(3));
+            assertEquals(-1, index.nearest(51.5, -0.1));
+            assertFalse(index.contains(3));
+        }
+    }
+}
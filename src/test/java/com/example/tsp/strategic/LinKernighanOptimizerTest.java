@@ -0,0 +1,53 @@
+package com.example.tsp.strategic;
+
+import com.example.tsp.TestCities;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.model.SearchControl;
+import com.example.tsp.spatial.NeighborSearch;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinKernighanOptimizerTest {
+
+    @Test
+    void testOptimizeBeatsTwoOpt() {
+        CitySet cities = TestCities.random(1000, 7);
+        NeighborLists neighbors = NeighborSearch.build(cities, NeighborLists.DEFAULT_K);
+
+        int[] twoOpt = TwoOptOptimizer.optimize(cities.identityTour(), cities, neighbors);
+        int[] linKernighan = LinKernighanOptimizer.optimize(cities.identityTour(), cities, neighbors);
+
+        int[] sorted = linKernighan.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(cities.identityTour(), sorted);
+        assertTrue(cities.tourLength(linKernighan) < cities.tourLength(twoOpt));
+    }
+
+    @Test
+    void testTinyTourIsLeftAlone() {
+        CitySet cities = new CitySet(new double[]{51.5, 51.6, 51.7}, new double[]{-0.1, -0.2, -0.1}, null);
+        int[] tour = {0, 1, 2};
+        assertArrayEquals(new int[]{0, 1, 2}, LinKernighanOptimizer.optimize(tour, cities, NeighborSearch.build(cities, 2)));
+    }
+
+    @Test
+    void testDeadlineStopsTheSearchWithAValidTour() {
+        CitySet cities = TestCities.random(20000, 11);
+        NeighborLists neighbors = NeighborSearch.build(cities, NeighborLists.DEFAULT_K);
+        SearchControl control = new SearchControl(0);
+        control.setTimeBudget(200);
+
+        long start = System.nanoTime();
+        int[] tour = LinKernighanOptimizer.optimize(cities.identityTour(), cities, neighbors, control);
+
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 2_000);
+        int[] sorted = tour.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(cities.identityTour(), sorted);
+        assertNotNull(control.getBestTour());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.tsp.strategic;
+
+import com.example.tsp.TestCities;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.model.SearchControl;
+import com.example.tsp.spatial.NeighborSearch;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrOptOptimizerTest {
+
+    @Test
+    void testProgressIsPublishedToTheControl() {
+        CitySet cities = TestCities.random(2000, 3);
+        SearchControl control = new SearchControl(0);
+
+        int[] tour = new OrOptOptimizer(NeighborSearch.build(cities, NeighborLists.DEFAULT_K))
+                .optimizeTour(cities.identityTour(), cities, control);
+
+        assertNotNull(control.getBestTour());
+        assertTrue(control.getBestCost() < cities.tourLength(cities.identityTour()));
+        assertTrue(cities.tourLength(tour) <= control.getBestCost() + 1e-9);
+    }
+
+    @Test
+    void testCancelledControlStopsTheSearch() {
+        CitySet cities = TestCities.random(2000, 5);
+        SearchControl control = new SearchControl();
+        control.cancel();
+
+        int[] tour = OrOptOptimizer.optimize(cities.identityTour(), cities, NeighborSearch.build(cities, NeighborLists.DEFAULT_K), control);
+
+        assertArrayEquals(cities.identityTour(), tour);
+    }
+}
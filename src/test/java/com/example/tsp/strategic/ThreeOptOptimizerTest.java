@@ -0,0 +1,59 @@
+package com.example.tsp.strategic;
+
+import com.example.tsp.TestCities;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.model.Tour;
+import com.example.tsp.spatial.NeighborSearch;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreeOptOptimizerTest {
+
+    @Test
+    void testEveryCaseChangesLengthByItsDelta() {
+        Random random = new Random(11);
+        CitySet cities = TestCities.random(random, 9);
+        int[] start = {4, 7, 1, 0, 8, 3, 6, 2, 5};
+        ThreeOptOptimizer.Move move = new ThreeOptOptimizer.Move();
+
+        for (int i = 0; i < 7; i++) {
+            for (int j = i + 1; j < 8; j++) {
+                for (int k = j + 1; k < 9; k++) {
+                    Tour tour = new Tour(start);
+                    double before = tour.length(cities);
+                    double delta = ThreeOptOptimizer.evaluate(tour, cities, i, j, k, move);
+                    ThreeOptOptimizer.apply(tour, move);
+
+                    assertEquals(before + delta, tour.length(cities), 1e-6);
+                    int[] sorted = tour.toArray();
+                    Arrays.sort(sorted);
+                    assertArrayEquals(cities.identityTour(), sorted);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testNeighborListOptimizeImproves() {
+        CitySet cities = TestCities.random(new Random(12), 1000);
+        int[] tour = TwoOptOptimizer.optimize(cities.identityTour(), cities, NeighborSearch.build(cities, NeighborLists.DEFAULT_K));
+        double twoOptLength = cities.tourLength(tour);
+
+        ThreeOptOptimizer.optimize(tour, cities, NeighborSearch.build(cities, NeighborLists.DEFAULT_K), 0);
+
+        assertTrue(cities.tourLength(tour) < twoOptLength);
+    }
+
+    @Test
+    void testTimeLimitIsHonoured() {
+        CitySet cities = TestCities.random(new Random(13), 1500);
+        long start = System.nanoTime();
+        ThreeOptOptimizer.optimize(cities.identityTour(), cities, null, 200);
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 2_000);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.tsp.strategic;
+
+import com.example.tsp.TestCities;
+import com.example.tsp.TourOptimizerChecks;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.model.TourOptimizer;
+import com.example.tsp.spatial.NeighborSearch;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class TourOptimizerTest {
+
+    private static List<TourOptimizer> optimizers(CitySet cities) {
+        NeighborLists neighbors = NeighborSearch.build(cities, NeighborLists.DEFAULT_K);
+        return List.of(
+                new TwoOptOptimizer(),
+                new ThreeOptOptimizer(neighbors),
+                new ThreeOptOptimizer(),
+                new OrOptOptimizer(neighbors));
+    }
+
+    @Test
+    void testBudgetIsHonouredAndSnapshotMatchesItsCost() {
+        CitySet cities = TestCities.random(3000, 71);
+        TourOptimizerChecks.assertBudgetIsHonoured(cities, optimizers(cities));
+    }
+
+    @Test
+    void testCancelledFromAnotherThread() throws InterruptedException {
+        CitySet cities = TestCities.random(3000, 72);
+        TourOptimizerChecks.assertCancelledFromAnotherThread(cities, optimizers(cities));
+    }
+}
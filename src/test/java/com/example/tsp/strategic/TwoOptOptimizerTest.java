@@ -0,0 +1,47 @@
+package com.example.tsp.strategic;
+
+import com.example.tsp.TestCities;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.spatial.NeighborSearch;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TwoOptOptimizerTest {
+
+    @Test
+    void testNeighborListsMatchBruteForce() {
+        CitySet cities = TestCities.random(500, 1);
+        NeighborLists fromGrid = NeighborSearch.build(cities, 8);
+        NeighborLists bruteForce = NeighborSearch.build((DistanceProvider) cities, 8);
+        for (int city = 0; city < cities.size(); city++) {
+            assertArrayEquals(bruteForce.neighborsOf(city), fromGrid.neighborsOf(city));
+        }
+    }
+
+    @Test
+    void testNeighborListOptimizeKeepsPermutationAndImproves() {
+        CitySet cities = TestCities.random(2000, 2);
+        int[] tour = cities.identityTour();
+        double before = cities.tourLength(tour);
+
+        TwoOptOptimizer.optimize(tour, cities, NeighborSearch.build(cities, NeighborLists.DEFAULT_K));
+
+        int[] sorted = tour.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(cities.identityTour(), sorted);
+        assertTrue(cities.tourLength(tour) < before / 10);
+    }
+
+    @Test
+    void testNeighborListOptimizeIsCloseToFullSweep() {
+        CitySet cities = TestCities.random(300, 3);
+        int[] full = TwoOptOptimizer.optimize(cities.identityTour(), cities);
+        int[] candidates = TwoOptOptimizer.optimize(cities.identityTour(), cities, NeighborSearch.build(cities, NeighborLists.DEFAULT_K));
+        assertEquals(cities.tourLength(full), cities.tourLength(candidates), cities.tourLength(full) * 0.05);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.tsp.tactical;
+
+import com.example.tsp.TestCities;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.model.SearchControl;
+import com.example.tsp.spatial.NeighborSearch;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AntColonyOptimizationTest {
+
+    @Test
+    void testEveryVariantBuildsShorterValidTours() {
+        CitySet cities = TestCities.random(120, 41);
+        int[] start = cities.identityTour();
+
+        for (AntColonyOptimization.Variant variant : AntColonyOptimization.Variant.values()) {
+            for (boolean localSearch : new boolean[]{false, true}) {
+                int[] result = AntColonyOptimization.optimize(start, cities, variant, localSearch, 5, 20, 1.0, 3.0, 0.2);
+
+                int[] sorted = result.clone();
+                Arrays.sort(sorted);
+                assertArrayEquals(cities.identityTour(), sorted, variant.name());
+                assertTrue(cities.tourLength(result) < cities.tourLength(start) * 0.5, variant.name());
+            }
+        }
+    }
+
+    @Test
+    void testTrailsFitLargeInstances() {
+        // A full n*n trail table would overflow an int index just above 46k cities
+        CitySet cities = TestCities.random(47_000, 42);
+        NeighborLists candidates = NeighborSearch.build(cities, AntColonyOptimization.DEFAULT_CANDIDATES);
+
+        for (AntColonyOptimization.Variant variant : AntColonyOptimization.Variant.values()) {
+            int[] result = AntColonyOptimization.optimize(cities.identityTour(), cities, candidates, variant, false,
+                    1, 1, 1.0, 3.0, 0.2, new SearchControl());
+
+            int[] sorted = result.clone();
+            Arrays.sort(sorted);
+            assertArrayEquals(cities.identityTour(), sorted, variant.name());
+        }
+    }
+}
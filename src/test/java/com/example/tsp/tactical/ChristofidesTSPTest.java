@@ -96,7 +96,24 @@ class ChristofidesTSPTest {
         assertEquals(0, optimizedCities.size());
     }
 
-
+    @Test
+    void testEulerianCircuit_usesEveryEdgeOnce() {
+        // Two triangles sharing city 0, with edge 3-4 present three times
+        int[] from = {0, 1, 2, 0, 3, 4, 3, 4};
+        int[] to = {1, 2, 0, 3, 4, 0, 4, 3};
+        int[] circuit = ChristofidesTSP.findEulerianCircuit(5, from, to);
+
+        assertEquals(from.length + 1, circuit.length);
+        assertEquals(circuit[0], circuit[circuit.length - 1]);
+        int[][] remaining = new int[5][5];
+        for (int e = 0; e < from.length; e++) {
+            remaining[from[e]][to[e]]++;
+            remaining[to[e]][from[e]]++;
+        }
+        for (int i = 0; i + 1 < circuit.length; i++) {
+            assertTrue(remaining[circuit[i]][circuit[i + 1]] > 0, "Edge used more often than it exists");
+            remaining[circuit[i]][circuit[i + 1]]--;
+            remaining[circuit[i + 1]][circuit[i]]--;
+        }
+    }
 }
-
-
@@ -0,0 +1,88 @@
+package com.example.tsp.tactical;
+
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.DisjointSet;
+import com.example.tsp.model.DistanceProvider;
+import com.example.tsp.model.NeighborLists;
+import com.example.tsp.spatial.NeighborSearch;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinimumSpanningTreeTest {
+
+    // Four tight, far apart clusters, so the neighbour graph falls apart into components
+    private static CitySet clusteredCities(int n) {
+        Random random = new Random(51);
+        double[] latitude = new double[n];
+        double[] longitude = new double[n];
+        for (int i = 0; i < n; i++) {
+            int cluster = i % 4;
+            latitude[i] = 51.3 + cluster * 0.1 + random.nextGaussian() * 0.005;
+            longitude[i] = -0.5 + cluster * 0.15 + random.nextGaussian() * 0.005;
+        }
+        return new CitySet(latitude, longitude, null);
+    }
+
+    @Test
+    void testSparseKruskalMatchesPrim() {
+        CitySet cities = clusteredCities(800);
+        MinimumSpanningTree dense = MinimumSpanningTree.prim(cities);
+        MinimumSpanningTree sparse = MinimumSpanningTree.kruskal(cities, NeighborSearch.build(cities, MinimumSpanningTree.SPARSE_NEIGHBORS));
+
+        assertEquals(cities.size() - 1, sparse.size());
+        assertEquals(dense.getTotalWeight(), sparse.getTotalWeight(), 1e-6);
+    }
+
+    @Test
+    void testComponentsAreJoinedExactlyWithAndWithoutCoordinates() {
+        // Sixty small clusters at uneven spacing take several joining rounds to connect
+        Random random = new Random(52);
+        int n = 1500;
+        double[] latitude = new double[n];
+        double[] longitude = new double[n];
+        for (int i = 0; i < n; i++) {
+            int cluster = i % 60;
+            latitude[i] = 51.3 + (cluster / 10) * 0.05 + (cluster % 3) * 0.004 + random.nextGaussian() * 0.001;
+            longitude[i] = -0.5 + (cluster % 10) * 0.06 + (cluster % 7) * 0.005 + random.nextGaussian() * 0.001;
+        }
+        CitySet cities = new CitySet(latitude, longitude, null);
+        NeighborLists neighbors = NeighborSearch.build(cities, MinimumSpanningTree.SPARSE_NEIGHBORS);
+        DistanceProvider withoutCoordinates = new DistanceProvider() {
+            @Override
+            public int size() {
+                return cities.size();
+            }
+
+            @Override
+            public double distance(int from, int to) {
+                return cities.distance(from, to);
+            }
+        };
+        double expected = MinimumSpanningTree.prim(cities).getTotalWeight();
+
+        for (DistanceProvider distances : new DistanceProvider[]{cities, withoutCoordinates}) {
+            MinimumSpanningTree tree = MinimumSpanningTree.kruskal(distances, neighbors);
+            assertEquals(cities.size() - 1, tree.size());
+            assertEquals(expected, tree.getTotalWeight(), 1e-6);
+            DisjointSet components = new DisjointSet(cities.size());
+            for (int e = 0; e < tree.size(); e++) {
+                assertTrue(components.union(tree.getFrom(e), tree.getTo(e)), "edge " + e + " closes a cycle");
+            }
+        }
+    }
+
+    @Test
+    void testTreeSpansAllCities() {
+        CitySet cities = clusteredCities(300);
+        MinimumSpanningTree tree = MinimumSpanningTree.prim(cities);
+
+        DisjointSet components = new DisjointSet(cities.size());
+        for (int e = 0; e < tree.size(); e++) {
+            assertTrue(components.union(tree.getFrom(e), tree.getTo(e)), "edge " + e + " closes a cycle");
+        }
+        assertEquals(1, components.getComponents());
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.tsp.tactical;
+
+import com.example.tsp.TestCities;
+import com.example.tsp.model.CitySet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelTemperingOptimizerTest {
+
+    @Test
+    void testReplicasReturnShorterValidTour() {
+        CitySet cities = TestCities.random(150, 31);
+        int[] start = cities.identityTour();
+        double averageEdge = cities.tourLength(start) / cities.size();
+
+        int[] result = new ParallelTemperingOptimizer(averageEdge * 0.005, averageEdge * 0.5, 4, 200_000, 1000, 0)
+                .optimizeTour(start, cities);
+
+        int[] sorted = result.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(cities.identityTour(), sorted);
+        assertTrue(cities.tourLength(result) < cities.tourLength(start) * 0.5);
+    }
+
+    @Test
+    void testRejectsEmptyLadder() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelTemperingOptimizer(1, 10, 0, 100, 10, 0));
+    }
+}
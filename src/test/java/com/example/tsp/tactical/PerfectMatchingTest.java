@@ -0,0 +1,69 @@
+package com.example.tsp.tactical;
+
+import com.example.tsp.TestCities;
+import com.example.tsp.model.CitySet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerfectMatchingTest {
+
+    private static double weight(CitySet cities, int[] pairs) {
+        double total = 0;
+        for (int p = 0; p < pairs.length; p += 2) {
+            total += cities.distance(pairs[p], pairs[p + 1]);
+        }
+        return total;
+    }
+
+    @Test
+    void testGreedyMatchesEveryVertexOnce() {
+        CitySet cities = TestCities.random(6000, 61);
+        int[] vertices = new int[3000];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = 2 * i;
+        }
+
+        int[] pairs = PerfectMatching.match(cities, vertices, PerfectMatching.Mode.GREEDY);
+
+        int[] sorted = pairs.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(vertices, sorted);
+    }
+
+    @Test
+    void testExactMatchesOptimumOnSmallInput() {
+        CitySet cities = TestCities.random(16, 62);
+        int n = cities.size();
+        // Reference optimum by dynamic programming over subsets
+        double[] best = new double[1 << n];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        best[0] = 0;
+        for (int mask = 1; mask < 1 << n; mask++) {
+            if (Integer.bitCount(mask) % 2 != 0) {
+                continue;
+            }
+            int i = Integer.numberOfTrailingZeros(mask);
+            for (int j = i + 1; j < n; j++) {
+                if ((mask >> j & 1) != 0) {
+                    best[mask] = Math.min(best[mask], best[mask & ~(1 << i) & ~(1 << j)] + cities.distance(i, j));
+                }
+            }
+        }
+
+        int[] exact = PerfectMatching.match(cities, cities.identityTour(), PerfectMatching.Mode.EXACT);
+        int[] greedy = PerfectMatching.match(cities, cities.identityTour(), PerfectMatching.Mode.GREEDY);
+
+        assertEquals(best[(1 << n) - 1], weight(cities, exact), 1e-6);
+        assertTrue(weight(cities, greedy) >= weight(cities, exact) - 1e-6);
+    }
+
+    @Test
+    void testOddVertexCountIsRejected() {
+        CitySet cities = TestCities.random(5, 63);
+        assertThrows(IllegalArgumentException.class,
+                () -> PerfectMatching.match(cities, cities.identityTour(), PerfectMatching.Mode.AUTO));
+    }
+}
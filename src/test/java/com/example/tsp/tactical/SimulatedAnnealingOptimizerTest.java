@@ -0,0 +1,54 @@
+package com.example.tsp.tactical;
+
+import com.example.tsp.TestCities;
+import com.example.tsp.model.CitySet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatedAnnealingOptimizerTest {
+
+    @Test
+    void testRunningCostMatchesTourLength() {
+        CitySet cities = TestCities.random(new Random(21), 60);
+        for (SimulatedAnnealingOptimizer.MoveType move : SimulatedAnnealingOptimizer.MoveType.values()) {
+            SimulatedAnnealingOptimizer.Chain chain = new SimulatedAnnealingOptimizer.Chain(cities.identityTour(), cities,
+                    new SimulatedAnnealingOptimizer.MoveType[]{move}, new SplittableRandom(5));
+            for (int i = 0; i < 20_000; i++) {
+                chain.step(2000);
+            }
+            int[] best = chain.bestTour();
+            assertEquals(chain.getBestCost(), cities.tourLength(best), 1e-3, move.name());
+
+            int[] sorted = best.clone();
+            Arrays.sort(sorted);
+            assertArrayEquals(cities.identityTour(), sorted);
+        }
+    }
+
+    @Test
+    void testAnnealingShortensRandomTour() {
+        CitySet cities = TestCities.random(new Random(22), 200);
+        int[] start = cities.identityTour();
+        double before = cities.tourLength(start);
+
+        int[] result = new SimulatedAnnealingOptimizer(1000, 0.99999, 500_000).optimizeTour(start, cities);
+
+        assertTrue(cities.tourLength(result) < before * 0.5);
+    }
+
+    @Test
+    void testSimpleAnnealingLeavesTheInputTourAlone() {
+        CitySet cities = TestCities.random(new Random(23), 100);
+        int[] start = cities.identityTour();
+
+        int[] result = SimulatedAnnealing.optimize(start, cities, 1000, 0.0001, 50_000);
+
+        assertArrayEquals(cities.identityTour(), start);
+        assertTrue(cities.tourLength(result) <= cities.tourLength(start));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.tsp.tactical;
+
+import com.example.tsp.TestCities;
+import com.example.tsp.TourOptimizerChecks;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.model.TourOptimizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class TourOptimizerTest {
+
+    private static List<TourOptimizer> optimizers() {
+        return List.of(
+                new SimulatedAnnealingOptimizer(10000, 0.999999, Integer.MAX_VALUE),
+                AntColonyOptimization.optimizer(AntColonyOptimization.Variant.MAX_MIN, true, 10, Integer.MAX_VALUE, 1.0, 5.0, 0.2));
+    }
+
+    @Test
+    void testBudgetIsHonouredAndSnapshotMatchesItsCost() {
+        TourOptimizerChecks.assertBudgetIsHonoured(TestCities.random(3000, 71), optimizers());
+    }
+
+    @Test
+    void testCancelledFromAnotherThread() throws InterruptedException {
+        TourOptimizerChecks.assertCancelledFromAnotherThread(TestCities.random(3000, 72), optimizers());
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.tsp.tsplib;
+
+import com.example.tsp.engine.Pipeline;
+import com.example.tsp.model.CitySet;
+import com.example.tsp.strategic.ThreeOptOptimizer;
+import com.example.tsp.strategic.TwoOptOptimizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TsplibReaderTest {
+
+    private static BufferedReader reader(String text) {
+        return new BufferedReader(new StringReader(text));
+    }
+
+    @Test
+    void testBundledOptimalToursHaveThePublishedLengths() throws IOException {
+        // One instance per metric is enough to catch a rounding mistake, but check them all
+        assertEquals(3323, TsplibRegression.bundled("burma14").getOptimum());
+        assertEquals(6859, TsplibRegression.bundled("ulysses16").getOptimum());
+        assertEquals(10628, TsplibRegression.bundled("att48").getOptimum());
+        assertEquals(426, TsplibRegression.bundled("eil51").getOptimum());
+        assertEquals(7542, TsplibRegression.bundled("berlin52").getOptimum());
+        assertEquals(10240, TsplibRegression.bundled("grid1024").getOptimum());
+    }
+
+    @Test
+    void testMetricsRoundAsTsplibDefinesThem() {
+        double[] x = {0, 3, 0};
+        double[] y = {0, 4, 1.4};
+        TsplibInstance euclidean = new TsplibInstance("e", null, TsplibInstance.EdgeWeightType.EUC_2D, x, y);
+        assertEquals(5, euclidean.distance(0, 1));
+        assertEquals(1, euclidean.distance(0, 2));
+        TsplibInstance ceiling = new TsplibInstance("c", null, TsplibInstance.EdgeWeightType.CEIL_2D, x, y);
+        assertEquals(2, ceiling.distance(0, 2));
+        // sqrt(25 / 10) = 1.58 rounds to 2; sqrt(1.96 / 10) = 0.44 rounds to 0 and is then bumped to 1
+        TsplibInstance att = new TsplibInstance("a", null, TsplibInstance.EdgeWeightType.ATT, x, y);
+        assertEquals(2, att.distance(0, 1));
+        assertEquals(1, att.distance(0, 2));
+        assertEquals(0, att.distance(1, 1));
+    }
+
+    @Test
+    void testReaderSkipsUnknownKeywordsAndRejectsExplicitWeights() throws IOException {
+        TsplibInstance instance = TsplibReader.readInstance(reader(
+                "NAME: tiny\nCOMMENT: a square\nTYPE: TSP\nDIMENSION: 4\nEDGE_WEIGHT_TYPE: EUC_2D\nDISPLAY_DATA_TYPE: COORD_DISPLAY\n"
+                        + "NODE_COORD_SECTION\n 1 0 0\n 2 1.0e1 0\n\n 4 0 10\n 3 10 10\nEOF\n"));
+        assertEquals("tiny", instance.getName());
+        assertEquals("a square", instance.getComment());
+        assertEquals(4, instance.size());
+        assertEquals(10, instance.getY(2));
+        assertEquals(40, instance.tourLength(new int[]{0, 1, 2, 3}));
+        assertTrue(Double.isNaN(instance.getOptimum()));
+
+        assertThrows(IllegalArgumentException.class, () -> TsplibReader.readInstance(reader(
+                "NAME: m\nTYPE: TSP\nDIMENSION: 3\nEDGE_WEIGHT_TYPE: EXPLICIT\nEDGE_WEIGHT_FORMAT: UPPER_ROW\nEDGE_WEIGHT_SECTION\n1 2\n3\nEOF\n")));
+        assertThrows(IllegalArgumentException.class, () -> TsplibReader.readInstance(reader(
+                "NAME: short\nTYPE: TSP\nDIMENSION: 3\nEDGE_WEIGHT_TYPE: EUC_2D\nNODE_COORD_SECTION\n1 0 0\n2 1 1\nEOF\n")));
+    }
+
+    @Test
+    void testTourSectionMayBeOnOneLine() throws IOException {
+        assertArrayEquals(new int[]{0, 2, 1, 3},
+                TsplibReader.readTour(reader("NAME: t\nTYPE: TOUR\nDIMENSION: 4\nTOUR_SECTION\n1 3 2\n4 -1\nEOF\n")));
+        assertThrows(IllegalArgumentException.class,
+                () -> TsplibReader.readTour(reader("DIMENSION: 3\nTOUR_SECTION\n1\n2\n2\n-1\n")));
+    }
+
+    @Test
+    void testInstanceFileIsPairedWithItsOptimalTour() throws IOException {
+        Path directory = Files.createTempDirectory("tsplib");
+        try {
+            Files.writeString(directory.resolve("sq.tsp"),
+                    "NAME: sq\nTYPE: TSP\nDIMENSION: 4\nEDGE_WEIGHT_TYPE: EUC_2D\nNODE_COORD_SECTION\n1 0 0\n2 10 10\n3 10 0\n4 0 10\nEOF\n");
+            Files.writeString(directory.resolve("sq.opt.tour"), "TYPE: TOUR\nDIMENSION: 4\nTOUR_SECTION\n1\n3\n2\n4\n-1\nEOF\n");
+            List<TsplibInstance> instances = TsplibRegression.load(directory);
+            assertEquals(1, instances.size());
+            assertEquals(40, instances.get(0).getOptimum());
+        } finally {
+            Files.deleteIfExists(directory.resolve("sq.tsp"));
+            Files.deleteIfExists(directory.resolve("sq.opt.tour"));
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    void testPlanarInstancesKeepTheirNeighboursAsCities() throws IOException {
+        TsplibInstance berlin = TsplibRegression.bundled("berlin52");
+        CitySet cities = berlin.toCitySet();
+        for (int i = 0; i < berlin.size(); i++) {
+            for (int j = 1; j < berlin.size(); j++) {
+                double planar = Math.hypot(berlin.getX(i) - berlin.getX(0), berlin.getY(i) - berlin.getY(0))
+                        - Math.hypot(berlin.getX(j) - berlin.getX(0), berlin.getY(j) - berlin.getY(0));
+                double spherical = cities.distance(0, i) - cities.distance(0, j);
+                if (Math.abs(planar) > 1) {
+                    assertEquals(Math.signum(planar), Math.signum(spherical));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRegressionRunReportsGapToOptimum() throws IOException {
+        List<TsplibRegression.Result> results = TsplibRegression.run(
+                List.of(TsplibRegression.bundled("burma14"), TsplibRegression.bundled("eil51")),
+                TsplibRegression.parsePipelines("greedy; greedy > oropt > 2opt"), 0);
+
+        assertEquals(4, results.size());
+        for (TsplibRegression.Result result : results) {
+            assertTrue(result.getGapPercent() >= 0, result.toString());
+            assertTrue(result.getGapPercent() < 30, result.toString());
+        }
+        // Local search on top of the same construction can only shorten the tour
+        assertTrue(results.get(1).getCost() <= results.get(0).getCost());
+        assertTrue(results.get(3).getCost() <= results.get(2).getCost());
+        assertEquals(Pipeline.parse("greedy > oropt > 2opt").toString(), results.get(1).getPipeline());
+    }
+
+    @Test
+    void testMidSizeInstanceIsSolvedWithinItsTimeBound() throws IOException {
+        TsplibInstance grid = TsplibRegression.bundled("grid1024");
+        // Large enough that 2-opt and 3-opt search their neighbour lists instead of every pair
+        assertTrue(grid.size() >= TwoOptOptimizer.NEIGHBOR_LIST_THRESHOLD);
+        assertTrue(grid.size() >= ThreeOptOptimizer.NEIGHBOR_LIST_THRESHOLD);
+
+        List<TsplibRegression.Result> results = TsplibRegression.run(List.of(grid),
+                TsplibRegression.parsePipelines("greedy > oropt > 2opt; greedy > oropt > 3opt; hilbert > oropt > 2opt > lk"), 0);
+
+        for (TsplibRegression.Result result : results) {
+            assertTrue(result.getGapPercent() >= 0, result.toString());
+            assertTrue(result.getGapPercent() < 2, result.toString());
+            assertTrue(result.getElapsedMillis() < 5_000, result.toString());
+        }
+    }
+}